@@ -78,4 +78,33 @@ public class Maven {
         return resolverSystem.configureViaPlugin();
     }
 
+    /**
+     * Loads dependencies of the project as resolved by Maven and exported by the ShrinkWrap Maven Resolver Plugin, so they
+     * are not resolved again. The new instance will be created by the current {@link Thread#getContextClassLoader()}.
+     *
+     * @return
+     * @throws InvalidEnvironmentException
+     *             If this is executed outside the context of the ShrinkWrap Maven Resolver Plugin Environment
+     */
+    public static MavenExportedGraphStage resolvedGraphViaPlugin() throws InvalidEnvironmentException {
+        return resolvedGraphViaPlugin(SecurityActions.getThreadContextClassLoader());
+    }
+
+    /**
+     * Loads dependencies of the project as resolved by Maven and exported by the ShrinkWrap Maven Resolver Plugin, so they
+     * are not resolved again.
+     *
+     * @param cl
+     *            The {@link ClassLoader} used to create the new instance; required
+     * @return
+     * @throws IllegalArgumentException
+     *             If the {@link ClassLoader} is not specified
+     * @throws InvalidEnvironmentException
+     *             If this is executed outside the context of the ShrinkWrap Maven Resolver Plugin Environment
+     */
+    public static MavenExportedGraphStage resolvedGraphViaPlugin(final ClassLoader cl)
+        throws InvalidEnvironmentException, IllegalArgumentException {
+        return Resolvers.use(MavenExportedGraphResolverSystem.class, cl).loadGraphViaPlugin();
+    }
+
 }
@@ -42,6 +42,14 @@ public interface MavenArtifactInfo {
      */
     String getExtension();
 
+    /**
+     * Returns the scope of this artifact in the resolved dependency graph. For transitive dependencies, this is the
+     * scope as mediated by Maven, e.g. a compile dependency of a test dependency is in {@link ScopeType#TEST} scope.
+     *
+     * @return The scope, which is never null
+     */
+    ScopeType getScope();
+
     /**
      * Returns artifacts dependencies.
      *
@@ -0,0 +1,51 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.api.maven;
+
+import java.util.Set;
+
+/**
+ * Index of classes and packages contained in resolved artifacts, see {@link MavenFormatStage#asClassIndex()}. Lookups do
+ * not access the artifacts.
+ */
+public interface MavenClassIndex {
+
+    /**
+     * Gets artifacts containing a class
+     *
+     * @param className
+     *        Binary name of the class, e.g. {@code org.example.Outer$Inner}
+     * @return Artifacts containing the class in the order of resolution, empty if no artifact contains it
+     */
+    MavenResolvedArtifact[] findClass(String className);
+
+    /**
+     * Gets artifacts containing classes of a package
+     *
+     * @param packageName
+     *        Name of the package, empty for the default package
+     * @return Artifacts containing classes of the package in the order of resolution, empty if no artifact contains them
+     */
+    MavenResolvedArtifact[] findPackage(String packageName);
+
+    /**
+     * Gets packages with classes in more than a single artifact
+     *
+     * @return
+     */
+    Set<String> getSplitPackages();
+}
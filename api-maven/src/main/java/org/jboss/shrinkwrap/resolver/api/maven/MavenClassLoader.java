@@ -0,0 +1,37 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.api.maven;
+
+import java.io.Closeable;
+
+/**
+ * {@link ClassLoader} of resolved artifacts, see {@link MavenFormatStage#asClassLoader()}. Loaders of the same artifacts
+ * share the loaded classes and open files; these are released once all the loaders sharing them are closed.
+ */
+public abstract class MavenClassLoader extends ClassLoader implements Closeable {
+
+    protected MavenClassLoader(final ClassLoader parent) {
+        super(parent);
+    }
+
+    /**
+     * Releases this loader. Classes and files shared with other loaders are released when the last of them is closed.
+     * The loader should not be used afterwards; closing it again has no effect.
+     */
+    @Override
+    public abstract void close();
+}
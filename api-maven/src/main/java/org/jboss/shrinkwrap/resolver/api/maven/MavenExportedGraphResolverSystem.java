@@ -0,0 +1,64 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.api.maven;
+
+import java.io.File;
+
+import org.jboss.shrinkwrap.resolver.api.ResolverSystem;
+import org.jboss.shrinkwrap.resolver.api.Resolvers;
+
+/**
+ * Entry point of a Maven-based Resolver system which imports dependencies of a project from a graph exported by the
+ * ShrinkWrap Maven Resolver Plugin ("export-resolved-graph" goal) instead of collecting and resolving them again. No
+ * repository system is started, artifacts are taken from the files recorded by Maven. To create a new instance, pass
+ * in this class reference to {@link Resolvers#use(Class)} or {@link Resolvers#use(Class, ClassLoader)}, or call upon
+ * {@link Maven#resolvedGraphViaPlugin()}.
+ */
+public interface MavenExportedGraphResolverSystem extends ResolverSystem {
+
+    /**
+     * Loads the graph exported by the ShrinkWrap Maven Resolver Plugin in the current build, as picked up from the
+     * environment
+     *
+     * @return The next {@link MavenExportedGraphStage}
+     * @throws InvalidEnvironmentException
+     *         If this is executed outside the context of the ShrinkWrap Maven Resolver Plugin Environment
+     */
+    MavenExportedGraphStage loadGraphViaPlugin() throws InvalidEnvironmentException;
+
+    /**
+     * Loads the graph from the given exported file
+     *
+     * @param file
+     *        Exported graph, required
+     * @return The next {@link MavenExportedGraphStage}
+     * @throws IllegalArgumentException
+     *         If the file is not specified, is not readable or does not contain an exported graph
+     */
+    MavenExportedGraphStage loadGraph(File file) throws IllegalArgumentException;
+
+    /**
+     * Loads the graph from the given exported file
+     *
+     * @param path
+     *        Path to exported graph, required
+     * @return The next {@link MavenExportedGraphStage}
+     * @throws IllegalArgumentException
+     *         If the path is not specified, is not readable or does not contain an exported graph
+     */
+    MavenExportedGraphStage loadGraph(String path) throws IllegalArgumentException;
+}
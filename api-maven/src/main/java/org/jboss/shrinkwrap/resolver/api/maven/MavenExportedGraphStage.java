@@ -0,0 +1,46 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.api.maven;
+
+/**
+ * Stage providing dependencies of a project as they were resolved by Maven and exported by the ShrinkWrap Maven
+ * Resolver Plugin. Scopes follow the same rules as the equivalent methods of {@link PomEquippedResolveStageBase}.
+ */
+public interface MavenExportedGraphStage {
+
+    /**
+     * Returns dependencies of the project in scopes {@link ScopeType#COMPILE}, {@link ScopeType#IMPORT},
+     * {@link ScopeType#RUNTIME} and {@link ScopeType#SYSTEM}
+     *
+     * @return The next {@link MavenFormatStage}
+     */
+    MavenFormatStage importRuntimeDependencies();
+
+    /**
+     * Returns all dependencies of the project
+     *
+     * @return The next {@link MavenFormatStage}
+     */
+    MavenFormatStage importRuntimeAndTestDependencies();
+
+    /**
+     * Returns all dependencies of the project, providing views per scope
+     *
+     * @return The {@link MavenScopedResolution}
+     */
+    MavenScopedResolution importDependenciesByScope();
+}
@@ -16,6 +16,9 @@
  */
 package org.jboss.shrinkwrap.resolver.api.maven;
 
+import java.io.File;
+import java.util.concurrent.Executor;
+
 import org.jboss.shrinkwrap.resolver.api.FormatStage;
 
 /**
@@ -27,4 +30,79 @@ import org.jboss.shrinkwrap.resolver.api.FormatStage;
  */
 public interface MavenFormatStage extends FormatStage<MavenResolvedArtifact> {
 
+    /**
+     * Exports the resultant artifacts, their POM files, SHA-1 checksums and the resolved dependency graph into a self
+     * contained bundle directory. Artifacts can later be resolved from the bundle via
+     * {@link MavenOfflineBundleResolverSystem} without accessing any repository.
+     *
+     * @param directory
+     *        Directory the bundle is written to, created if it does not exist; required
+     * @return The index file of the bundle
+     * @throws IllegalArgumentException
+     *         If the directory is not specified or the bundle could not be written
+     */
+    File exportBundle(File directory) throws IllegalArgumentException;
+
+    /**
+     * Gets report of the resolution which produced the resultant artifacts. Stages not backed by a resolution, such as
+     * those created from an exported graph or an offline bundle, report format processing only.
+     *
+     * @return The report, never {@code null}
+     */
+    ResolutionReport getResolutionReport();
+
+    /**
+     * Gets a stage formatting the same artifacts in parallel on a shared pool of daemon threads sized by the number of
+     * available processors. Threads of the pool use the {@link ClassLoader} of the resolver as their context class
+     * loader. Results are returned in the same order as from this stage. Only format processors declared safe for
+     * concurrent use are called in parallel, others are called one artifact after another. Stages formatting artifacts
+     * from a thread of this pool, e.g. within a format processor, do so in that thread.
+     *
+     * @return The parallel stage
+     */
+    MavenFormatStage inParallel();
+
+    /**
+     * Gets a stage formatting the same artifacts in parallel on the given {@link Executor}. Results are returned in the
+     * same order as from this stage. Only format processors declared safe for concurrent use are called in parallel,
+     * others are called one artifact after another.
+     *
+     * @param executor
+     *        Executor running the format processors; required
+     * @return The parallel stage
+     * @throws IllegalArgumentException
+     *         If the executor is not specified
+     */
+    MavenFormatStage inParallel(Executor executor) throws IllegalArgumentException;
+
+    /**
+     * Formats the resultant artifacts as a single {@link ClassLoader} with the current
+     * {@link Thread#getContextClassLoader()} as its parent, see {@link #asClassLoader(ClassLoader)}.
+     *
+     * @return The loader; it is a caller responsibility to close it afterwards
+     */
+    MavenClassLoader asClassLoader();
+
+    /**
+     * Formats the resultant artifacts as a single {@link ClassLoader} loading classes and resources from the artifacts in
+     * their order. Loaders of the same unchanged artifact files in the same order and with the same parent share a single
+     * underlying loader, which is released when all of them are closed.
+     *
+     * @param parent
+     *        Parent of the loader; required
+     * @return The loader; it is a caller responsibility to close it afterwards
+     * @throws IllegalArgumentException
+     *         If the parent is not specified or an artifact was not resolved to a file
+     */
+    MavenClassLoader asClassLoader(ClassLoader parent) throws IllegalArgumentException;
+
+    /**
+     * Formats the resultant artifacts as an index of classes and packages they contain. Artifacts are scanned in
+     * parallel by stages obtained from {@link #inParallel()}, one after another otherwise; list of classes of each
+     * artifact in the local repository is stored next to it and reused as long as the artifact file does not change.
+     * Nothing is stored next to artifacts elsewhere, e.g. in a workspace or an offline bundle.
+     *
+     * @return The index
+     */
+    MavenClassIndex asClassIndex();
 }
@@ -0,0 +1,52 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.api.maven;
+
+import java.io.File;
+
+import org.jboss.shrinkwrap.resolver.api.ResolverSystem;
+import org.jboss.shrinkwrap.resolver.api.Resolvers;
+
+/**
+ * Entry point of a Maven-based Resolver system which resolves exclusively from a bundle exported by
+ * {@link MavenFormatStage#exportBundle(File)}. Neither local nor remote repositories are accessed. To create a new
+ * instance, pass in this class reference to {@link Resolvers#use(Class)} or {@link Resolvers#use(Class, ClassLoader)}.
+ */
+public interface MavenOfflineBundleResolverSystem extends ResolverSystem {
+
+    /**
+     * Loads the bundle from given directory
+     *
+     * @param directory
+     *        Directory of the bundle, required
+     * @return The next {@link MavenOfflineBundleStage}
+     * @throws IllegalArgumentException
+     *         If the directory is not specified or does not contain a bundle
+     */
+    MavenOfflineBundleStage loadBundle(File directory) throws IllegalArgumentException;
+
+    /**
+     * Loads the bundle from given directory
+     *
+     * @param path
+     *        Path to the directory of the bundle, required
+     * @return The next {@link MavenOfflineBundleStage}
+     * @throws IllegalArgumentException
+     *         If the path is not specified or does not contain a bundle
+     */
+    MavenOfflineBundleStage loadBundle(String path) throws IllegalArgumentException;
+}
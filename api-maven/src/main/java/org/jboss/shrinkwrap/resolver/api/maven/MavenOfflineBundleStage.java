@@ -0,0 +1,61 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.api.maven;
+
+import org.jboss.shrinkwrap.resolver.api.NoResolvedResultException;
+
+/**
+ * Stage resolving artifacts from an offline bundle. Artifacts are looked up by groupId, artifactId, packaging and
+ * classifier; if a version is specified, it has to match the version in the bundle. Transitive dependencies are taken
+ * from the dependency graph recorded in the bundle.
+ */
+public interface MavenOfflineBundleStage {
+
+    /**
+     * Resolves artifacts with their transitive dependencies
+     *
+     * @param canonicalForms
+     *        Coordinates of the artifacts, required
+     * @return The next {@link MavenFormatStage}
+     * @throws IllegalArgumentException
+     *         If no coordinates are specified or a coordinate could not be parsed
+     * @throws NoResolvedResultException
+     *         If any of the artifacts is not present in the bundle
+     */
+    MavenFormatStage resolve(String... canonicalForms) throws IllegalArgumentException, NoResolvedResultException;
+
+    /**
+     * Resolves artifacts without their transitive dependencies
+     *
+     * @param canonicalForms
+     *        Coordinates of the artifacts, required
+     * @return The next {@link MavenFormatStage}
+     * @throws IllegalArgumentException
+     *         If no coordinates are specified or a coordinate could not be parsed
+     * @throws NoResolvedResultException
+     *         If any of the artifacts is not present in the bundle
+     */
+    MavenFormatStage resolveWithoutTransitivity(String... canonicalForms) throws IllegalArgumentException,
+        NoResolvedResultException;
+
+    /**
+     * Returns all artifacts of the bundle, in order they were exported
+     *
+     * @return The next {@link MavenFormatStage}
+     */
+    MavenFormatStage importBundle();
+}
@@ -26,5 +26,26 @@ import org.jboss.shrinkwrap.resolver.api.ResolvedArtifact;
  * @author <a href="mailto:mmatloka@gmail.com">Michal Matloka</a>
  */
 public interface MavenResolvedArtifact extends MavenArtifactInfo, ResolvedArtifact<MavenResolvedArtifact> {
-    /* empty */
+
+    /**
+     * Gets SHA-1 checksum of the artifact file. The checksum is read from the {@code .sha1} file stored next to the
+     * artifact in the repository, it is computed if there is none or if it was modified before the artifact file. The
+     * result is kept for the lifetime of this instance.
+     *
+     * @return Checksum as a lowercase hexadecimal string
+     * @throws IllegalStateException
+     *         If the checksum had to be computed and the artifact file could not be read
+     */
+    String getSha1() throws IllegalStateException;
+
+    /**
+     * Gets MD5 checksum of the artifact file. The checksum is read from the {@code .md5} file stored next to the artifact
+     * in the repository, it is computed if there is none or if it was modified before the artifact file. The result is
+     * kept for the lifetime of this instance.
+     *
+     * @return Checksum as a lowercase hexadecimal string
+     * @throws IllegalStateException
+     *         If the checksum had to be computed and the artifact file could not be read
+     */
+    String getMd5() throws IllegalStateException;
 }
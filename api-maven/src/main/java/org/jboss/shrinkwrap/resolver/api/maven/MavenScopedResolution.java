@@ -0,0 +1,69 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.api.maven;
+
+/**
+ * Result of a single resolution of dependencies in all scopes, providing views of the resolved artifacts as they would
+ * appear on Maven classpaths. Views are computed from the scopes of the artifacts in the dependency graph, as mediated by
+ * Maven, so the graph is collected and resolved only once.
+ *
+ * @see MavenArtifactInfo#getScope()
+ */
+public interface MavenScopedResolution {
+
+    /**
+     * Returns artifacts on the compile classpath. Amounts to scopes: {@link ScopeType#COMPILE},
+     * {@link ScopeType#PROVIDED}, {@link ScopeType#SYSTEM}
+     *
+     * @return The next {@link MavenFormatStage}
+     */
+    MavenFormatStage compileScope();
+
+    /**
+     * Returns artifacts on the runtime classpath. Amounts to scopes: {@link ScopeType#COMPILE}, {@link ScopeType#IMPORT},
+     * {@link ScopeType#RUNTIME}, {@link ScopeType#SYSTEM}, the same scopes as imported by
+     * {@link PomEquippedResolveStageBase#importRuntimeDependencies()}
+     *
+     * @return The next {@link MavenFormatStage}
+     */
+    MavenFormatStage runtimeScope();
+
+    /**
+     * Returns artifacts on the test classpath, that is all resolved artifacts
+     *
+     * @return The next {@link MavenFormatStage}
+     */
+    MavenFormatStage testScope();
+
+    /**
+     * Returns artifacts which are expected to be provided by the container. Amounts to scope {@link ScopeType#PROVIDED}
+     *
+     * @return The next {@link MavenFormatStage}
+     */
+    MavenFormatStage providedScope();
+
+    /**
+     * Returns artifacts in any of the specified scopes
+     *
+     * @param scopes
+     *        Scopes to be included, required
+     * @return The next {@link MavenFormatStage}
+     * @throws IllegalArgumentException
+     *         If no scopes are specified
+     */
+    MavenFormatStage scopes(ScopeType... scopes) throws IllegalArgumentException;
+}
@@ -66,4 +66,28 @@ public interface PomEquippedResolveStageBase<RESOLVESTAGETYPE extends MavenResol
      *             If no strategy is specified
      */
     FORMATSTAGETYPE importRuntimeDependencies(MavenResolutionStrategy strategy) throws IllegalArgumentException;
+
+    /**
+     * Resolves dependencies in all scopes as defined by the POM metadata once and returns views of the result per Maven
+     * classpath. This is cheaper than separate calls of {@link #importRuntimeDependencies()} and
+     * {@link #importRuntimeAndTestDependencies()}, which collect and resolve the dependency graph each time.
+     *
+     * Views follow scopes as mediated by Maven for the whole project, so in case of version conflicts between scopes, a
+     * view might differ from the result of resolving the scopes separately, in the same way as the Maven classpaths do.
+     *
+     * @return Views of the resolved artifacts
+     */
+    MavenScopedResolution importDependenciesByScope();
+
+    /**
+     * Resolves dependencies in all scopes as defined by the POM metadata once, using the additional
+     * {@link ResolutionStrategy}, and returns views of the result per Maven classpath.
+     *
+     * @param strategy
+     * @return Views of the resolved artifacts
+     * @throws IllegalArgumentException
+     *             If no strategy is specified
+     * @see #importDependenciesByScope()
+     */
+    MavenScopedResolution importDependenciesByScope(MavenResolutionStrategy strategy) throws IllegalArgumentException;
 }
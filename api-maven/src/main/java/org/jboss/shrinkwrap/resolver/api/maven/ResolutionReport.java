@@ -0,0 +1,181 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.api.maven;
+
+import java.util.List;
+
+/**
+ * Report of a single resolution, telling where its time was spent. Phases are measured in wall time; format processing
+ * is added each time the resolved artifacts are converted by the {@link MavenFormatStage}.
+ *
+ * Phases which were not executed, such as loading of a POM file for resolutions without a POM, report {@code 0}. Each
+ * resolution based on a loaded POM reports loading of the POM, including its transfers.
+ */
+public interface ResolutionReport {
+
+    /**
+     * Measured phases of a resolution
+     */
+    enum Phase {
+        /**
+         * Loading of POM metadata, including building of the effective model
+         */
+        LOAD_POM_METADATA,
+
+        /**
+         * Creation of the request, including pre-resolution filtering
+         */
+        CREATE_COLLECT_REQUEST,
+
+        /**
+         * Collection of the dependency graph and resolution of its artifacts, including downloads
+         */
+        RESOLUTION,
+
+        /**
+         * Post-resolution filtering of resolved artifacts
+         */
+        FILTER_ARTIFACTS,
+
+        /**
+         * Conversion of resolved artifacts into the requested format
+         */
+        FORMAT_PROCESSING
+    }
+
+    /**
+     * Gets time spent in a phase
+     *
+     * @param phase
+     * @return Time in milliseconds
+     */
+    long getPhaseMillis(Phase phase);
+
+    /**
+     * Gets time spent in all phases
+     *
+     * @return Time in milliseconds
+     */
+    long getTotalMillis();
+
+    /**
+     * Gets number of requests sent to remote repositories, including failed ones
+     *
+     * @return
+     */
+    int getRemoteRequests();
+
+    /**
+     * Gets number of bytes downloaded from remote repositories
+     *
+     * @return
+     */
+    long getBytesDownloaded();
+
+    /**
+     * Gets the slowest transfers from remote repositories, the slowest first
+     *
+     * @param limit
+     *        Maximal number of returned transfers
+     * @return
+     */
+    List<Transfer> getSlowestArtifacts(int limit);
+
+    /**
+     * Gets remote repositories by time spent transferring from them, the slowest first
+     *
+     * @param limit
+     *        Maximal number of returned repositories
+     * @return
+     */
+    List<RepositorySummary> getSlowestRepositories(int limit);
+
+    /**
+     * A transfer of a resource from a remote repository
+     */
+    interface Transfer {
+
+        /**
+         * Gets name of the resource, which is its path in the repository
+         *
+         * @return
+         */
+        String getResourceName();
+
+        /**
+         * Gets URL of the repository
+         *
+         * @return
+         */
+        String getRepositoryUrl();
+
+        /**
+         * Gets number of transferred bytes
+         *
+         * @return
+         */
+        long getBytes();
+
+        /**
+         * Gets duration of the transfer in milliseconds
+         *
+         * @return
+         */
+        long getMillis();
+
+        /**
+         * Returns {@code true} if the transfer succeeded
+         *
+         * @return
+         */
+        boolean isSucceeded();
+    }
+
+    /**
+     * Summary of transfers from a remote repository
+     */
+    interface RepositorySummary {
+
+        /**
+         * Gets URL of the repository
+         *
+         * @return
+         */
+        String getRepositoryUrl();
+
+        /**
+         * Gets number of requests sent to the repository
+         *
+         * @return
+         */
+        int getRequests();
+
+        /**
+         * Gets number of bytes downloaded from the repository
+         *
+         * @return
+         */
+        long getBytes();
+
+        /**
+         * Gets time spent transferring from the repository in milliseconds; concurrent transfers are summed up
+         *
+         * @return
+         */
+        long getMillis();
+    }
+}
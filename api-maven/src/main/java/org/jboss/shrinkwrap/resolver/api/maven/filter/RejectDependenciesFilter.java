@@ -22,21 +22,20 @@ import java.util.List;
 import java.util.Set;
 
 import org.jboss.shrinkwrap.resolver.api.CoordinateParseException;
-import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
 import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenCoordinate;
 import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenCoordinates;
-import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependencies;
 import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependency;
 
 /**
- * A {@link MavenResolutionFilter} which will selectively ban specified dependencies
+ * A {@link MavenResolutionFilter} which will selectively ban specified dependencies. Dependencies are matched by groupId,
+ * artifactId, packaging and classifier regardless of their version, scope, optional flag and exclusions.
  *
  * @author <a href="mailto:kpiwko@redhat.com">Karel Piwko</a>
  * @author <a href="mailto:alr@jboss.org">Andrew Lee Rubinger</a>
  */
 public class RejectDependenciesFilter implements MavenResolutionFilter {
 
-    private final Set<MavenDependency> bannedDependencies;
+    private final Set<MavenCoordinate> bannedCoordinates;
 
     public RejectDependenciesFilter(final String... coordinates) throws IllegalArgumentException,
         CoordinateParseException {
@@ -44,16 +43,23 @@ public class RejectDependenciesFilter implements MavenResolutionFilter {
             throw new IllegalArgumentException("There must be at least one coordinate specified to be rejected.");
         }
 
-        final Set<MavenDependency> bannedDependencies = new HashSet<MavenDependency>(coordinates.length);
+        final Set<MavenCoordinate> bannedCoordinates = new HashSet<MavenCoordinate>(coordinates.length);
         for (final String coords : coordinates) {
-            final MavenCoordinate coordinate = MavenCoordinates.createCoordinate(coords);
-            final MavenDependency dependency = MavenDependencies.createDependency(coordinate, ScopeType.COMPILE, false);
-            bannedDependencies.add(dependency);
+            bannedCoordinates.add(MavenCoordinates.createCoordinate(coords));
         }
-        this.bannedDependencies = Collections.unmodifiableSet(bannedDependencies);
+        this.bannedCoordinates = Collections.unmodifiableSet(bannedCoordinates);
 
     }
 
+    /**
+     * Returns coordinates of dependencies banned by this filter
+     *
+     * @return Immutable set of banned coordinates
+     */
+    public Set<MavenCoordinate> getBannedCoordinates() {
+        return bannedCoordinates;
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -62,7 +68,9 @@ public class RejectDependenciesFilter implements MavenResolutionFilter {
      */
     @Override
     public boolean accepts(final MavenDependency dependency, final List<MavenDependency> dependenciesForResolution) {
-        if (bannedDependencies.contains(dependency)) {
+        final MavenCoordinate coordinate = MavenCoordinates.createCoordinate(dependency.getGroupId(),
+            dependency.getArtifactId(), dependency.getVersion(), dependency.getPackaging(), dependency.getClassifier());
+        if (bannedCoordinates.contains(coordinate)) {
             return false;
         }
 
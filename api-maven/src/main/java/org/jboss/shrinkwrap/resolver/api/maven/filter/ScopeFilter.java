@@ -17,6 +17,7 @@
 package org.jboss.shrinkwrap.resolver.api.maven.filter;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
@@ -56,6 +57,15 @@ public class ScopeFilter implements MavenResolutionFilter {
         }
     }
 
+    /**
+     * Returns scopes accepted by this filter
+     *
+     * @return Immutable set of allowed scopes
+     */
+    public Set<ScopeType> getAllowedScopes() {
+        return Collections.unmodifiableSet(allowedScopes);
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -16,11 +16,20 @@
  */
 package org.jboss.shrinkwrap.resolver.api;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
 /**
  * Utility capable of creating {@link ResolverSystem} instances given a requested end-user view.
  *
+ * The reflective bootstrap of the SPI service registry is done once per {@link ClassLoader} and the registry is reused, so
+ * the service registry and its cached services are shared by all {@link ResolverSystem} instances created by the same
+ * {@link ClassLoader} for as long as the registry stays registered.
+ *
  * @author <a href="mailto:andrew.rubinger@jboss.org">ALR</a>
  */
 final class ResolverSystemFactory {
@@ -31,6 +40,17 @@ final class ResolverSystemFactory {
     private static final String METHOD_NAME_ONLY_ONE = "onlyOne";
     private static final String METHOD_NAME_REGISTER = "register";
 
+    private static final String METHOD_NAME_GET_SERVICE_LOADER = "getServiceLoader";
+
+    /**
+     * Service registries by {@link ClassLoader}. Both keys and values are weak. A registry references classes of its
+     * {@link ClassLoader}, so any stronger value would keep the {@link ClassLoader} alive through the map. Once registered,
+     * a registry is held by the static field of its own class, so it is reused for exactly as long as it stays
+     * registered and is bootstrapped again afterwards.
+     */
+    private static final Map<ClassLoader, WeakReference<Object>> REGISTRIES = Collections
+        .synchronizedMap(new WeakHashMap<ClassLoader, WeakReference<Object>>());
+
     /**
      * Internal constructor; not to be called
      */
@@ -72,27 +92,96 @@ final class ResolverSystemFactory {
         assert cl != null : "ClassLoader must be specified";
 
         try {
+            return userViewClass.cast(getBootstrap(cl).createUserView(userViewClass));
+        } catch (final Exception e) {
+            // Don't bother to catch all the reflection exceptions separately
+            throw new RuntimeException("Could not create object from user view", e);
+        }
+    }
+
+    /**
+     * Gets a {@link Bootstrap} for given {@link ClassLoader}, reusing the service registry created for it previously if
+     * that is still reachable
+     *
+     * @param cl
+     * @return
+     * @throws Exception
+     */
+    private static Bootstrap getBootstrap(final ClassLoader cl) throws Exception {
+        final WeakReference<Object> cached = REGISTRIES.get(cl);
+        final Object registry = cached == null ? null : cached.get();
+        if (registry != null) {
+            return new Bootstrap(cl, registry);
+        }
+
+        synchronized (REGISTRIES) {
+            // another thread might have been faster
+            final WeakReference<Object> raced = REGISTRIES.get(cl);
+            final Object existing = raced == null ? null : raced.get();
+            if (existing != null) {
+                return new Bootstrap(cl, existing);
+            }
+            final Bootstrap created = new Bootstrap(cl);
+            REGISTRIES.put(cl, new WeakReference<Object>(created.serviceRegistry));
+            return created;
+        }
+    }
+
+    /**
+     * Reflective handles to SPI service loader and initialized service registry for a single {@link ClassLoader}. Instances
+     * are short lived and are never cached.
+     */
+    private static final class Bootstrap {
+
+        private final Object serviceLoader;
+        private final Object serviceRegistry;
+        private final Method registerMethod;
+        private final Method onlyOneMethodSingleArg;
+
+        /**
+         * Creates a new service loader and service registry
+         */
+        Bootstrap(final ClassLoader cl) throws Exception {
             final Class<?> spiServiceLoaderClass = cl.loadClass(CLASS_NAME_SPISERVICELOADER);
             final Constructor<?> serviceLoaderCtor = spiServiceLoaderClass.getConstructor(ClassLoader.class);
             final Object spiServiceLoader = serviceLoaderCtor.newInstance(cl);
             final Method onlyOneMethod = spiServiceLoader.getClass().getMethod(METHOD_NAME_ONLY_ONE, Class.class,
                 Class.class);
-            final Object serviceLoader = onlyOneMethod.invoke(spiServiceLoader, spiServiceLoaderClass,
+            this.serviceLoader = onlyOneMethod.invoke(spiServiceLoader, spiServiceLoaderClass,
                 spiServiceLoader.getClass());
             final Class<?> serviceRegistryClass = cl.loadClass(CLASS_NAME_SERVICEREGISTRY);
             final Class<?> serviceLoaderClass = cl.loadClass(CLASS_NAME_SERVICELOADER);
             final Constructor<?> serviceRegistryCtor = serviceRegistryClass.getConstructor(serviceLoaderClass);
-            final Object serviceRegistry = serviceRegistryCtor.newInstance(serviceLoader);
-            final Method registerMethod = serviceRegistry.getClass().getMethod(METHOD_NAME_REGISTER,
-                serviceRegistry.getClass());
+            this.serviceRegistry = serviceRegistryCtor.newInstance(serviceLoader);
+            this.registerMethod = serviceRegistryClass.getMethod(METHOD_NAME_REGISTER, serviceRegistryClass);
+            this.onlyOneMethodSingleArg = serviceLoaderClass.getMethod(METHOD_NAME_ONLY_ONE, Class.class);
+            // registering makes the registry reachable for as long as its class is
             registerMethod.invoke(null, serviceRegistry);
-            final Method onlyOneMethodSingleArg = serviceRegistry.getClass().getMethod(METHOD_NAME_ONLY_ONE,
-                Class.class);
-            final Object userViewObject = onlyOneMethodSingleArg.invoke(serviceRegistry, userViewClass);
-            return userViewClass.cast(userViewObject);
-        } catch (final Exception e) {
-            // Don't bother to catch all the reflection exceptions separately
-            throw new RuntimeException("Could not create object from user view", e);
+        }
+
+        /**
+         * Reuses an existing service registry and the service loader it was created with
+         */
+        Bootstrap(final ClassLoader cl, final Object serviceRegistry) throws Exception {
+            final Class<?> serviceRegistryClass = serviceRegistry.getClass();
+            final Class<?> serviceLoaderClass = cl.loadClass(CLASS_NAME_SERVICELOADER);
+            this.serviceRegistry = serviceRegistry;
+            this.serviceLoader = serviceRegistryClass.getMethod(METHOD_NAME_GET_SERVICE_LOADER).invoke(serviceRegistry);
+            this.registerMethod = serviceRegistryClass.getMethod(METHOD_NAME_REGISTER, serviceRegistryClass);
+            this.onlyOneMethodSingleArg = serviceLoaderClass.getMethod(METHOD_NAME_ONLY_ONE, Class.class);
+        }
+
+        /**
+         * Registers the service registry and creates a new instance of the user view. User views are stateful, so they
+         * are always created by the service loader rather than taken from the service registry cache.
+         *
+         * @param userViewClass
+         * @return
+         * @throws Exception
+         */
+        Object createUserView(final Class<?> userViewClass) throws Exception {
+            registerMethod.invoke(null, serviceRegistry);
+            return onlyOneMethodSingleArg.invoke(serviceLoader, userViewClass);
         }
     }
 
@@ -0,0 +1,87 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependencies;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependency;
+import org.jboss.shrinkwrap.resolver.impl.maven.convert.MavenConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonatype.aether.graph.Dependency;
+import org.sonatype.aether.graph.Exclusion;
+import org.sonatype.aether.util.artifact.DefaultArtifact;
+
+/**
+ * Measures conversion between ShrinkWrap Resolver and Aether dependencies by {@link MavenConverter}, done in both
+ * directions for every dependency of a resolution.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ConverterBenchmark {
+
+    /**
+     * Number of dependencies converted by {@link #asDependencies()}
+     */
+    @Param({ "1", "50" })
+    public int dependencies;
+
+    private Dependency dependency;
+
+    private List<MavenDependency> mavenDependencies;
+
+    @Setup
+    public void setUp() {
+        dependency = new Dependency(new DefaultArtifact("org.jboss.shrinkwrap:shrinkwrap-impl-base:jar:1.0.0"),
+            "compile", false, Arrays.asList(new Exclusion("junit", "junit", "*", "*"), new Exclusion(
+                "org.jboss.shrinkwrap", "shrinkwrap-spi", "*", "*")));
+
+        mavenDependencies = new ArrayList<MavenDependency>(dependencies);
+        for (int i = 0; i < dependencies; i++) {
+            mavenDependencies.add(MavenDependencies.createDependency("org.jboss.shrinkwrap.test:test-deps-" + i
+                + ":1.0.0", ScopeType.COMPILE, false, MavenDependencies.createExclusion("junit:junit")));
+        }
+    }
+
+    @Benchmark
+    public MavenDependency fromDependency() {
+        return MavenConverter.fromDependency(dependency);
+    }
+
+    @Benchmark
+    public List<Dependency> asDependencies() {
+        return MavenConverter.asDependencies(mavenDependencies);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.shrinkwrap.resolver.api.maven.PackagingType;
+import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenCoordinate;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenCoordinates;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependencies;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependency;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependencyExclusion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures parsing of canonical forms by {@link MavenCoordinates#createCoordinate(String)} and creation of dependencies by
+ * {@link MavenDependencies#createDependency(String, ScopeType, boolean, MavenDependencyExclusion...)}, which is done for
+ * every dependency passed to the resolver and for every node of a resolved graph.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class CoordinatesBenchmark {
+
+    @Param({ "org.jboss.shrinkwrap:shrinkwrap-api:1.0.0", "org.jboss.shrinkwrap:shrinkwrap-api:jar:1.0.0",
+        "org.jboss.shrinkwrap:shrinkwrap-api:test-jar:tests:1.0.0" })
+    public String canonicalForm;
+
+    private MavenCoordinate coordinate;
+
+    private String packaging;
+
+    private MavenDependencyExclusion[] exclusions;
+
+    @Setup
+    public void setUp() {
+        coordinate = MavenCoordinates.createCoordinate(canonicalForm);
+        packaging = coordinate.getPackaging().toString();
+        exclusions = new MavenDependencyExclusion[] { MavenDependencies.createExclusion("junit:junit"),
+            MavenDependencies.createExclusion("org.jboss.shrinkwrap:shrinkwrap-impl-base") };
+    }
+
+    @Benchmark
+    public MavenCoordinate createCoordinate() {
+        return MavenCoordinates.createCoordinate(canonicalForm);
+    }
+
+    @Benchmark
+    public MavenCoordinate createCoordinateFromParts() {
+        return MavenCoordinates.createCoordinate(coordinate.getGroupId(), coordinate.getArtifactId(),
+            coordinate.getVersion(), PackagingType.of(packaging), coordinate.getClassifier());
+    }
+
+    @Benchmark
+    public MavenDependency createDependency() {
+        return MavenDependencies.createDependency(canonicalForm, ScopeType.COMPILE, false);
+    }
+
+    @Benchmark
+    public MavenDependency createDependencyWithExclusions() {
+        return MavenDependencies.createDependency(coordinate, ScopeType.TEST, true, exclusions);
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependencies;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependency;
+import org.jboss.shrinkwrap.resolver.api.maven.filter.AcceptAllFilter;
+import org.jboss.shrinkwrap.resolver.api.maven.filter.MavenResolutionFilter;
+import org.jboss.shrinkwrap.resolver.api.maven.filter.NonTransitiveFilter;
+import org.jboss.shrinkwrap.resolver.api.maven.filter.RejectDependenciesFilter;
+import org.jboss.shrinkwrap.resolver.api.maven.filter.ScopeFilter;
+import org.jboss.shrinkwrap.resolver.impl.maven.aether.ResolutionFilterCompiler;
+import org.jboss.shrinkwrap.resolver.impl.maven.convert.MavenConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonatype.aether.graph.DependencyFilter;
+import org.sonatype.aether.graph.DependencyNode;
+import org.sonatype.aether.util.graph.DefaultDependencyNode;
+
+/**
+ * Measures the built-in {@link MavenResolutionFilter}s applied to every node of a resolved graph, both as called directly
+ * and as compiled by {@link ResolutionFilterCompiler} into the Aether filter used during resolution. Each operation
+ * filters the whole graph.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class FiltersBenchmark {
+
+    @Param({ "accept-all", "non-transitive", "scope", "reject-dependencies" })
+    public String filter;
+
+    /**
+     * Number of nodes in the filtered graph, a tenth of them is declared for resolution
+     */
+    @Param({ "100", "1000" })
+    public int nodes;
+
+    private MavenResolutionFilter resolutionFilter;
+
+    private DependencyFilter compiledFilter;
+
+    private List<MavenDependency> dependencies;
+
+    private List<MavenDependency> dependenciesForResolution;
+
+    private List<DependencyNode> graph;
+
+    private final List<DependencyNode> parents = Collections.emptyList();
+
+    @Setup
+    public void setUp() {
+        final ScopeType[] scopes = new ScopeType[] { ScopeType.COMPILE, ScopeType.RUNTIME, ScopeType.TEST,
+            ScopeType.PROVIDED };
+
+        dependencies = new ArrayList<MavenDependency>(nodes);
+        dependenciesForResolution = new ArrayList<MavenDependency>(nodes / 10);
+        graph = new ArrayList<DependencyNode>(nodes);
+        for (int i = 0; i < nodes; i++) {
+            final MavenDependency dependency = MavenDependencies.createDependency("org.jboss.shrinkwrap.test:test-deps-"
+                + i + ":1.0.0", scopes[i % scopes.length], false);
+            dependencies.add(dependency);
+            if (i % 10 == 0) {
+                dependenciesForResolution.add(dependency);
+            }
+            graph.add(new DefaultDependencyNode(MavenConverter.asDependency(dependency)));
+        }
+
+        resolutionFilter = createFilter(filter);
+        compiledFilter = ResolutionFilterCompiler.compile(new MavenResolutionFilter[] { resolutionFilter },
+            dependenciesForResolution);
+    }
+
+    @Benchmark
+    public int accepts() {
+        int accepted = 0;
+        for (final MavenDependency dependency : dependencies) {
+            if (resolutionFilter.accepts(dependency, dependenciesForResolution)) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    @Benchmark
+    public int compiled() {
+        int accepted = 0;
+        for (final DependencyNode node : graph) {
+            if (compiledFilter.accept(node, parents)) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    private static MavenResolutionFilter createFilter(final String name) {
+        if ("accept-all".equals(name)) {
+            return AcceptAllFilter.INSTANCE;
+        } else if ("non-transitive".equals(name)) {
+            return NonTransitiveFilter.INSTANCE;
+        } else if ("scope".equals(name)) {
+            return new ScopeFilter(ScopeType.COMPILE, ScopeType.RUNTIME);
+        } else if ("reject-dependencies".equals(name)) {
+            return new RejectDependenciesFilter("org.jboss.shrinkwrap.test:test-deps-1:1.0.0",
+                "org.jboss.shrinkwrap.test:test-deps-2:1.0.0");
+        }
+        throw new IllegalArgumentException("Unknown filter " + name);
+    }
+}
@@ -0,0 +1,539 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.benchmarks;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+/**
+ * Generates a file based Maven repository used by offline macro benchmarks.
+ *
+ * Artifacts are spread over a number of levels, each artifact depends on {@code breadth} artifacts of deeper levels,
+ * mostly of the next one. Every artifact is published in several versions and dependencies refer to a random one, so the
+ * same artifact is reached in different versions via different paths and versions have to be mediated. Every
+ * {@code bomImportEvery}-th artifact imports a BOM managing versions of all artifacts and declares its dependencies
+ * without version, every {@code exclusionEvery}-th dependency declaration excludes a dependency of its target. Artifacts
+ * of the first level are not referenced by any other artifact and serve as roots of resolution.
+ *
+ * The repository is deterministic for the same configuration and it is not generated again if the directory already
+ * contains a repository generated with the same configuration. A repository generated with a different configuration is
+ * replaced, any other non empty directory is left untouched.
+ *
+ * Usage: {@code RepositoryGenerator <directory> [artifacts] [levels] [breadth]}
+ */
+public final class RepositoryGenerator {
+
+    /**
+     * Group of all generated artifacts
+     */
+    public static final String GROUP_ID = "org.jboss.shrinkwrap.resolver.benchmark";
+
+    /**
+     * Artifact id of the BOM managing versions of all generated artifacts
+     */
+    public static final String BOM_ARTIFACT_ID = "benchmark-bom";
+
+    private static final String BOM_VERSION = "1.0";
+
+    private static final String DESCRIPTOR = "benchmark-repository.properties";
+
+    private final File directory;
+    private int artifacts = 1000;
+    private int levels = 6;
+    private int breadth = 4;
+    private int versions = 2;
+    private int bomImportEvery = 4;
+    private int exclusionEvery = 5;
+    private int jarSize = 4096;
+    private long seed = 1L;
+
+    /**
+     * Creates a generator of repository in {@code directory}
+     *
+     * @param directory
+     *            Base directory of the repository, is created if it does not exist
+     */
+    public RepositoryGenerator(final File directory) {
+        if (directory == null) {
+            throw new IllegalArgumentException("Repository directory must be specified");
+        }
+        this.directory = directory;
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 1 || args.length > 4) {
+            throw new IllegalArgumentException("Usage: " + RepositoryGenerator.class.getName()
+                + " <directory> [artifacts] [levels] [breadth]");
+        }
+        final RepositoryGenerator generator = new RepositoryGenerator(new File(args[0]));
+        if (args.length > 1) {
+            generator.artifacts(Integer.parseInt(args[1]));
+        }
+        if (args.length > 2) {
+            generator.levels(Integer.parseInt(args[2]));
+        }
+        if (args.length > 3) {
+            generator.breadth(Integer.parseInt(args[3]));
+        }
+        for (final String root : generator.generate()) {
+            System.out.println(root);
+        }
+    }
+
+    /**
+     * Sets total number of artifacts, not counting their versions and the BOM. Defaults to 1000.
+     */
+    public RepositoryGenerator artifacts(final int artifacts) {
+        this.artifacts = artifacts;
+        return this;
+    }
+
+    /**
+     * Sets number of levels artifacts are spread over, i.e. depth of the dependency graph. Defaults to 6.
+     */
+    public RepositoryGenerator levels(final int levels) {
+        this.levels = levels;
+        return this;
+    }
+
+    /**
+     * Sets number of direct dependencies of every artifact not on the last level. Defaults to 4.
+     */
+    public RepositoryGenerator breadth(final int breadth) {
+        this.breadth = breadth;
+        return this;
+    }
+
+    /**
+     * Sets number of versions every artifact is published in. Defaults to 2.
+     */
+    public RepositoryGenerator versions(final int versions) {
+        this.versions = versions;
+        return this;
+    }
+
+    /**
+     * Sets how often artifacts import the BOM, {@code 0} means never. Defaults to every 4th artifact.
+     */
+    public RepositoryGenerator bomImportEvery(final int bomImportEvery) {
+        this.bomImportEvery = bomImportEvery;
+        return this;
+    }
+
+    /**
+     * Sets how often dependency declarations contain an exclusion, {@code 0} means never. Defaults to every 5th one.
+     */
+    public RepositoryGenerator exclusionEvery(final int exclusionEvery) {
+        this.exclusionEvery = exclusionEvery;
+        return this;
+    }
+
+    /**
+     * Sets size of content of every generated JAR in bytes. Defaults to 4096.
+     */
+    public RepositoryGenerator jarSize(final int jarSize) {
+        this.jarSize = jarSize;
+        return this;
+    }
+
+    /**
+     * Sets seed of the generated graph. Defaults to 1.
+     */
+    public RepositoryGenerator seed(final long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Generates the repository, unless it was already generated with the same configuration
+     *
+     * @return Canonical forms of root artifacts, ordered
+     * @throws IOException
+     *             If the repository could not be written
+     */
+    public List<String> generate() throws IOException {
+        if (levels < 1 || artifacts < levels || breadth < 1 || versions < 1 || jarSize < 0) {
+            throw new IllegalArgumentException("Invalid configuration " + describe()
+                + ", there must be at least one artifact on each level");
+        }
+
+        final List<List<Node>> graph = createGraph();
+        final List<String> roots = new ArrayList<String>(graph.get(0).size());
+        for (final Node root : graph.get(0)) {
+            roots.add(GROUP_ID + ":" + root.artifactId + ":" + latestVersion());
+        }
+
+        final Properties descriptor = describe();
+        final Properties existing = readDescriptor();
+        if (descriptor.equals(existing)) {
+            return roots;
+        }
+        final String[] content = directory.list();
+        if (existing == null && content != null && content.length > 0) {
+            throw new IllegalStateException("Directory " + directory.getAbsolutePath()
+                + " is not empty and does not contain a generated repository, refusing to overwrite it");
+        }
+
+        delete(directory);
+        writePom(pomFile(BOM_ARTIFACT_ID, BOM_VERSION), bom(graph));
+        for (final List<Node> level : graph) {
+            for (final Node node : level) {
+                for (int i = 0; i < versions; i++) {
+                    final String version = version(i);
+                    writePom(pomFile(node.artifactId, version), pom(node, version));
+                    writeJar(new File(directory, path(node.artifactId, version, "jar")), node);
+                }
+            }
+        }
+        writeDescriptor(descriptor);
+        return roots;
+    }
+
+    /**
+     * Writes settings.xml which makes the generated repository the only remote repository, enabled by default
+     *
+     * @param settings
+     *            Target file
+     * @return The written file
+     * @throws IOException
+     *             If the file could not be written
+     */
+    public File writeSettings(final File settings) throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        sb.append("<settings>\n");
+        sb.append("  <profiles>\n");
+        sb.append("    <profile>\n");
+        sb.append("      <id>benchmark</id>\n");
+        sb.append("      <activation>\n");
+        sb.append("        <activeByDefault>true</activeByDefault>\n");
+        sb.append("      </activation>\n");
+        sb.append("      <repositories>\n");
+        sb.append("        <repository>\n");
+        sb.append("          <id>benchmark-repository</id>\n");
+        sb.append("          <url>file://").append(directory.getAbsolutePath()).append("</url>\n");
+        sb.append("          <releases>\n");
+        sb.append("            <enabled>true</enabled>\n");
+        sb.append("            <updatePolicy>never</updatePolicy>\n");
+        sb.append("          </releases>\n");
+        sb.append("          <snapshots>\n");
+        sb.append("            <enabled>false</enabled>\n");
+        sb.append("          </snapshots>\n");
+        sb.append("        </repository>\n");
+        sb.append("      </repositories>\n");
+        sb.append("    </profile>\n");
+        sb.append("  </profiles>\n");
+        sb.append("</settings>\n");
+
+        mkdirs(settings.getAbsoluteFile().getParentFile());
+        write(settings, sb.toString());
+        return settings;
+    }
+
+    /**
+     * Deletes a file or a directory with all its content
+     *
+     * @param file
+     */
+    public static void delete(final File file) throws IOException {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (final File child : children) {
+                delete(child);
+            }
+        }
+        if (file.exists() && !file.delete()) {
+            throw new IOException("Unable to delete " + file.getAbsolutePath());
+        }
+    }
+
+    private List<List<Node>> createGraph() {
+        final Random random = new Random(seed);
+
+        // deeper levels are wider, weights 1, 2, ..., levels
+        final int weights = levels * (levels + 1) / 2;
+        final List<List<Node>> graph = new ArrayList<List<Node>>(levels);
+        int created = 0;
+        for (int level = 0; level < levels; level++) {
+            final int size = level == levels - 1 ? artifacts - created : Math.max(1, artifacts * (level + 1) / weights);
+            final List<Node> nodes = new ArrayList<Node>(size);
+            for (int i = 0; i < size; i++) {
+                final boolean importsBom = bomImportEvery > 0 && (created + i) % bomImportEvery == 0;
+                nodes.add(new Node("artifact-" + level + "-" + i, importsBom));
+            }
+            graph.add(nodes);
+            created += size;
+        }
+
+        // edges are created bottom up so exclusions can refer to dependencies of the target
+        int declarations = 0;
+        for (int level = levels - 2; level >= 0; level--) {
+            for (final Node node : graph.get(level)) {
+                final Set<Node> targets = new LinkedHashSet<Node>();
+                for (int attempt = 0; targets.size() < breadth && attempt < breadth * 4; attempt++) {
+                    // mostly the next level, sometimes a deeper one to create diamonds of different length
+                    final int targetLevel = random.nextInt(4) > 0 ? level + 1 : level + 1
+                        + random.nextInt(levels - level - 1);
+                    final List<Node> candidates = graph.get(targetLevel);
+                    targets.add(candidates.get(random.nextInt(candidates.size())));
+                }
+                for (final Node target : targets) {
+                    final Node excluded = exclusionEvery > 0 && declarations++ % exclusionEvery == 0
+                        && !target.dependencies.isEmpty() ? target.dependencies.get(0).target : null;
+                    node.dependencies.add(new Declaration(target, version(random.nextInt(versions)), excluded));
+                }
+            }
+        }
+        return graph;
+    }
+
+    private String bom(final List<List<Node>> graph) {
+        final StringBuilder sb = new StringBuilder();
+        header(sb, BOM_ARTIFACT_ID, BOM_VERSION, "pom");
+        sb.append("  <dependencyManagement>\n");
+        sb.append("    <dependencies>\n");
+        for (final List<Node> level : graph) {
+            for (final Node node : level) {
+                sb.append("      <dependency>\n");
+                coordinates(sb, "        ", GROUP_ID, node.artifactId, latestVersion());
+                sb.append("      </dependency>\n");
+            }
+        }
+        sb.append("    </dependencies>\n");
+        sb.append("  </dependencyManagement>\n");
+        sb.append("</project>\n");
+        return sb.toString();
+    }
+
+    private String pom(final Node node, final String version) {
+        final StringBuilder sb = new StringBuilder();
+        header(sb, node.artifactId, version, "jar");
+        if (node.importsBom) {
+            sb.append("  <dependencyManagement>\n");
+            sb.append("    <dependencies>\n");
+            sb.append("      <dependency>\n");
+            coordinates(sb, "        ", GROUP_ID, BOM_ARTIFACT_ID, BOM_VERSION);
+            sb.append("        <type>pom</type>\n");
+            sb.append("        <scope>import</scope>\n");
+            sb.append("      </dependency>\n");
+            sb.append("    </dependencies>\n");
+            sb.append("  </dependencyManagement>\n");
+        }
+        if (!node.dependencies.isEmpty()) {
+            sb.append("  <dependencies>\n");
+            for (final Declaration declaration : node.dependencies) {
+                sb.append("    <dependency>\n");
+                // versions of dependencies are managed by the imported BOM
+                coordinates(sb, "      ", GROUP_ID, declaration.target.artifactId, node.importsBom ? null
+                    : declaration.version);
+                if (declaration.excluded != null) {
+                    sb.append("      <exclusions>\n");
+                    sb.append("        <exclusion>\n");
+                    sb.append("          <groupId>").append(GROUP_ID).append("</groupId>\n");
+                    sb.append("          <artifactId>").append(declaration.excluded.artifactId)
+                        .append("</artifactId>\n");
+                    sb.append("        </exclusion>\n");
+                    sb.append("      </exclusions>\n");
+                }
+                sb.append("    </dependency>\n");
+            }
+            sb.append("  </dependencies>\n");
+        }
+        sb.append("</project>\n");
+        return sb.toString();
+    }
+
+    private static void header(final StringBuilder sb, final String artifactId, final String version,
+        final String packaging) {
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        sb.append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n");
+        sb.append("  <modelVersion>4.0.0</modelVersion>\n");
+        coordinates(sb, "  ", GROUP_ID, artifactId, version);
+        sb.append("  <packaging>").append(packaging).append("</packaging>\n");
+    }
+
+    private static void coordinates(final StringBuilder sb, final String indent, final String groupId,
+        final String artifactId, final String version) {
+        sb.append(indent).append("<groupId>").append(groupId).append("</groupId>\n");
+        sb.append(indent).append("<artifactId>").append(artifactId).append("</artifactId>\n");
+        if (version != null) {
+            sb.append(indent).append("<version>").append(version).append("</version>\n");
+        }
+    }
+
+    private void writePom(final File pom, final String content) throws IOException {
+        mkdirs(pom.getParentFile());
+        write(pom, content);
+        writeChecksum(pom);
+    }
+
+    private void writeJar(final File jar, final Node node) throws IOException {
+        final Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().putValue("Implementation-Title", node.artifactId);
+
+        final byte[] content = new byte[jarSize];
+        new Random(seed ^ node.artifactId.hashCode()).nextBytes(content);
+
+        final JarOutputStream out = new JarOutputStream(new FileOutputStream(jar), manifest);
+        try {
+            out.putNextEntry(new JarEntry("META-INF/benchmark/" + node.artifactId + ".bin"));
+            out.write(content);
+            out.closeEntry();
+        } finally {
+            out.close();
+        }
+        writeChecksum(jar);
+    }
+
+    private static void writeChecksum(final File file) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not supported by the JVM", e);
+        }
+
+        final InputStream in = new FileInputStream(file);
+        try {
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        } finally {
+            in.close();
+        }
+
+        final StringBuilder sb = new StringBuilder(40);
+        for (final byte b : digest.digest()) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        write(new File(file.getParentFile(), file.getName() + ".sha1"), sb.toString());
+    }
+
+    private Properties describe() {
+        final Properties descriptor = new Properties();
+        descriptor.setProperty("artifacts", String.valueOf(artifacts));
+        descriptor.setProperty("levels", String.valueOf(levels));
+        descriptor.setProperty("breadth", String.valueOf(breadth));
+        descriptor.setProperty("versions", String.valueOf(versions));
+        descriptor.setProperty("bomImportEvery", String.valueOf(bomImportEvery));
+        descriptor.setProperty("exclusionEvery", String.valueOf(exclusionEvery));
+        descriptor.setProperty("jarSize", String.valueOf(jarSize));
+        descriptor.setProperty("seed", String.valueOf(seed));
+        return descriptor;
+    }
+
+    private Properties readDescriptor() throws IOException {
+        final File file = new File(directory, DESCRIPTOR);
+        if (!file.isFile()) {
+            return null;
+        }
+        final Properties descriptor = new Properties();
+        final InputStream in = new FileInputStream(file);
+        try {
+            descriptor.load(in);
+        } finally {
+            in.close();
+        }
+        return descriptor;
+    }
+
+    private void writeDescriptor(final Properties descriptor) throws IOException {
+        // written last, so an interrupted generation is not taken as complete
+        final OutputStream out = new FileOutputStream(new File(directory, DESCRIPTOR));
+        try {
+            descriptor.store(out, "Generated by " + RepositoryGenerator.class.getName());
+        } finally {
+            out.close();
+        }
+    }
+
+    private File pomFile(final String artifactId, final String version) {
+        return new File(directory, path(artifactId, version, "pom"));
+    }
+
+    private static String path(final String artifactId, final String version, final String extension) {
+        return GROUP_ID.replace('.', '/') + "/" + artifactId + "/" + version + "/" + artifactId + "-" + version + "."
+            + extension;
+    }
+
+    private String latestVersion() {
+        return version(versions - 1);
+    }
+
+    private static String version(final int index) {
+        return "1." + index;
+    }
+
+    private static void mkdirs(final File directory) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Unable to create directory " + directory.getAbsolutePath());
+        }
+    }
+
+    private static void write(final File file, final String content) throws IOException {
+        final Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static final class Node {
+        private final String artifactId;
+        private final boolean importsBom;
+        private final List<Declaration> dependencies = new ArrayList<Declaration>();
+
+        Node(final String artifactId, final boolean importsBom) {
+            this.artifactId = artifactId;
+            this.importsBom = importsBom;
+        }
+    }
+
+    private static final class Declaration {
+        private final Node target;
+        private final String version;
+        private final Node excluded;
+
+        Declaration(final Node target, final String version, final Node excluded) {
+            this.target = target;
+            this.version = version;
+            this.excluded = excluded;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.shrinkwrap.resolver.api.maven.Maven;
+import org.jboss.shrinkwrap.resolver.impl.maven.bootstrap.MavenSettingsBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures end to end transitive resolution of a root artifact of a repository generated by {@link RepositoryGenerator},
+ * from {@link Maven#resolver()} to {@code asFile()}. The generated repository is the only remote repository and Maven
+ * Central is disabled, so the benchmark runs fully offline.
+ *
+ * {@link #cold(SyntheticRepository, ColdLocalRepository)} resolves into a new empty local repository for every operation,
+ * so all artifacts are copied from the generated repository, {@link #warm(SyntheticRepository)} resolves from a local
+ * repository which already contains all artifacts. Generated repositories are kept in
+ * {@code ${java.io.tmpdir}/shrinkwrap-resolver-benchmarks} and reused by later runs.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class ResolutionBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SyntheticRepository {
+
+        @Param({ "1000", "5000" })
+        public int artifacts;
+
+        @Param({ "6" })
+        public int levels;
+
+        @Param({ "4" })
+        public int breadth;
+
+        private File basedir;
+
+        private File settings;
+
+        private File warmLocalRepository;
+
+        private String root;
+
+        @Setup(Level.Trial)
+        public void generate() throws IOException {
+            basedir = new File(new File(System.getProperty("java.io.tmpdir"), "shrinkwrap-resolver-benchmarks"),
+                artifacts + "-" + levels + "-" + breadth);
+
+            final RepositoryGenerator generator = new RepositoryGenerator(new File(basedir, "repository"))
+                .artifacts(artifacts).levels(levels).breadth(breadth);
+            root = generator.generate().get(0);
+            settings = generator.writeSettings(new File(basedir, "settings.xml"));
+            System.setProperty(MavenSettingsBuilder.ALT_USER_SETTINGS_XML_LOCATION, settings.getAbsolutePath());
+
+            warmLocalRepository = new File(basedir, "warm-local-repository");
+            RepositoryGenerator.delete(warmLocalRepository);
+            resolve(root, warmLocalRepository);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ColdLocalRepository {
+
+        private int invocations;
+
+        private File directory;
+
+        @Setup(Level.Invocation)
+        public void create(final SyntheticRepository repository) throws IOException {
+            // a new location for each invocation, nothing cached for a known location may be reused
+            directory = new File(repository.basedir, "cold-local-repository-" + invocations++);
+            RepositoryGenerator.delete(directory);
+        }
+
+        @TearDown(Level.Invocation)
+        public void delete() throws IOException {
+            RepositoryGenerator.delete(directory);
+        }
+    }
+
+    @Benchmark
+    public File[] cold(final SyntheticRepository repository, final ColdLocalRepository localRepository) {
+        return resolve(repository.root, localRepository.directory);
+    }
+
+    @Benchmark
+    public File[] warm(final SyntheticRepository repository) {
+        return resolve(repository.root, repository.warmLocalRepository);
+    }
+
+    private static File[] resolve(final String coordinate, final File localRepository) {
+        System.setProperty(MavenSettingsBuilder.ALT_LOCAL_REPOSITORY_LOCATION, localRepository.getAbsolutePath());
+        return Maven.resolver().resolve(coordinate).withMavenCentralRepo(false).withTransitivity().asFile();
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.benchmarks;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.shrinkwrap.resolver.api.maven.Maven;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.spi.format.FormatProcessor;
+import org.jboss.shrinkwrap.resolver.spi.format.FormatProcessors;
+import org.jboss.shrinkwrap.resolver.spi.loader.SpiServiceLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures lookup of {@link FormatProcessor}s by {@link FormatProcessors#find(Class, Class)}, done for every resolved
+ * artifact converted by the format stage, and loading of services by {@link SpiServiceLoader#all(Class)}, both with a
+ * loader reused between calls and with a new loader per call as done when a resolver system is created.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ServiceLoadingBenchmark {
+
+    private ClassLoader classLoader;
+
+    private SpiServiceLoader loader;
+
+    @Setup
+    public void setUp() {
+        classLoader = Thread.currentThread().getContextClassLoader();
+        loader = new SpiServiceLoader(classLoader);
+        // bootstraps the service registry used by FormatProcessors
+        Maven.resolver();
+    }
+
+    @Benchmark
+    public FormatProcessor<? super MavenResolvedArtifact, File> findFileProcessor() {
+        return FormatProcessors.find(MavenResolvedArtifact.class, File.class);
+    }
+
+    @Benchmark
+    public FormatProcessor<? super MavenResolvedArtifact, InputStream> findInputStreamProcessor() {
+        return FormatProcessors.find(MavenResolvedArtifact.class, InputStream.class);
+    }
+
+    @Benchmark
+    public FormatProcessor<? super MavenResolvedArtifact, MavenResolvedArtifact> findResolvedArtifactProcessor() {
+        return FormatProcessors.find(MavenResolvedArtifact.class, MavenResolvedArtifact.class);
+    }
+
+    @Benchmark
+    @SuppressWarnings("rawtypes")
+    public Collection<FormatProcessor> allReusedLoader() {
+        return loader.all(FormatProcessor.class);
+    }
+
+    @Benchmark
+    @SuppressWarnings("rawtypes")
+    public Collection<FormatProcessor> allNewLoader() {
+        return new SpiServiceLoader(classLoader).all(FormatProcessor.class);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.shrinkwrap.resolver.api.maven.MavenArtifactInfo;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonatype.aether.artifact.Artifact;
+import org.sonatype.aether.graph.Dependency;
+import org.sonatype.aether.graph.DependencyNode;
+import org.sonatype.aether.resolution.ArtifactRequest;
+import org.sonatype.aether.resolution.ArtifactResult;
+import org.sonatype.aether.util.artifact.DefaultArtifact;
+import org.sonatype.aether.util.graph.DefaultDependencyNode;
+
+/**
+ * Measures conversion of a resolved Aether dependency graph into {@link MavenArtifactInfo} trees, done by
+ * {@link MavenArtifactInfoImpl#fromDependencyNode(DependencyNode)} and
+ * {@link MavenResolvedArtifactImpl#fromArtifactResult(ArtifactResult)} for every resolved artifact. Lives in the
+ * implementation package, as both factory methods are package private.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ArtifactGraphBenchmark {
+
+    /**
+     * Number of children of every node which is not a leaf
+     */
+    @Param({ "3", "8" })
+    public int breadth;
+
+    /**
+     * Number of levels below the root node
+     */
+    @Param({ "1", "3" })
+    public int depth;
+
+    private DependencyNode root;
+
+    private ArtifactResult result;
+
+    @Setup
+    public void setUp() {
+        final Artifact artifact = new DefaultArtifact("org.jboss.shrinkwrap.test:test-root:1.0.0")
+            .setFile(new File("target/test-root-1.0.0.jar"));
+        root = new DefaultDependencyNode(new Dependency(artifact, "compile"));
+        addChildren(root, "test-deps", 1);
+
+        result = new ArtifactResult(new ArtifactRequest(root)).setArtifact(artifact);
+    }
+
+    @Benchmark
+    public MavenArtifactInfo fromDependencyNode() {
+        return MavenArtifactInfoImpl.fromDependencyNode(root);
+    }
+
+    @Benchmark
+    public MavenResolvedArtifact fromArtifactResult() {
+        return MavenResolvedArtifactImpl.fromArtifactResult(result);
+    }
+
+    private void addChildren(final DependencyNode parent, final String prefix, final int level) {
+        if (level > depth) {
+            return;
+        }
+        for (int i = 0; i < breadth; i++) {
+            final String artifactId = prefix + "-" + i;
+            final DependencyNode child = new DefaultDependencyNode(new Dependency(new DefaultArtifact(
+                "org.jboss.shrinkwrap.test:" + artifactId + ":1.0.0"), level == 1 ? "compile" : "runtime"));
+            parent.getChildren().add(child);
+            addChildren(child, artifactId, level + 1);
+        }
+    }
+}
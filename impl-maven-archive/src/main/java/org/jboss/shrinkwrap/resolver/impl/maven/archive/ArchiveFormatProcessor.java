@@ -19,19 +19,30 @@ package org.jboss.shrinkwrap.resolver.impl.maven.archive;
 import java.io.File;
 
 import org.jboss.shrinkwrap.api.Archive;
-import org.jboss.shrinkwrap.api.ShrinkWrap;
-import org.jboss.shrinkwrap.api.importer.ZipImporter;
 import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.spi.format.ConcurrentFormatProcessor;
 import org.jboss.shrinkwrap.resolver.spi.format.FormatProcessor;
 
 /**
  * {@link FormatProcessor} implementation to return an artifact as a ShrinkWrap {@link Archive}
  *
+ * Archives are imported eagerly by default. If {@link #LAZY_ARCHIVES} is set, archives are imported only when they are
+ * accessed, see {@link LazyArchive}.
+ *
+ * Archives may be imported from several threads at once. Files are read concurrently, only creating archives and
+ * switching their views, which load ShrinkWrap extensions into caches which are not thread safe, is serialized by
+ * {@link Archives}.
+ *
  * @author <a href="mailto:alr@jboss.org">Andrew Lee Rubinger</a>
  * @author <a href="mailto:kpiwko@redhat.com">Karel Piwko</a>
  */
 public final class ArchiveFormatProcessor<ARCHIVETYPE extends Archive<ARCHIVETYPE>> implements
-        FormatProcessor<MavenResolvedArtifact, ARCHIVETYPE> {
+        ConcurrentFormatProcessor<MavenResolvedArtifact, ARCHIVETYPE> {
+
+    /**
+     * System property which enables lazy import of archives
+     */
+    public static final String LAZY_ARCHIVES = "org.jboss.shrinkwrap.resolver.maven.lazy-archives";
 
     /**
      * {@inheritDoc}
@@ -50,7 +61,19 @@ public final class ArchiveFormatProcessor<ARCHIVETYPE extends Archive<ARCHIVETYP
             throw new IllegalArgumentException("Artifact was not resolved");
         }
 
-        return ShrinkWrap.create(ZipImporter.class, file.getName()).importFrom(file).as(returnType);
+        if (returnType.isInterface() && isLazy()) {
+            return LazyArchive.create(returnType, file);
+        }
+        return Archives.as(Archives.importFrom(file), returnType);
+    }
+
+    /**
+     * Checks whether lazy import of archives was enabled by {@link #LAZY_ARCHIVES}
+     *
+     * @return
+     */
+    public static boolean isLazy() {
+        return Boolean.valueOf(SecurityActions.getProperty(LAZY_ARCHIVES));
     }
 
     @Override
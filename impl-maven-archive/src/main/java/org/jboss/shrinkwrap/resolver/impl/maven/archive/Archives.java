@@ -0,0 +1,66 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.archive;
+
+import java.io.File;
+
+import org.jboss.shrinkwrap.api.Assignable;
+import org.jboss.shrinkwrap.api.GenericArchive;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.importer.ZipImporter;
+
+/**
+ * Imports of archives which may run in several threads at once. Files are read concurrently, only creating archives and
+ * switching their views, which load ShrinkWrap extensions into caches which are not thread safe, is serialized.
+ */
+final class Archives {
+
+    // guards extensions of ShrinkWrap archives, which are loaded into caches which are not thread safe
+    private static final Object EXTENSIONS = new Object();
+
+    private Archives() {
+        throw new UnsupportedOperationException("No instantiation");
+    }
+
+    /**
+     * Imports the file
+     *
+     * @param file
+     * @return New archive with the content of the file
+     */
+    static GenericArchive importFrom(final File file) {
+        final ZipImporter importer;
+        synchronized (EXTENSIONS) {
+            importer = ShrinkWrap.create(ZipImporter.class, file.getName());
+        }
+        // reading the file needs no extensions
+        return as(importer.importFrom(file), GenericArchive.class);
+    }
+
+    /**
+     * Gets a view of the archive, see {@link Assignable#as(Class)}, safely when called from several threads at once
+     *
+     * @param archive
+     * @param type
+     * @return
+     */
+    static <TYPE extends Assignable> TYPE as(final Assignable archive, final Class<TYPE> type) {
+        synchronized (EXTENSIONS) {
+            return archive.as(type);
+        }
+    }
+}
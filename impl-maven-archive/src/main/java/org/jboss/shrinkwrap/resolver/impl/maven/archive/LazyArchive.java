@@ -0,0 +1,124 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.archive;
+
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.Assignable;
+
+/**
+ * Archive backed by a file which is not imported until it is accessed. Importing opens the file as a {@link java.util.zip.ZipFile}
+ * and builds the table of its entries, content of the entries is read from the file on demand.
+ *
+ * The name of the archive is known without importing, so the archive can be added to another archive, e.g. as a library
+ * of a WAR, without touching the file; it is imported once the enclosing archive reads its content, e.g. during export.
+ * Any other call, including modifications, imports the archive and is delegated to the imported one.
+ */
+final class LazyArchive implements InvocationHandler {
+
+    private static final Method GET_NAME;
+    private static final Method EQUALS;
+    private static final Method HASH_CODE;
+    static {
+        try {
+            GET_NAME = Archive.class.getMethod("getName");
+            EQUALS = Object.class.getMethod("equals", Object.class);
+            HASH_CODE = Object.class.getMethod("hashCode");
+        } catch (final NoSuchMethodException e) {
+            throw new IllegalStateException("Unable to find methods of an archive", e);
+        }
+    }
+
+    private final File file;
+    private final Class<?> archiveType;
+    private volatile Archive<?> archive;
+
+    private LazyArchive(final File file, final Class<?> archiveType) {
+        this.file = file;
+        this.archiveType = archiveType;
+    }
+
+    /**
+     * Creates an archive of given type backed by {@code file}
+     *
+     * @param archiveType
+     *        Type of the archive, must be an interface
+     * @param file
+     *        ZIP file with content of the archive
+     * @return
+     */
+    static <ARCHIVETYPE extends Archive<ARCHIVETYPE>> ARCHIVETYPE create(final Class<ARCHIVETYPE> archiveType,
+        final File file) {
+        final Object archive = Proxy.newProxyInstance(archiveType.getClassLoader(), new Class<?>[] { archiveType },
+            new LazyArchive(file, archiveType));
+        return archiveType.cast(archive);
+    }
+
+    /**
+     * Checks whether {@code archive} was created by {@link #create(Class, File)} and was not imported yet
+     *
+     * @param archive
+     * @return
+     */
+    static boolean isPending(final Object archive) {
+        if (archive == null || !Proxy.isProxyClass(archive.getClass())) {
+            return false;
+        }
+        final InvocationHandler handler = Proxy.getInvocationHandler(archive);
+        return handler instanceof LazyArchive && ((LazyArchive) handler).archive == null;
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        if (GET_NAME.equals(method)) {
+            return file.getName();
+        } else if (EQUALS.equals(method)) {
+            return proxy == args[0];
+        } else if (HASH_CODE.equals(method)) {
+            return System.identityHashCode(proxy);
+        }
+
+        final Archive<?> delegate = materialize();
+        try {
+            final Object result = method.invoke(delegate, args);
+            // fluent calls keep returning this archive
+            return result == delegate ? proxy : result;
+        } catch (final InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Archive<?> materialize() {
+        Archive<?> imported = archive;
+        if (imported == null) {
+            synchronized (this) {
+                imported = archive;
+                if (imported == null) {
+                    imported = (Archive<?>) Archives.as(Archives.importFrom(file), archiveType
+                        .asSubclass(Assignable.class));
+                    archive = imported;
+                }
+            }
+        }
+        return imported;
+    }
+}
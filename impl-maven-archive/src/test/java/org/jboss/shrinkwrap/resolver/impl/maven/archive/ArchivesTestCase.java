@@ -0,0 +1,96 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.archive;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.Assert;
+
+import org.jboss.shrinkwrap.api.GenericArchive;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.exporter.ZipExporter;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Ensures that {@link Archives} imports files into independent archives, also from several threads at once
+ */
+public class ArchivesTestCase {
+
+    private static final File DIRECTORY = new File("target/archives");
+
+    private File first;
+    private File second;
+
+    @Before
+    public void createLibraries() {
+        DIRECTORY.mkdirs();
+        first = export("first.jar", "first");
+        second = export("second.jar", "second");
+    }
+
+    @Test
+    public void archivesAreIndependent() {
+        final GenericArchive archive = Archives.importFrom(first);
+        archive.add(new StringAsset("added"), "added.txt");
+        archive.delete("/META-INF/first.txt");
+        final GenericArchive other = Archives.importFrom(first);
+
+        Assert.assertNotSame(archive, other);
+        Assert.assertEquals(first.getName(), other.getName());
+        Assert.assertTrue("Modifications are not visible in other archives", other.contains("/META-INF/first.txt"));
+        Assert.assertFalse("Modifications are not visible in other archives", other.contains("/added.txt"));
+    }
+
+    @Test
+    public void archivesAreImportedConcurrently() throws Exception {
+        final ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<JavaArchive>> imports = new ArrayList<Future<JavaArchive>>();
+            for (int i = 0; i < 64; i++) {
+                final File file = i % 2 == 0 ? first : second;
+                imports.add(pool.submit(new Callable<JavaArchive>() {
+                    @Override
+                    public JavaArchive call() {
+                        return Archives.as(Archives.importFrom(file), JavaArchive.class);
+                    }
+                }));
+            }
+            for (int i = 0; i < imports.size(); i++) {
+                final String content = i % 2 == 0 ? "first" : "second";
+                Assert.assertTrue(imports.get(i).get().contains("/META-INF/" + content + ".txt"));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static File export(final String name, final String content) {
+        final File file = new File(DIRECTORY, name);
+        ShrinkWrap.create(JavaArchive.class, name).addAsManifestResource(new StringAsset(content), content + ".txt")
+            .as(ZipExporter.class).exportTo(file, true);
+        return file;
+    }
+}
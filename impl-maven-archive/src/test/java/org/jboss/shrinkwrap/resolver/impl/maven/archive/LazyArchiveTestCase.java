@@ -0,0 +1,95 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.archive;
+
+import java.io.File;
+
+import junit.framework.Assert;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.exporter.ZipExporter;
+import org.jboss.shrinkwrap.api.importer.ZipImporter;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Ensures that lazily imported archives are not imported until accessed and have the same content as imported ones
+ */
+public class LazyArchiveTestCase {
+
+    private static final File LIBRARY = new File("target/lazy-archive/library.jar");
+
+    @BeforeClass
+    public static void createLibrary() {
+        LIBRARY.getParentFile().mkdirs();
+        ShrinkWrap.create(JavaArchive.class, LIBRARY.getName()).addClass(LazyArchive.class)
+            .addAsManifestResource(new StringAsset("content"), "library.txt").as(ZipExporter.class)
+            .exportTo(LIBRARY, true);
+    }
+
+    @Test
+    public void nameDoesNotImport() {
+        final JavaArchive archive = LazyArchive.create(JavaArchive.class, LIBRARY);
+        Assert.assertEquals(LIBRARY.getName(), archive.getName());
+        Assert.assertTrue("Archive was not imported", LazyArchive.isPending(archive));
+    }
+
+    @Test
+    public void sameContentAsImported() {
+        final JavaArchive lazy = LazyArchive.create(JavaArchive.class, LIBRARY);
+        final JavaArchive imported = ShrinkWrap.create(ZipImporter.class, LIBRARY.getName()).importFrom(LIBRARY)
+            .as(JavaArchive.class);
+
+        Assert.assertEquals(imported.getContent().keySet(), lazy.getContent().keySet());
+        Assert.assertFalse("Archive was imported on access", LazyArchive.isPending(lazy));
+        Assert.assertTrue(lazy.contains("/META-INF/library.txt"));
+    }
+
+    @Test
+    public void modificationsKeepArchive() {
+        final JavaArchive lazy = LazyArchive.create(JavaArchive.class, LIBRARY);
+        final JavaArchive modified = lazy.addAsManifestResource(new StringAsset("added"), "added.txt");
+
+        Assert.assertSame("Fluent calls return the lazy archive", lazy, modified);
+        Assert.assertTrue(lazy.contains("/META-INF/added.txt"));
+        Assert.assertTrue(lazy.contains("/META-INF/library.txt"));
+    }
+
+    @Test
+    public void libraryIsImportedOnExport() {
+        final JavaArchive lazy = LazyArchive.create(JavaArchive.class, LIBRARY);
+        final WebArchive war = ShrinkWrap.create(WebArchive.class, "test.war").addAsLibrary(lazy);
+        Assert.assertTrue(war.contains("/WEB-INF/lib/" + LIBRARY.getName()));
+        Assert.assertTrue("Library was not imported when added", LazyArchive.isPending(lazy));
+
+        final File exported = new File(LIBRARY.getParentFile(), war.getName());
+        war.as(ZipExporter.class).exportTo(exported, true);
+        Assert.assertFalse("Library was imported on export", LazyArchive.isPending(lazy));
+
+        final WebArchive reimported = ShrinkWrap.create(ZipImporter.class, war.getName()).importFrom(exported)
+            .as(WebArchive.class);
+        Assert.assertTrue(reimported.contains("/WEB-INF/lib/" + LIBRARY.getName()));
+    }
+
+    @Test
+    public void processorIsEagerByDefault() {
+        Assert.assertFalse("Lazy archives are not enabled by default", ArchiveFormatProcessor.isLazy());
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import junit.framework.Assert;
+
+import org.jboss.shrinkwrap.resolver.api.maven.Maven;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenFormatStage;
+import org.jboss.shrinkwrap.resolver.api.maven.ResolutionReport;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Performance regression gate. Resolves dependencies of jar, war and ear samples with all remote repositories mirrored to
+ * a fixed file based repository and compares allocations and remote requests with baselines in
+ * {@code performance-baselines.properties}. Times are measured and reported, but they depend on the machine running
+ * the gate and are never compared.
+ *
+ * The fixed repository is generated before the measurement. The samples are resolved from the source repository, the
+ * local Maven repository by default, and only the artifacts and POMs they need are copied, with SHA-1 checksums and
+ * without any tracking files of a local repository. Remote requests of a cold resolution thus do not depend on whatever
+ * else the source repository contains. An existing fixed repository is used as is if no source repository is set.
+ *
+ * Each sample is resolved once into an empty local repository, which gives the number of remote requests and downloaded
+ * bytes, and then repeatedly from the populated local repository, which gives median time and allocated bytes of a warm
+ * resolution. A metric regresses if it exceeds its baseline by more than the tolerance configured for its kind, metrics
+ * without a baseline are not compared. Measured values are written to {@code target/performance-results.properties},
+ * which can be copied over the baselines to record new ones.
+ */
+public class ResolutionPerformanceTestCase {
+
+    private static final String[] SAMPLES = { "jar-sample", "war-sample", "ear-sample" };
+
+    private static final String BASELINES = "performance-baselines.properties";
+    private static final String SETTINGS = "target/test-classes/performance-settings.xml";
+    private static final String SOURCE_SETTINGS = "target/test-classes/performance-source-settings.xml";
+    private static final String LOCAL_REPOSITORIES = "target/performance-repository";
+    private static final String STAGING_REPOSITORY = "target/performance-staging-repository";
+    private static final String RESULTS = "target/performance-results.properties";
+
+    private static final String ALT_LOCAL_REPOSITORY_LOCATION = "maven.repo.local";
+
+    private static final int ROUNDS = Integer.getInteger("performance.rounds", 10);
+    private static final int WARMUP_ROUNDS = Integer.getInteger("performance.warmup.rounds", 5);
+    private static final double ALLOCATION_TOLERANCE = tolerance("performance.tolerance.allocation", 0.2);
+    private static final double REQUESTS_TOLERANCE = tolerance("performance.tolerance.requests", 0.0);
+
+    @BeforeClass
+    public static void generateRepository() throws IOException {
+        final File repository = new File(System.getProperty("performance.repository",
+            "target/performance-remote-repository"));
+        final String source = System.getProperty("performance.source.repository");
+        if (source == null || source.trim().length() == 0) {
+            Assert.assertTrue("Fixed repository " + repository + " exists", repository.isDirectory());
+            return;
+        }
+
+        final File staging = new File(STAGING_REPOSITORY);
+        delete(staging);
+        for (final String sample : SAMPLES) {
+            resolve(SOURCE_SETTINGS, new File("../" + sample + "/pom.xml"), staging);
+        }
+        delete(repository);
+        copyArtifacts(staging, repository);
+    }
+
+    @Test
+    public void resolutionDoesNotRegress() throws IOException {
+        final Map<String, Long> results = new TreeMap<String, Long>();
+        for (final String sample : SAMPLES) {
+            measure(sample, results);
+        }
+        writeResults(results);
+
+        final Properties baselines = loadBaselines();
+        final List<String> regressions = new ArrayList<String>();
+        for (final Map.Entry<String, Long> result : results.entrySet()) {
+            if (result.getKey().endsWith(".millis")) {
+                System.out.println("Time of " + result.getKey() + " is not compared, measured " + result.getValue());
+                continue;
+            }
+            final String baseline = baselines.getProperty(result.getKey());
+            if (baseline == null) {
+                System.out.println("No baseline for " + result.getKey() + ", measured " + result.getValue());
+                continue;
+            }
+            final String regression = regression(result.getKey(), result.getValue(), Long.parseLong(baseline.trim()));
+            if (regression != null) {
+                regressions.add(regression);
+            }
+        }
+
+        if (!regressions.isEmpty()) {
+            Assert.fail("Performance regressed, see " + RESULTS + " for all measured values:\n" + join(regressions));
+        }
+    }
+
+    private void measure(final String sample, final Map<String, Long> results) throws IOException {
+        final File pom = new File("../" + sample + "/pom.xml");
+        final File localRepository = new File(LOCAL_REPOSITORIES, sample);
+        delete(localRepository);
+
+        // cold resolution, everything is fetched from the fixed repository
+        final ResolutionReport cold = resolve(SETTINGS, pom, localRepository);
+        results.put(sample + ".cold.remoteRequests", (long) cold.getRemoteRequests());
+        results.put(sample + ".cold.bytesDownloaded", cold.getBytesDownloaded());
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            resolve(SETTINGS, pom, localRepository);
+        }
+
+        final long[] millis = new long[ROUNDS];
+        final long[] allocated = new long[ROUNDS];
+        long remoteRequests = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            final long allocatedBefore = allocatedBytes();
+            final long start = System.nanoTime();
+            final ResolutionReport warm = resolve(SETTINGS, pom, localRepository);
+            millis[i] = (System.nanoTime() - start) / 1000000;
+            allocated[i] = allocatedBytes() - allocatedBefore;
+            remoteRequests = Math.max(remoteRequests, warm.getRemoteRequests());
+        }
+        results.put(sample + ".warm.millis", median(millis));
+        results.put(sample + ".warm.remoteRequests", remoteRequests);
+        if (allocatedBytes() >= 0) {
+            results.put(sample + ".warm.allocatedBytes", median(allocated));
+        }
+    }
+
+    private static ResolutionReport resolve(final String settings, final File pom, final File localRepository) {
+        final String previous = System.setProperty(ALT_LOCAL_REPOSITORY_LOCATION, localRepository.getAbsolutePath());
+        try {
+            final MavenFormatStage stage = Maven.configureResolver().fromFile(settings).loadPomFromFile(pom)
+                .importRuntimeAndTestDependencies();
+            Assert.assertTrue("Dependencies of " + pom + " were resolved", stage.asFile().length > 0);
+            return stage.getResolutionReport();
+        } finally {
+            if (previous == null) {
+                System.clearProperty(ALT_LOCAL_REPOSITORY_LOCATION);
+            } else {
+                System.setProperty(ALT_LOCAL_REPOSITORY_LOCATION, previous);
+            }
+        }
+    }
+
+    private static String regression(final String key, final long measured, final long baseline) {
+        final double tolerance = key.endsWith(".allocatedBytes") ? ALLOCATION_TOLERANCE : REQUESTS_TOLERANCE;
+        if (measured > baseline * (1 + tolerance)) {
+            return key + ": measured " + measured + ", baseline " + baseline + ", tolerance "
+                + Math.round(tolerance * 100) + "%";
+        }
+        return null;
+    }
+
+    /**
+     * Returns number of bytes allocated by the current thread so far or {@code -1} if the JVM does not track allocations
+     */
+    private static long allocatedBytes() {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            final com.sun.management.ThreadMXBean hotspotBean = (com.sun.management.ThreadMXBean) bean;
+            if (hotspotBean.isThreadAllocatedMemorySupported() && hotspotBean.isThreadAllocatedMemoryEnabled()) {
+                return hotspotBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    private static long median(final long[] values) {
+        final long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static double tolerance(final String key, final double defaultValue) {
+        final String value = System.getProperty(key);
+        return value == null || value.length() == 0 ? defaultValue : Double.parseDouble(value);
+    }
+
+    private static Properties loadBaselines() throws IOException {
+        final Properties baselines = new Properties();
+        final InputStream in = ResolutionPerformanceTestCase.class.getClassLoader().getResourceAsStream(BASELINES);
+        Assert.assertNotNull("Baselines " + BASELINES + " are available", in);
+        try {
+            baselines.load(in);
+        } finally {
+            in.close();
+        }
+        return baselines;
+    }
+
+    private static void writeResults(final Map<String, Long> results) throws IOException {
+        final Writer writer = new OutputStreamWriter(new FileOutputStream(RESULTS), "ISO-8859-1");
+        try {
+            writer.write("# Measured by " + ResolutionPerformanceTestCase.class.getName() + "\n");
+            for (final Map.Entry<String, Long> result : results.entrySet()) {
+                writer.write(result.getKey() + "=" + result.getValue() + "\n");
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static String join(final List<String> lines) {
+        final StringBuilder sb = new StringBuilder();
+        for (final String line : lines) {
+            sb.append(line).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Copies artifacts of a local repository in the layout of a remote repository. Each file gets a SHA-1 checksum,
+     * tracking files, checksums and failed download markers of the local repository are skipped.
+     */
+    private static void copyArtifacts(final File directory, final File target) throws IOException {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (final File file : files) {
+            final String name = file.getName();
+            if (name.startsWith(".") || name.startsWith("_") || name.startsWith("resolver-status")
+                || name.endsWith(".sha1") || name.endsWith(".md5") || name.endsWith(".lastUpdated")
+                || name.endsWith(".part") || name.endsWith(".tmp") || name.endsWith(".lock")
+                || name.endsWith(".classes")) {
+                continue;
+            }
+            if (file.isDirectory()) {
+                copyArtifacts(file, new File(target, name));
+                continue;
+            }
+            // metadata in a local repository is named after the repository it came from
+            final String targetName = name.startsWith("maven-metadata-") ? "maven-metadata.xml" : name;
+            final String sha1 = copy(file, new File(target, targetName));
+            final Writer writer = new OutputStreamWriter(new FileOutputStream(new File(target, targetName + ".sha1")),
+                "US-ASCII");
+            try {
+                writer.write(sha1);
+            } finally {
+                writer.close();
+            }
+        }
+    }
+
+    /**
+     * Copies the file and returns its SHA-1 checksum
+     */
+    private static String copy(final File source, final File target) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not supported", e);
+        }
+        if (!target.getParentFile().isDirectory() && !target.getParentFile().mkdirs()) {
+            throw new IOException("Unable to create " + target.getParentFile().getAbsolutePath());
+        }
+        final InputStream in = new FileInputStream(source);
+        try {
+            final OutputStream out = new FileOutputStream(target);
+            try {
+                final byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            } finally {
+                out.close();
+            }
+        } finally {
+            in.close();
+        }
+
+        final StringBuilder sb = new StringBuilder();
+        for (final byte b : digest.digest()) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (final File child : children) {
+                delete(child);
+            }
+        }
+        if (file.exists() && !file.delete()) {
+            throw new IllegalStateException("Unable to delete " + file.getAbsolutePath());
+        }
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.jboss.shrinkwrap.resolver.api.maven.MavenClassIndex;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.spi.format.ConcurrentFormatProcessor;
+
+/**
+ * {@link MavenClassIndex} built by scanning resolved artifacts in parallel.
+ *
+ * Classes and packages are mapped to positions of artifacts containing them; the common case of a class or package in a
+ * single artifact shares one position array per artifact. The list of classes of each artifact in the local repository
+ * is stored next to the artifact file in a {@link #CLASS_LIST_SUFFIX} file, together with size and modification time of
+ * the artifact file, so it is scanned again only if the file changes. Lists of other artifacts, e.g. in a workspace or
+ * an offline bundle, are kept only in the index, nothing is written next to them.
+ */
+final class ClassIndex implements MavenClassIndex {
+    private static final Logger log = Logger.getLogger(ClassIndex.class.getName());
+
+    /**
+     * Suffix of files with list of classes of an artifact
+     */
+    static final String CLASS_LIST_SUFFIX = ".classes";
+
+    private static final String HEADER_PREFIX = "# ";
+    private static final String CLASS_SUFFIX = ".class";
+    private static final String[] NO_CLASSES = new String[0];
+
+    private final MavenResolvedArtifact[] artifacts;
+    private final Map<String, int[]> classes;
+    private final Map<String, int[]> packages;
+
+    private ClassIndex(final MavenResolvedArtifact[] artifacts, final String[][] classLists) {
+        this.artifacts = artifacts;
+
+        int size = 0;
+        for (final String[] classList : classLists) {
+            size += classList.length;
+        }
+        this.classes = new HashMap<String, int[]>(Math.max(16, size * 4 / 3 + 1));
+        this.packages = new HashMap<String, int[]>();
+
+        for (int i = 0; i < classLists.length; i++) {
+            final int[] single = new int[] { i };
+            for (final String className : classLists[i]) {
+                add(classes, className, single);
+                add(packages, packageOf(className), single);
+            }
+        }
+    }
+
+    /**
+     * Builds index of the artifacts, scanning them on the executor
+     *
+     * @param artifacts
+     * @param localRepository
+     *        Base directory of the local repository, lists of classes are stored only for artifacts within it;
+     *        {@code null} if no list should be stored
+     * @param executor
+     * @return
+     */
+    static ClassIndex build(final Collection<MavenResolvedArtifact> artifacts, final File localRepository,
+        final Executor executor) {
+        final String[][] classLists = MavenFormatStageImpl.process(artifacts, new ClassListProcessor(
+            canonicalPath(localRepository)), String[].class, executor);
+        return new ClassIndex(artifacts.toArray(new MavenResolvedArtifact[artifacts.size()]), classLists);
+    }
+
+    @Override
+    public MavenResolvedArtifact[] findClass(final String className) {
+        return toArtifacts(classes.get(className));
+    }
+
+    @Override
+    public MavenResolvedArtifact[] findPackage(final String packageName) {
+        return toArtifacts(packages.get(packageName));
+    }
+
+    @Override
+    public Set<String> getSplitPackages() {
+        final Set<String> split = new LinkedHashSet<String>();
+        for (final Map.Entry<String, int[]> entry : packages.entrySet()) {
+            if (entry.getValue().length > 1) {
+                split.add(entry.getKey());
+            }
+        }
+        return Collections.unmodifiableSet(split);
+    }
+
+    private MavenResolvedArtifact[] toArtifacts(final int[] positions) {
+        if (positions == null) {
+            return new MavenResolvedArtifact[0];
+        }
+        final MavenResolvedArtifact[] found = new MavenResolvedArtifact[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            found[i] = artifacts[positions[i]];
+        }
+        return found;
+    }
+
+    private static void add(final Map<String, int[]> index, final String name, final int[] single) {
+        final int[] positions = index.get(name);
+        if (positions == null) {
+            index.put(name, single);
+        } else if (positions[positions.length - 1] != single[0]) {
+            final int[] added = new int[positions.length + 1];
+            System.arraycopy(positions, 0, added, 0, positions.length);
+            added[positions.length] = single[0];
+            index.put(name, added);
+        }
+    }
+
+    private static String packageOf(final String className) {
+        final int dot = className.lastIndexOf('.');
+        return dot == -1 ? "" : className.substring(0, dot);
+    }
+
+    /**
+     * Gets list of classes of an artifact, from the stored list if the artifact file did not change
+     *
+     * @param file
+     * @param localRepository
+     *        Canonical path of the local repository, the list is stored only if the file is within it; {@code null} if
+     *        no list should be stored
+     * @return
+     */
+    private static String[] classesOf(final File file, final String localRepository) {
+        if (file == null || !file.isFile()) {
+            return NO_CLASSES;
+        }
+        if (!isWithin(file, localRepository)) {
+            final String[] scanned = scan(file);
+            return scanned == null ? NO_CLASSES : scanned;
+        }
+        final String header = HEADER_PREFIX + file.length() + " " + file.lastModified();
+        final File classList = new File(file.getParentFile(), file.getName() + CLASS_LIST_SUFFIX);
+
+        if (classList.isFile()) {
+            try {
+                final String[] stored = read(classList, header);
+                if (stored != null) {
+                    return stored;
+                }
+            } catch (final IOException e) {
+                log.log(Level.FINE, "Unable to read list of classes " + classList.getAbsolutePath(), e);
+            }
+        }
+
+        final String[] scanned = scan(file);
+        if (scanned == null) {
+            return NO_CLASSES;
+        }
+        try {
+            write(classList, header, scanned);
+        } catch (final IOException e) {
+            // read-only repository, the list will be scanned again next time
+            log.log(Level.FINE, "Unable to store list of classes " + classList.getAbsolutePath(), e);
+        }
+        return scanned;
+    }
+
+    private static boolean isWithin(final File file, final String directory) {
+        if (directory == null) {
+            return false;
+        }
+        final String path = canonicalPath(file);
+        return path != null && path.startsWith(directory) && path.length() > directory.length()
+            && path.charAt(directory.length()) == File.separatorChar;
+    }
+
+    private static String canonicalPath(final File file) {
+        if (file == null) {
+            return null;
+        }
+        try {
+            return file.getCanonicalPath();
+        } catch (final IOException e) {
+            log.log(Level.FINE, "Unable to get canonical path of " + file.getAbsolutePath(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Scans the archive for classes
+     *
+     * @param file
+     * @return Names of classes or {@code null} if the file is not an archive, e.g. a POM artifact
+     */
+    private static String[] scan(final File file) {
+        final ZipFile zip;
+        try {
+            zip = new ZipFile(file);
+        } catch (final IOException e) {
+            return null;
+        }
+        try {
+            final List<String> names = new ArrayList<String>();
+            final Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                final String name = entries.nextElement().getName();
+                if (name.endsWith(CLASS_SUFFIX) && !name.startsWith("META-INF/") && !"module-info.class".equals(name)) {
+                    names.add(name.substring(0, name.length() - CLASS_SUFFIX.length()).replace('/', '.'));
+                }
+            }
+            return names.toArray(new String[names.size()]);
+        } finally {
+            try {
+                zip.close();
+            } catch (final IOException ignore) {
+                // nothing to do, entries were read
+            }
+        }
+    }
+
+    private static String[] read(final File classList, final String header) throws IOException {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(classList), "UTF-8"));
+        try {
+            if (!header.equals(reader.readLine())) {
+                return null;
+            }
+            final List<String> names = new ArrayList<String>();
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.length() > 0) {
+                    names.add(line);
+                }
+            }
+            return names.toArray(new String[names.size()]);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static void write(final File classList, final String header, final String[] names) throws IOException {
+        // written aside and renamed, so concurrent readers never see a partial list
+        final File tmp = File.createTempFile(classList.getName(), ".tmp", classList.getParentFile());
+        try {
+            final Writer writer = new OutputStreamWriter(new FileOutputStream(tmp), "UTF-8");
+            try {
+                writer.write(header);
+                writer.write('\n');
+                for (final String name : names) {
+                    writer.write(name);
+                    writer.write('\n');
+                }
+            } finally {
+                writer.close();
+            }
+            if (!tmp.renameTo(classList) && !(classList.delete() && tmp.renameTo(classList))) {
+                throw new IOException("Unable to rename " + tmp.getAbsolutePath() + " to " + classList.getAbsolutePath());
+            }
+        } finally {
+            tmp.delete();
+        }
+    }
+
+    /**
+     * Gets list of classes of an artifact, used to scan artifacts in parallel
+     */
+    private static final class ClassListProcessor implements ConcurrentFormatProcessor<MavenResolvedArtifact, String[]> {
+        private final String localRepository;
+
+        private ClassListProcessor(final String localRepository) {
+            this.localRepository = localRepository;
+        }
+
+        @Override
+        public boolean handles(final Class<?> resolvedTypeClass) {
+            return MavenResolvedArtifact.class.isAssignableFrom(resolvedTypeClass);
+        }
+
+        @Override
+        public boolean returns(final Class<?> returnTypeClass) {
+            return String[].class.equals(returnTypeClass);
+        }
+
+        @Override
+        public String[] process(final MavenResolvedArtifact input, final Class<String[]> returnType) {
+            return classesOf(input.asFile(), localRepository);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenCoordinate;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependency;
+import org.jboss.shrinkwrap.resolver.impl.maven.convert.MavenConverter;
+import org.sonatype.aether.graph.Dependency;
+
+/**
+ * {@link MavenDependency}s stored in version management, indexed by groupId, artifactId, packaging and classifier, same as
+ * the <code>&lt;dependencyManagement&gt;</code> section is keyed by Maven. There is at most one entry per key, the first
+ * one added wins.
+ *
+ * This is not a {@link java.util.Set}, as entries are distinguished by their key rather than by
+ * {@link MavenDependency#equals(Object)}. Lookups via {@link #get(MavenCoordinate)} are constant time and ignore version,
+ * scope, optional flag and exclusions. The hash table stores positions of the entries only, keys are compared using fields
+ * of the stored dependencies, so no key objects are created per entry.
+ */
+public class DependencyManagementIndex implements Iterable<MavenDependency> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final List<MavenDependency> entries = new ArrayList<MavenDependency>();
+
+    /**
+     * Open addressing table of positions in {@link #entries} incremented by one, zero marks an empty slot. At most half
+     * full.
+     */
+    private int[] table = new int[INITIAL_CAPACITY];
+
+    /**
+     * Returns the managed dependency matching groupId, artifactId, packaging and classifier of the given coordinate
+     *
+     * @param coordinate
+     *        The coordinate to be looked up
+     * @return The managed dependency or {@code null} if there is none
+     */
+    public MavenDependency get(final MavenCoordinate coordinate) {
+        if (coordinate == null) {
+            return null;
+        }
+        final int slot = table[find(table, coordinate)];
+        return slot == 0 ? null : entries.get(slot - 1);
+    }
+
+    /**
+     * Adds a managed dependency unless there is one with the same groupId, artifactId, packaging and classifier already
+     *
+     * @param dependency
+     *        The dependency to be added
+     * @return {@code true} if the dependency was added
+     * @throws IllegalArgumentException If the dependency is {@code null}
+     */
+    public boolean add(final MavenDependency dependency) throws IllegalArgumentException {
+        if (dependency == null) {
+            throw new IllegalArgumentException("Managed dependency must not be null");
+        }
+        final int index = find(table, dependency);
+        if (table[index] != 0) {
+            return false;
+        }
+        entries.add(dependency);
+        table[index] = entries.size();
+        if (entries.size() * 2 > table.length) {
+            rehash();
+        }
+        return true;
+    }
+
+    /**
+     * Adds all managed dependencies, see {@link #add(MavenDependency)}
+     *
+     * @param dependencies
+     *        The dependencies to be added
+     * @return {@code true} if any of the dependencies was added
+     * @throws IllegalArgumentException If any of the dependencies is {@code null}
+     */
+    public boolean addAll(final Collection<MavenDependency> dependencies) throws IllegalArgumentException {
+        boolean changed = false;
+        for (final MavenDependency dependency : dependencies) {
+            changed |= add(dependency);
+        }
+        return changed;
+    }
+
+    /**
+     * Converts managed dependencies to Aether {@link Dependency}s, to be used as managed dependencies of a collect request.
+     * The result is not cached.
+     *
+     * @return New list of managed dependencies
+     */
+    public List<Dependency> asDependencies() {
+        return MavenConverter.asDependencies(entries);
+    }
+
+    /**
+     * Returns an iterator over managed dependencies in the order they were added. The iterator does not support removal.
+     */
+    @Override
+    public Iterator<MavenDependency> iterator() {
+        return Collections.unmodifiableList(entries).iterator();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private int find(final int[] table, final MavenCoordinate coordinate) {
+        final int mask = table.length - 1;
+        int index = hash(coordinate) & mask;
+        while (table[index] != 0 && !sameKey(entries.get(table[index] - 1), coordinate)) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void rehash() {
+        final int[] rehashed = new int[table.length * 2];
+        for (int i = 0; i < entries.size(); i++) {
+            rehashed[find(rehashed, entries.get(i))] = i + 1;
+        }
+        table = rehashed;
+    }
+
+    private static int hash(final MavenCoordinate coordinate) {
+        int hash = hashCode(coordinate.getGroupId());
+        hash = 31 * hash + hashCode(coordinate.getArtifactId());
+        hash = 31 * hash + hashCode(coordinate.getPackaging());
+        hash = 31 * hash + hashCode(coordinate.getClassifier());
+        // spread higher bits, the table is indexed by lower bits
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean sameKey(final MavenCoordinate entry, final MavenCoordinate coordinate) {
+        return equals(entry.getGroupId(), coordinate.getGroupId())
+            && equals(entry.getArtifactId(), coordinate.getArtifactId())
+            && equals(entry.getPackaging(), coordinate.getPackaging())
+            && equals(entry.getClassifier(), coordinate.getClassifier());
+    }
+
+    private static int hashCode(final Object o) {
+        return o == null ? 0 : o.hashCode();
+    }
+
+    private static boolean equals(final Object first, final Object second) {
+        return first == null ? second == null : first.equals(second);
+    }
+}
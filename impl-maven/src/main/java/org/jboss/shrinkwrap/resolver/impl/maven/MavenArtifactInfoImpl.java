@@ -2,9 +2,12 @@ package org.jboss.shrinkwrap.resolver.impl.maven;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import org.jboss.shrinkwrap.resolver.api.maven.MavenArtifactInfo;
 import org.jboss.shrinkwrap.resolver.api.maven.PackagingType;
+import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
 import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenCoordinate;
 import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenCoordinates;
 import org.sonatype.aether.artifact.Artifact;
@@ -17,29 +20,35 @@ import org.sonatype.aether.graph.DependencyNode;
  */
 public class MavenArtifactInfoImpl implements MavenArtifactInfo {
 
+    private static final Logger log = Logger.getLogger(MavenArtifactInfoImpl.class.getName());
+
     protected final MavenCoordinate mavenCoordinate;
     protected final String resolvedVersion;
     protected final boolean snapshotVersion;
     protected final String extension;
+    protected final ScopeType scope;
 
     protected final MavenArtifactInfo[] dependencies;
 
     protected MavenArtifactInfoImpl(final MavenCoordinate mavenCoordinate, final String resolvedVersion,
-        final boolean snapshotVersion, final String extension, final MavenArtifactInfo[] dependencies) {
+        final boolean snapshotVersion, final String extension, final ScopeType scope,
+        final MavenArtifactInfo[] dependencies) {
         this.mavenCoordinate = mavenCoordinate;
         this.resolvedVersion = resolvedVersion;
         this.snapshotVersion = snapshotVersion;
         this.extension = extension;
+        this.scope = scope;
         this.dependencies = dependencies.clone();
     }
 
-    protected MavenArtifactInfoImpl(final Artifact artifact, final List<DependencyNode> children) {
+    protected MavenArtifactInfoImpl(final Artifact artifact, final ScopeType scope, final List<DependencyNode> children) {
         this.mavenCoordinate = MavenCoordinates.createCoordinate(artifact.getGroupId(), artifact.getArtifactId(),
             artifact.getBaseVersion(), PackagingType.of(artifact.getExtension()),
             artifact.getClassifier());
         this.resolvedVersion = artifact.getVersion();
         this.snapshotVersion = artifact.isSnapshot();
         this.extension = artifact.getExtension();
+        this.scope = scope;
         this.dependencies = parseDependencies(children);
     }
 
@@ -53,7 +62,26 @@ public class MavenArtifactInfoImpl implements MavenArtifactInfo {
     static MavenArtifactInfo fromDependencyNode(final DependencyNode dependencyNode) {
         final Artifact artifact = dependencyNode.getDependency().getArtifact();
         final List<DependencyNode> children = dependencyNode.getChildren();
-        return new MavenArtifactInfoImpl(artifact, children);
+        return new MavenArtifactInfoImpl(artifact, scopeOf(dependencyNode), children);
+    }
+
+    /**
+     * Gets scope of a DependencyNode. Scopes unknown to Maven are reported as {@link ScopeType#COMPILE}, same as an
+     * empty scope.
+     *
+     * @param dependencyNode
+     *            dependencyNode
+     * @return
+     */
+    static ScopeType scopeOf(final DependencyNode dependencyNode) {
+        final String scope = dependencyNode.getDependency() == null ? null : dependencyNode.getDependency().getScope();
+        try {
+            return ScopeType.fromScopeType(scope);
+        } catch (final IllegalArgumentException e) {
+            log.log(Level.FINE, "Unknown scope {0} of {1} was replaced with {2}", new Object[] { scope,
+                dependencyNode.getDependency(), ScopeType.COMPILE });
+            return ScopeType.COMPILE;
+        }
     }
 
     /**
@@ -121,10 +149,20 @@ public class MavenArtifactInfoImpl implements MavenArtifactInfo {
         return dependencies;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.shrinkwrap.resolver.api.maven.MavenArtifactInfo#getScope()
+     */
+    @Override
+    public ScopeType getScope() {
+        return scope;
+    }
+
     @Override
     public String toString() {
         return "MavenArtifactInfoImpl [mavenCoordinate=" + mavenCoordinate + ", resolvedVersion=" + resolvedVersion
-            + ", snapshotVersion=" + snapshotVersion + ", extension=" + extension + ", dependencies="
+            + ", snapshotVersion=" + snapshotVersion + ", extension=" + extension + ", scope=" + scope + ", dependencies="
             + Arrays.toString(dependencies) + "]";
     }
 
@@ -0,0 +1,69 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.io.File;
+
+import org.jboss.shrinkwrap.resolver.api.maven.InvalidEnvironmentException;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenExportedGraphResolverSystem;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenExportedGraphStage;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.Validate;
+
+/**
+ * Implementation of {@link MavenExportedGraphResolverSystem}
+ */
+public class MavenExportedGraphResolverSystemImpl implements MavenExportedGraphResolverSystem {
+
+    /**
+     * Property set by "export-resolved-graph" goal of the ShrinkWrap Maven Resolver Plugin
+     */
+    static final String RESOLVED_GRAPH_KEY = "maven.execution.resolved-graph";
+
+    private static final String CONSTRUCTION_EXCEPTION = "Loading of exported graph requires that user has property "
+        + RESOLVED_GRAPH_KEY + " set, however it was not detected in runtime environment.\n\n"
+        + "You should enable ShrinkWrap Maven Resolver Plugin to get it set for you automatically if executing from Maven via adding following to your <build> section:\n\n"
+        + "<plugin>\n"
+        + "\t<groupId>org.jboss.shrinkwrap.resolver</groupId>\n"
+        + "\t<artifactId>shrinkwrap-resolver-maven-plugin</artifactId>\n"
+        + "\t<executions>\n"
+        + "\t\t<execution>\n"
+        + "\t\t\t<goals>\n"
+        + "\t\t\t\t<goal>export-resolved-graph</goal>\n"
+        + "\t\t\t</goals>\n"
+        + "\t\t</execution>\n" + "\t</executions>\n" + "</plugin>\n";
+
+    @Override
+    public MavenExportedGraphStage loadGraphViaPlugin() throws InvalidEnvironmentException {
+        final String path = SecurityActions.getProperty(RESOLVED_GRAPH_KEY);
+        if (Validate.isNullOrEmpty(path)) {
+            throw new InvalidEnvironmentException(CONSTRUCTION_EXCEPTION);
+        }
+        return loadGraph(path);
+    }
+
+    @Override
+    public MavenExportedGraphStage loadGraph(final File file) throws IllegalArgumentException {
+        Validate.isReadable(file, "Exported graph " + file + " does not represent a readable file");
+        return MavenExportedGraphStageImpl.load(file);
+    }
+
+    @Override
+    public MavenExportedGraphStage loadGraph(final String path) throws IllegalArgumentException {
+        Validate.notNullOrEmpty(path, "Path to exported graph must be specified");
+        return loadGraph(new File(path));
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.shrinkwrap.resolver.api.maven.MavenArtifactInfo;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenExportedGraphStage;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenFormatStage;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenScopedResolution;
+import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenCoordinate;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenCoordinates;
+
+/**
+ * Implementation of {@link MavenExportedGraphStage}. The exported graph is read once, artifacts keep the order in which
+ * they were exported by Maven.
+ */
+public class MavenExportedGraphStageImpl implements MavenExportedGraphStage {
+
+    /**
+     * Header of the exported graph, it has to match the one written by the ShrinkWrap Maven Resolver Plugin
+     */
+    static final String HEADER = "# shrinkwrap-resolver resolved graph 1";
+
+    private static final int COLUMNS = 5;
+
+    private final MavenScopedResolution resolution;
+
+    MavenExportedGraphStageImpl(final List<MavenResolvedArtifact> artifacts) {
+        this.resolution = new MavenScopedResolutionImpl(Collections.unmodifiableList(artifacts));
+    }
+
+    @Override
+    public MavenFormatStage importRuntimeDependencies() {
+        return resolution.scopes(ScopeType.COMPILE, ScopeType.IMPORT, ScopeType.RUNTIME, ScopeType.SYSTEM);
+    }
+
+    @Override
+    public MavenFormatStage importRuntimeAndTestDependencies() {
+        return resolution.testScope();
+    }
+
+    @Override
+    public MavenScopedResolution importDependenciesByScope() {
+        return resolution;
+    }
+
+    /**
+     * Reads exported graph from a file
+     *
+     * @param file
+     *            Exported graph
+     * @return
+     * @throws IllegalArgumentException
+     *             If the file could not be read or does not contain an exported graph
+     */
+    static MavenExportedGraphStageImpl load(final File file) throws IllegalArgumentException {
+        final Map<String, Entry> entries = new LinkedHashMap<String, Entry>();
+        try {
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+            try {
+                String line = reader.readLine();
+                if (!HEADER.equals(line)) {
+                    throw new IllegalArgumentException("File " + file.getAbsolutePath()
+                        + " does not contain an exported graph, header was " + line);
+                }
+                int lineNumber = 1;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (line.length() == 0) {
+                        continue;
+                    }
+                    final Entry entry = Entry.parse(line, file, lineNumber);
+                    entries.put(entry.coordinate, entry);
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (final IOException e) {
+            throw new IllegalArgumentException("Unable to read exported graph from " + file.getAbsolutePath(), e);
+        }
+
+        final Map<String, List<Entry>> children = new HashMap<String, List<Entry>>();
+        for (final Entry entry : entries.values()) {
+            if (entry.parent.length() != 0 && entries.containsKey(entry.parent)) {
+                List<Entry> siblings = children.get(entry.parent);
+                if (siblings == null) {
+                    siblings = new ArrayList<Entry>();
+                    children.put(entry.parent, siblings);
+                }
+                siblings.add(entry);
+            }
+        }
+
+        final Map<String, MavenArtifactInfo> infos = new HashMap<String, MavenArtifactInfo>();
+        final List<MavenResolvedArtifact> artifacts = new ArrayList<MavenResolvedArtifact>(entries.size());
+        for (final Entry entry : entries.values()) {
+            final MavenArtifactInfo[] dependencies = dependenciesOf(entry, children, infos, new HashSet<String>());
+            artifacts.add(new MavenResolvedArtifactImpl(entry.mavenCoordinate, entry.resolvedVersion, entry.snapshot,
+                entry.extension, entry.scope, entry.file, dependencies));
+        }
+        return new MavenExportedGraphStageImpl(artifacts);
+    }
+
+    private static MavenArtifactInfo[] dependenciesOf(final Entry entry, final Map<String, List<Entry>> children,
+        final Map<String, MavenArtifactInfo> infos, final Set<String> path) {
+        final List<Entry> childEntries = children.get(entry.coordinate);
+        if (childEntries == null) {
+            return new MavenArtifactInfo[0];
+        }
+        if (!path.add(entry.coordinate)) {
+            throw new IllegalArgumentException("Exported graph contains a cycle at " + entry.coordinate);
+        }
+        final MavenArtifactInfo[] dependencies = new MavenArtifactInfo[childEntries.size()];
+        for (int i = 0; i < dependencies.length; i++) {
+            final Entry child = childEntries.get(i);
+            MavenArtifactInfo info = infos.get(child.coordinate);
+            if (info == null) {
+                info = new MavenArtifactInfoImpl(child.mavenCoordinate, child.resolvedVersion, child.snapshot,
+                    child.extension, child.scope, dependenciesOf(child, children, infos, path));
+                infos.put(child.coordinate, info);
+            }
+            dependencies[i] = info;
+        }
+        path.remove(entry.coordinate);
+        return dependencies;
+    }
+
+    /**
+     * Single line of the exported graph
+     */
+    private static final class Entry {
+        private final String coordinate;
+        private final MavenCoordinate mavenCoordinate;
+        private final String resolvedVersion;
+        private final boolean snapshot;
+        private final String extension;
+        private final ScopeType scope;
+        private final File file;
+        private final String parent;
+
+        private Entry(final String coordinate, final String resolvedVersion, final String scope, final String file,
+            final String parent) {
+            this.coordinate = coordinate;
+            this.mavenCoordinate = MavenCoordinates.createCoordinate(coordinate);
+            this.resolvedVersion = resolvedVersion;
+            this.snapshot = mavenCoordinate.getVersion().endsWith("SNAPSHOT");
+            this.extension = mavenCoordinate.getPackaging().toString();
+            this.scope = ScopeType.fromScopeType(scope);
+            this.file = new File(file);
+            this.parent = parent;
+        }
+
+        static Entry parse(final String line, final File source, final int lineNumber) throws IllegalArgumentException {
+            final String[] columns = line.split("\t", -1);
+            if (columns.length != COLUMNS) {
+                throw new IllegalArgumentException("Line " + lineNumber + " of exported graph " + source.getAbsolutePath()
+                    + " is malformed, expected " + COLUMNS + " tab separated values but got " + columns.length);
+            }
+            try {
+                return new Entry(columns[0], columns[1], columns[2], columns[3], columns[4]);
+            } catch (final IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + " of exported graph "
+                    + source.getAbsolutePath() + " is malformed: " + e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -19,14 +19,33 @@ package org.jboss.shrinkwrap.resolver.impl.maven;
 import java.io.File;
 import java.io.InputStream;
 import java.lang.reflect.Array;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jboss.shrinkwrap.resolver.api.NoResolvedResultException;
 import org.jboss.shrinkwrap.resolver.api.NonUniqueResultException;
+import org.jboss.shrinkwrap.resolver.api.ResolutionException;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenClassIndex;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenClassLoader;
 import org.jboss.shrinkwrap.resolver.api.maven.MavenFormatStage;
 import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.api.maven.ResolutionReport;
+import org.jboss.shrinkwrap.resolver.api.maven.ResolutionReport.Phase;
 import org.jboss.shrinkwrap.resolver.impl.maven.util.Validate;
+import org.jboss.shrinkwrap.resolver.spi.format.ConcurrentFormatProcessor;
 import org.jboss.shrinkwrap.resolver.spi.format.FormatProcessor;
 import org.jboss.shrinkwrap.resolver.spi.format.FormatProcessors;
 
@@ -38,10 +57,33 @@ import org.jboss.shrinkwrap.resolver.spi.format.FormatProcessors;
 public class MavenFormatStageImpl implements MavenFormatStage {
 
     private final Collection<MavenResolvedArtifact> artifacts;
+    private final ResolutionReportImpl report;
+    // null if the artifacts are not known to be in a local repository
+    private final File localRepository;
+    // null if artifacts are formatted by the calling thread
+    private final Executor executor;
 
     public MavenFormatStageImpl(final Collection<MavenResolvedArtifact> artifacts) {
+        this(artifacts, new ResolutionReportImpl());
+    }
+
+    public MavenFormatStageImpl(final Collection<MavenResolvedArtifact> artifacts, final ResolutionReportImpl report) {
+        this(artifacts, report, null);
+    }
+
+    public MavenFormatStageImpl(final Collection<MavenResolvedArtifact> artifacts, final ResolutionReportImpl report,
+        final File localRepository) {
+        this(artifacts, report, localRepository, null);
+    }
+
+    private MavenFormatStageImpl(final Collection<MavenResolvedArtifact> artifacts, final ResolutionReportImpl report,
+        final File localRepository, final Executor executor) {
         assert artifacts != null : "Artifacts are required";
+        assert report != null : "Report is required";
         this.artifacts = artifacts;
+        this.report = report;
+        this.localRepository = localRepository;
+        this.executor = executor;
     }
 
     @Override
@@ -74,22 +116,136 @@ public class MavenFormatStageImpl implements MavenFormatStage {
         return asSingle(MavenResolvedArtifact.class);
     }
 
+    @Override
+    public File exportBundle(final File directory) throws IllegalArgumentException {
+        return OfflineBundle.export(artifacts, directory);
+    }
+
+    @Override
+    public ResolutionReport getResolutionReport() {
+        return report;
+    }
+
+    @Override
+    public MavenFormatStage inParallel() {
+        return inParallel(DefaultExecutor.INSTANCE);
+    }
+
+    @Override
+    public MavenFormatStage inParallel(final Executor executor) throws IllegalArgumentException {
+        Validate.notNull(executor, "Executor must not be null");
+        return new MavenFormatStageImpl(artifacts, report, localRepository, executor);
+    }
+
+    @Override
+    public MavenClassLoader asClassLoader() {
+        return asClassLoader(SecurityActions.getThreadContextClassLoader());
+    }
+
+    @Override
+    public MavenClassLoader asClassLoader(final ClassLoader parent) throws IllegalArgumentException {
+        Validate.notNull(parent, "Parent class loader must not be null");
+
+        final long start = System.nanoTime();
+        final MavenClassLoader loader = SharedClassLoaders.acquire(artifacts, parent);
+        report.record(Phase.FORMAT_PROCESSING, start);
+        return loader;
+    }
+
+    @Override
+    public MavenClassIndex asClassIndex() {
+        final long start = System.nanoTime();
+        final MavenClassIndex index = ClassIndex.build(artifacts, localRepository, executor);
+        report.record(Phase.FORMAT_PROCESSING, start);
+        return index;
+    }
+
     @Override
     public <RETURNTYPE> RETURNTYPE[] as(Class<RETURNTYPE> returnTypeClass) throws IllegalArgumentException,
             UnsupportedOperationException {
         Validate.notNull(returnTypeClass, "Return type class must not be null");
 
+        final long start = System.nanoTime();
         final FormatProcessor<? super MavenResolvedArtifact, RETURNTYPE> processor = FormatProcessors.find(
                 MavenResolvedArtifact.class, returnTypeClass);
 
+        final RETURNTYPE[] array = process(artifacts, processor, returnTypeClass, executor);
+        report.record(Phase.FORMAT_PROCESSING, start);
+        return array;
+    }
+
+    /**
+     * Formats artifacts by the processor, in parallel if an executor is specified and the processor is a
+     * {@link ConcurrentFormatProcessor}. Results are in the order of artifacts. Processors called from a thread of the
+     * default pool format artifacts in that thread, as waiting for tasks queued behind the caller could exhaust the pool.
+     *
+     * @param artifacts
+     * @param processor
+     * @param returnTypeClass
+     * @param executor
+     *        Executor running the processor, {@code null} to run it in the calling thread
+     * @return
+     */
+    static <RETURNTYPE> RETURNTYPE[] process(final Collection<MavenResolvedArtifact> artifacts,
+        final FormatProcessor<? super MavenResolvedArtifact, RETURNTYPE> processor,
+        final Class<RETURNTYPE> returnTypeClass, final Executor executor) {
+
         @SuppressWarnings("unchecked")
         final RETURNTYPE[] array = (RETURNTYPE[]) Array.newInstance(returnTypeClass, artifacts.size());
 
-        int i = 0;
-        for (final MavenResolvedArtifact artifact : artifacts) {
-            array[i++] = processor.process(artifact, returnTypeClass);
+        if (executor == null || artifacts.size() < 2 || !(processor instanceof ConcurrentFormatProcessor)
+            || (Thread.currentThread() instanceof PoolThread && executor == DefaultExecutor.INSTANCE)) {
+            int i = 0;
+            for (final MavenResolvedArtifact artifact : artifacts) {
+                array[i++] = processor.process(artifact, returnTypeClass);
+            }
+            return array;
+        }
+
+        final List<FutureTask<RETURNTYPE>> tasks = new ArrayList<FutureTask<RETURNTYPE>>(artifacts.size());
+        boolean completed = false;
+        try {
+            for (final MavenResolvedArtifact artifact : artifacts) {
+                final FutureTask<RETURNTYPE> task = new FutureTask<RETURNTYPE>(new Callable<RETURNTYPE>() {
+                    @Override
+                    public RETURNTYPE call() {
+                        return processor.process(artifact, returnTypeClass);
+                    }
+                });
+                tasks.add(task);
+                try {
+                    executor.execute(task);
+                } catch (final RejectedExecutionException e) {
+                    // saturated or shut down executor, do the work here
+                    task.run();
+                }
+            }
+
+            int i = 0;
+            for (final FutureTask<RETURNTYPE> task : tasks) {
+                array[i++] = task.get();
+            }
+            completed = true;
+            return array;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResolutionException("Interrupted while formatting artifacts as " + returnTypeClass.getName(), e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ResolutionException("Unable to format artifacts as " + returnTypeClass.getName(), cause);
+        } finally {
+            if (!completed) {
+                // artifacts not being processed yet are not worth the work anymore
+                for (final FutureTask<RETURNTYPE> task : tasks) {
+                    task.cancel(false);
+                }
+            }
         }
-        return array;
     }
 
     @Override
@@ -129,4 +285,39 @@ public class MavenFormatStageImpl implements MavenFormatStage {
         return array[0];
     }
 
+    /**
+     * Pool used by {@link MavenFormatStage#inParallel()}, created on first use. Threads are created with the context
+     * class loader of the resolver and without the access control context of the thread which happened to start them,
+     * so they keep no application {@link ClassLoader} reachable.
+     */
+    static final class DefaultExecutor {
+        static final ExecutorService INSTANCE = Executors.newFixedThreadPool(Runtime.getRuntime()
+            .availableProcessors(), new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                return AccessController.doPrivileged(new PrivilegedAction<Thread>() {
+                    @Override
+                    public Thread run() {
+                        final Thread thread = new PoolThread(runnable, "shrinkwrap-resolver-format-"
+                            + count.incrementAndGet());
+                        thread.setContextClassLoader(MavenFormatStageImpl.class.getClassLoader());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Thread of {@link DefaultExecutor}, recognized without initializing the pool
+     */
+    private static final class PoolThread extends Thread {
+        private PoolThread(final Runnable runnable, final String name) {
+            super(runnable, name);
+        }
+    }
+
 }
\ No newline at end of file
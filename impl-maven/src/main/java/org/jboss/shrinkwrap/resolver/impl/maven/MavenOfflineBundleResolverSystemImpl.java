@@ -0,0 +1,43 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.io.File;
+
+import org.jboss.shrinkwrap.resolver.api.maven.MavenOfflineBundleResolverSystem;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenOfflineBundleStage;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.Validate;
+
+/**
+ * Implementation of {@link MavenOfflineBundleResolverSystem}
+ */
+public class MavenOfflineBundleResolverSystemImpl implements MavenOfflineBundleResolverSystem {
+
+    @Override
+    public MavenOfflineBundleStage loadBundle(final File directory) throws IllegalArgumentException {
+        Validate.notNull(directory, "Bundle directory must be specified");
+        final File index = new File(directory, OfflineBundle.INDEX);
+        Validate.isReadable(index, "Directory " + directory.getAbsolutePath() + " does not contain a bundle");
+        return MavenOfflineBundleStageImpl.load(directory, index);
+    }
+
+    @Override
+    public MavenOfflineBundleStage loadBundle(final String path) throws IllegalArgumentException {
+        Validate.notNullOrEmpty(path, "Path to bundle directory must be specified");
+        return loadBundle(new File(path));
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.shrinkwrap.resolver.api.NoResolvedResultException;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenArtifactInfo;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenFormatStage;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenOfflineBundleStage;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenCoordinate;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenCoordinates;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.Validate;
+
+/**
+ * Implementation of {@link MavenOfflineBundleStage}. The index of the bundle is read once, lookups are done by the key
+ * of the node. Checksums of the bundled artifacts are verified the first time an artifact is resolved.
+ *
+ * @see OfflineBundle
+ */
+public class MavenOfflineBundleStageImpl implements MavenOfflineBundleStage {
+
+    private final Map<String, Node> nodes;
+    private final List<Node> bundled;
+
+    private MavenOfflineBundleStageImpl(final Map<String, Node> nodes, final List<Node> bundled) {
+        this.nodes = nodes;
+        this.bundled = bundled;
+    }
+
+    @Override
+    public MavenFormatStage resolve(final String... canonicalForms) throws IllegalArgumentException,
+        NoResolvedResultException {
+        final Set<Node> resolved = new LinkedHashSet<Node>();
+        final LinkedList<Node> queue = new LinkedList<Node>(lookup(canonicalForms));
+        final Set<Node> visited = new HashSet<Node>(queue);
+        while (!queue.isEmpty()) {
+            final Node node = queue.removeFirst();
+            if (node.file != null) {
+                resolved.add(node);
+            }
+            for (final String key : node.dependencies) {
+                final Node dependency = nodes.get(key);
+                if (dependency != null && visited.add(dependency)) {
+                    queue.add(dependency);
+                }
+            }
+        }
+        return toFormatStage(resolved);
+    }
+
+    @Override
+    public MavenFormatStage resolveWithoutTransitivity(final String... canonicalForms) throws IllegalArgumentException,
+        NoResolvedResultException {
+        return toFormatStage(new LinkedHashSet<Node>(lookup(canonicalForms)));
+    }
+
+    @Override
+    public MavenFormatStage importBundle() {
+        return toFormatStage(bundled);
+    }
+
+    private List<Node> lookup(final String... canonicalForms) throws IllegalArgumentException,
+        NoResolvedResultException {
+        Validate.notNullAndNoNullValues(canonicalForms, "Coordinates must be specified");
+        if (canonicalForms.length == 0) {
+            throw new IllegalArgumentException("At least one coordinate must be specified");
+        }
+        final List<Node> roots = new ArrayList<Node>(canonicalForms.length);
+        for (final String canonicalForm : canonicalForms) {
+            final MavenCoordinate coordinate = MavenCoordinates.createCoordinate(canonicalForm);
+            final Node node = nodes.get(OfflineBundle.keyOf(coordinate));
+            if (node == null || node.file == null) {
+                throw new NoResolvedResultException("Artifact " + canonicalForm + " is not present in the bundle");
+            }
+            if (!Validate.isNullOrEmpty(coordinate.getVersion())
+                && !coordinate.getVersion().equals(node.coordinate.getVersion())) {
+                throw new NoResolvedResultException("Artifact " + canonicalForm + " is not present in the bundle, "
+                    + "bundle contains version " + node.coordinate.getVersion());
+            }
+            roots.add(node);
+        }
+        return roots;
+    }
+
+    private MavenFormatStage toFormatStage(final Collection<Node> resolved) {
+        final List<MavenResolvedArtifact> artifacts = new ArrayList<MavenResolvedArtifact>(resolved.size());
+        for (final Node node : resolved) {
+            artifacts.add(node.asResolvedArtifact());
+        }
+        return new MavenFormatStageImpl(Collections.unmodifiableList(artifacts));
+    }
+
+    /**
+     * Reads index of a bundle
+     *
+     * @param directory
+     *            Bundle directory
+     * @param index
+     *            Index file
+     * @return
+     * @throws IllegalArgumentException
+     *             If the index could not be read or is malformed
+     */
+    static MavenOfflineBundleStageImpl load(final File directory, final File index) throws IllegalArgumentException {
+        final Map<String, Node> nodes = new HashMap<String, Node>();
+        final List<Node> bundled = new ArrayList<Node>();
+        try {
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(index), "UTF-8"));
+            try {
+                String line = reader.readLine();
+                if (!OfflineBundle.HEADER.equals(line)) {
+                    throw new IllegalArgumentException("File " + index.getAbsolutePath()
+                        + " is not an index of a bundle, header was " + line);
+                }
+                int lineNumber = 1;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (line.length() == 0) {
+                        continue;
+                    }
+                    final Node node = Node.parse(line, directory, nodes, index, lineNumber);
+                    nodes.put(node.key, node);
+                    if (node.file != null) {
+                        bundled.add(node);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (final IOException e) {
+            throw new IllegalArgumentException("Unable to read bundle index " + index.getAbsolutePath(), e);
+        }
+        return new MavenOfflineBundleStageImpl(nodes, Collections.unmodifiableList(bundled));
+    }
+
+    /**
+     * Node of the dependency graph recorded in the bundle, it materializes artifact information lazily
+     */
+    private static final class Node {
+        private final Map<String, Node> nodes;
+        private final String key;
+        private final MavenCoordinate coordinate;
+        private final String resolvedVersion;
+        private final ScopeType scope;
+        private final String[] dependencies;
+        private final File file;
+        private final String sha1;
+
+        private MavenArtifactInfo info;
+        private MavenResolvedArtifact artifact;
+
+        private Node(final Map<String, Node> nodes, final String[] columns, final File directory) {
+            this.nodes = nodes;
+            this.coordinate = MavenCoordinates.createCoordinate(columns[0]);
+            this.key = OfflineBundle.keyOf(coordinate);
+            this.resolvedVersion = columns[1];
+            this.scope = ScopeType.fromScopeType(columns[2]);
+            this.dependencies = columns[3].length() == 0 ? new String[0] : columns[3].split(" ");
+            this.file = columns[4].length() == 0 ? null : new File(directory, columns[4]);
+            this.sha1 = columns[5];
+        }
+
+        static Node parse(final String line, final File directory, final Map<String, Node> nodes, final File index,
+            final int lineNumber) throws IllegalArgumentException {
+            final String[] columns = line.split("\t", -1);
+            if (columns.length != OfflineBundle.COLUMNS) {
+                throw new IllegalArgumentException("Line " + lineNumber + " of bundle index " + index.getAbsolutePath()
+                    + " is malformed, expected " + OfflineBundle.COLUMNS + " tab separated values but got "
+                    + columns.length);
+            }
+            try {
+                return new Node(nodes, columns, directory);
+            } catch (final IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + " of bundle index " + index.getAbsolutePath()
+                    + " is malformed: " + e.getMessage(), e);
+            }
+        }
+
+        MavenResolvedArtifact asResolvedArtifact() {
+            if (artifact == null) {
+                verify();
+                artifact = new MavenResolvedArtifactImpl(coordinate, resolvedVersion, isSnapshot(), extension(), scope,
+                    file, dependencyInfos(new HashSet<Node>()));
+            }
+            return artifact;
+        }
+
+        private MavenArtifactInfo asInfo(final Set<Node> path) {
+            if (info == null) {
+                info = new MavenArtifactInfoImpl(coordinate, resolvedVersion, isSnapshot(), extension(), scope,
+                    dependencyInfos(path));
+            }
+            return info;
+        }
+
+        // graph in the bundle is flattened by key, so guard against cycles introduced by the flattening
+        private MavenArtifactInfo[] dependencyInfos(final Set<Node> path) {
+            path.add(this);
+            final List<MavenArtifactInfo> infos = new ArrayList<MavenArtifactInfo>(dependencies.length);
+            for (final String dependencyKey : dependencies) {
+                final Node dependency = nodes.get(dependencyKey);
+                if (dependency != null && !path.contains(dependency)) {
+                    infos.add(dependency.asInfo(path));
+                }
+            }
+            path.remove(this);
+            return infos.toArray(new MavenArtifactInfo[infos.size()]);
+        }
+
+        private void verify() {
+            final String actual;
+            try {
+                actual = OfflineBundle.sha1(file);
+            } catch (final IOException e) {
+                throw new IllegalStateException("Unable to read bundled artifact " + file.getAbsolutePath(), e);
+            }
+            if (!actual.equals(sha1)) {
+                throw new IllegalStateException("Bundled artifact " + file.getAbsolutePath()
+                    + " does not match its checksum, expected " + sha1 + " but was " + actual);
+            }
+        }
+
+        private boolean isSnapshot() {
+            return coordinate.getVersion().endsWith("SNAPSHOT");
+        }
+
+        private String extension() {
+            return coordinate.getPackaging().toString();
+        }
+    }
+}
@@ -32,7 +32,9 @@ import java.util.zip.ZipOutputStream;
 
 import org.jboss.shrinkwrap.resolver.api.maven.MavenArtifactInfo;
 import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
 import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenCoordinate;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.Checksums;
 import org.jboss.shrinkwrap.resolver.impl.maven.util.IOUtil;
 import org.jboss.shrinkwrap.resolver.impl.maven.util.Validate;
 import org.jboss.shrinkwrap.resolver.spi.format.FormatProcessor;
@@ -53,14 +55,19 @@ public class MavenResolvedArtifactImpl extends MavenArtifactInfoImpl implements
 
     private final File file;
 
-    private MavenResolvedArtifactImpl(MavenCoordinate mavenCoordinate, String resolvedVersion, boolean snapshotVersion,
-        String extension, File file, MavenArtifactInfo[] dependencies) {
-        super(mavenCoordinate, resolvedVersion, snapshotVersion, extension, dependencies);
+    // memoized checksums, computing them twice in a race is harmless
+    private volatile String sha1;
+    private volatile String md5;
+
+    MavenResolvedArtifactImpl(MavenCoordinate mavenCoordinate, String resolvedVersion, boolean snapshotVersion,
+        String extension, ScopeType scope, File file, MavenArtifactInfo[] dependencies) {
+        super(mavenCoordinate, resolvedVersion, snapshotVersion, extension, scope, dependencies);
         this.file = file;
     }
 
-    private MavenResolvedArtifactImpl(final Artifact artifact, final List<DependencyNode> children) {
-        super(artifact, children);
+    private MavenResolvedArtifactImpl(final Artifact artifact, final ScopeType scope,
+        final List<DependencyNode> children) {
+        super(artifact, scope, children);
         this.file = artifactToFile(artifact);
     }
 
@@ -72,8 +79,8 @@ public class MavenResolvedArtifactImpl extends MavenArtifactInfoImpl implements
      */
     static MavenResolvedArtifact fromArtifactResult(final ArtifactResult artifactResult) {
         final Artifact artifact = artifactResult.getArtifact();
-        final List<DependencyNode> children = artifactResult.getRequest().getDependencyNode().getChildren();
-        return new MavenResolvedArtifactImpl(artifact, children);
+        final DependencyNode node = artifactResult.getRequest().getDependencyNode();
+        return new MavenResolvedArtifactImpl(artifact, scopeOf(node), node.getChildren());
     }
 
     @Override
@@ -103,10 +110,43 @@ public class MavenResolvedArtifactImpl extends MavenArtifactInfoImpl implements
         return as(MavenResolvedArtifact.class);
     }
 
+    @Override
+    public String getSha1() throws IllegalStateException {
+        String checksum = sha1;
+        if (checksum == null) {
+            checksum = checksum(Checksums.SHA1);
+            sha1 = checksum;
+        }
+        return checksum;
+    }
+
+    @Override
+    public String getMd5() throws IllegalStateException {
+        String checksum = md5;
+        if (checksum == null) {
+            checksum = checksum(Checksums.MD5);
+            md5 = checksum;
+        }
+        return checksum;
+    }
+
+    private String checksum(final String algorithm) throws IllegalStateException {
+        final String stored = Checksums.read(file, algorithm);
+        if (stored != null) {
+            return stored;
+        }
+        try {
+            return Checksums.compute(file, algorithm);
+        } catch (final IOException e) {
+            throw new IllegalStateException("Unable to compute " + algorithm + " checksum of " + file.getAbsolutePath(),
+                e);
+        }
+    }
+
     @Override
     public String toString() {
         return "MavenResolvedArtifactImpl [mavenCoordinate=" + mavenCoordinate + ", resolvedVersion=" + resolvedVersion
-            + ", snapshotVersion=" + snapshotVersion + ", extension=" + extension + ", dependencies="
+            + ", snapshotVersion=" + snapshotVersion + ", extension=" + extension + ", scope=" + scope + ", dependencies="
             + Arrays.toString(dependencies) + "]";
     }
 
@@ -0,0 +1,95 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jboss.shrinkwrap.resolver.api.maven.MavenFormatStage;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenScopedResolution;
+import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.Validate;
+
+/**
+ * Implementation of {@link MavenScopedResolution}. Views keep the order of the resolved artifacts.
+ */
+public class MavenScopedResolutionImpl implements MavenScopedResolution {
+
+    private final Collection<MavenResolvedArtifact> artifacts;
+    private final ResolutionReportImpl report;
+    // null if the artifacts are not known to be in a local repository
+    private final File localRepository;
+
+    public MavenScopedResolutionImpl(final Collection<MavenResolvedArtifact> artifacts) {
+        this(artifacts, new ResolutionReportImpl(), null);
+    }
+
+    public MavenScopedResolutionImpl(final Collection<MavenResolvedArtifact> artifacts,
+        final ResolutionReportImpl report, final File localRepository) {
+        assert artifacts != null : "Artifacts are required";
+        assert report != null : "Report is required";
+        this.artifacts = artifacts;
+        this.report = report;
+        this.localRepository = localRepository;
+    }
+
+    @Override
+    public MavenFormatStage compileScope() {
+        return inScopes(EnumSet.of(ScopeType.COMPILE, ScopeType.PROVIDED, ScopeType.SYSTEM));
+    }
+
+    @Override
+    public MavenFormatStage runtimeScope() {
+        return inScopes(EnumSet.of(ScopeType.COMPILE, ScopeType.IMPORT, ScopeType.RUNTIME, ScopeType.SYSTEM));
+    }
+
+    @Override
+    public MavenFormatStage testScope() {
+        return new MavenFormatStageImpl(artifacts, report, localRepository);
+    }
+
+    @Override
+    public MavenFormatStage providedScope() {
+        return inScopes(EnumSet.of(ScopeType.PROVIDED));
+    }
+
+    @Override
+    public MavenFormatStage scopes(final ScopeType... scopes) throws IllegalArgumentException {
+        Validate.notNullAndNoNullValues(scopes, "Scopes must be specified");
+        if (scopes.length == 0) {
+            throw new IllegalArgumentException("At least one scope must be specified");
+        }
+        return inScopes(EnumSet.copyOf(Arrays.asList(scopes)));
+    }
+
+    private MavenFormatStage inScopes(final Set<ScopeType> scopes) {
+        final List<MavenResolvedArtifact> view = new ArrayList<MavenResolvedArtifact>(artifacts.size());
+        for (final MavenResolvedArtifact artifact : artifacts) {
+            if (scopes.contains(artifact.getScope())) {
+                view.add(artifact);
+            }
+        }
+        return new MavenFormatStageImpl(Collections.unmodifiableList(view), report, localRepository);
+    }
+}
@@ -29,6 +29,7 @@ import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
 import org.jboss.shrinkwrap.resolver.api.maven.MavenStrategyStage;
 import org.jboss.shrinkwrap.resolver.api.maven.MavenStrategyStageBase;
 import org.jboss.shrinkwrap.resolver.api.maven.PackagingType;
+import org.jboss.shrinkwrap.resolver.api.maven.ResolutionReport.Phase;
 import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
 import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependencies;
 import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependency;
@@ -100,17 +101,22 @@ public abstract class MavenStrategyStageBaseImpl<STRATEGYSTAGETYPE extends Maven
         // first, get dependencies specified for resolution in the session
         Validate.notEmpty(session.getDependenciesForResolution(), "No dependencies were set for resolution");
 
+        final ResolutionReportImpl report = session.newResolutionReport();
+        long start = System.nanoTime();
         final CollectRequest request = createCollectRequest(strategy);
+        start = report.record(Phase.CREATE_COLLECT_REQUEST, start);
 
-        final Collection<MavenResolvedArtifact> artifactResults = retrieveArtifacts(strategy, request);
+        final Collection<MavenResolvedArtifact> artifactResults = retrieveArtifacts(strategy, request, report);
+        start = report.record(Phase.RESOLUTION, start);
 
         final Collection<MavenResolvedArtifact> filteredArtifacts = filterArtifacts(artifactResults);
+        report.record(Phase.FILTER_ARTIFACTS, start);
 
         // Clear dependencies to be resolved (for the next request); we've already sent this request
         this.session.getDependenciesForResolution().clear();
 
         // Proceed to format stage
-        return this.createFormatStage(filteredArtifacts);
+        return this.createFormatStage(filteredArtifacts, report);
     }
 
     /**
@@ -124,23 +130,24 @@ public abstract class MavenStrategyStageBaseImpl<STRATEGYSTAGETYPE extends Maven
         final List<MavenDependency> prefilteredDependencies = preFilter(strategy.getPreResolutionFilters(),
             depsForResolution, depsForResolution);
         final List<MavenDependency> prefilteredDepsList = new ArrayList<MavenDependency>(prefilteredDependencies);
-        final List<MavenDependency> depManagement = new ArrayList<MavenDependency>(session.getDependencyManagement());
 
         final List<RemoteRepository> repos = session.getRemoteRepositories();
         return new CollectRequest(MavenConverter.asDependencies(prefilteredDepsList),
-            MavenConverter.asDependencies(depManagement), repos);
+            session.getDependencyManagement().asDependencies(), repos);
     }
 
     /**
      * Retrieve artifacts from Maven repository.
      * @param strategy
      * @param request
+     * @param report
      * @return
      */
     private Collection<MavenResolvedArtifact> retrieveArtifacts(final MavenResolutionStrategy strategy,
-        final CollectRequest request) {
+        final CollectRequest request, final ResolutionReportImpl report) {
         try {
-            final Collection<MavenResolvedArtifact> retrievedArtifacts = session.execute(request, strategy.getResolutionFilters());
+            final Collection<MavenResolvedArtifact> retrievedArtifacts = session.execute(request,
+                strategy.getResolutionFilters(), report);
             return Collections.unmodifiableCollection(retrievedArtifacts);
         } catch (DependencyResolutionException e) {
             Throwable cause = e.getCause();
@@ -249,8 +256,10 @@ public abstract class MavenStrategyStageBaseImpl<STRATEGYSTAGETYPE extends Maven
      * Creates a new {@link MavenFormatStage} instance for the current {@link MavenWorkingSession}
      *
      * @param filteredArtifacts Required
+     * @param report Report of the resolution which produced the artifacts; required
      * @return
      */
-    protected abstract FORMATSTAGETYPE createFormatStage(final Collection<MavenResolvedArtifact> filteredArtifacts);
+    protected abstract FORMATSTAGETYPE createFormatStage(final Collection<MavenResolvedArtifact> filteredArtifacts,
+        final ResolutionReportImpl report);
 
 }
@@ -47,13 +47,15 @@ public class MavenStrategyStageImpl extends MavenStrategyStageBaseImpl<MavenStra
     /**
      * {@inheritDoc}
      *
-     * @see org.jboss.shrinkwrap.resolver.impl.maven.MavenStrategyStageBaseImpl#createFormatStage(java.util.Collection)
+     * @see org.jboss.shrinkwrap.resolver.impl.maven.MavenStrategyStageBaseImpl#createFormatStage(java.util.Collection,
+     * org.jboss.shrinkwrap.resolver.impl.maven.ResolutionReportImpl)
      */
     @Override
-    protected MavenFormatStage createFormatStage(final Collection<MavenResolvedArtifact> filteredArtifacts)
-            throws IllegalArgumentException {
+    protected MavenFormatStage createFormatStage(final Collection<MavenResolvedArtifact> filteredArtifacts,
+            final ResolutionReportImpl report) throws IllegalArgumentException {
         assert filteredArtifacts != null : "filtered artifacts are required";
-        return new MavenFormatStageImpl(filteredArtifacts);
+        return new MavenFormatStageImpl(filteredArtifacts, report, getMavenWorkingSession()
+            .getLocalRepositoryDirectory());
     }
 
 }
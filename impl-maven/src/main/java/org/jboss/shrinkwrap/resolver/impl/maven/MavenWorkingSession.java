@@ -16,6 +16,7 @@
  */
 package org.jboss.shrinkwrap.resolver.impl.maven;
 
+import java.io.File;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
@@ -43,13 +44,13 @@ import org.sonatype.aether.resolution.DependencyResolutionException;
 public interface MavenWorkingSession {
 
     /**
-     * Gets a set af dependency declarations stored in version management. These dependency declarations are used to get
+     * Gets dependency declarations stored in version management. These dependency declarations are used to get
      * versions if none are specified in {@link MavenDependency#getAddress()} address and also affect transitive
      * dependency resolutions.
      *
-     * @return Set of defined {@link MavenDependency}s
+     * @return Defined {@link MavenDependency}s, indexed for lookups ignoring version
      */
-    Set<MavenDependency> getDependencyManagement();
+    DependencyManagementIndex getDependencyManagement();
 
     /**
      * Gets the {@link Set} of dependencies to be resolved for this session
@@ -84,8 +85,19 @@ public interface MavenWorkingSession {
      */
     MavenWorkingSession execute(SettingsBuildingRequest request) throws InvalidConfigurationFileException;
 
-    Collection<MavenResolvedArtifact> execute(CollectRequest request, MavenResolutionFilter[] filters)
-            throws DependencyResolutionException;
+    /**
+     * Resolves dependencies of the request.
+     *
+     * @param request
+     * Request to collect the dependency graph
+     * @param filters
+     * Filters of the resolved artifacts
+     * @param report
+     * Report of the resolution, transfers from remote repositories are recorded into it
+     * @return Resolved artifacts
+     */
+    Collection<MavenResolvedArtifact> execute(CollectRequest request, MavenResolutionFilter[] filters,
+            ResolutionReportImpl report) throws DependencyResolutionException;
 
     /**
      * Returns a list of remote repositories enabled from Maven settings. If an effective pom was loaded, and it
@@ -120,6 +132,21 @@ public interface MavenWorkingSession {
      */
     MavenWorkingSession regenerateSession();
 
+    /**
+     * Creates report of a new resolution. If a POM was loaded, its loading, including transfers from remote
+     * repositories, is recorded in the report, as in the report of any other resolution based on the POM.
+     *
+     * @return The report
+     */
+    ResolutionReportImpl newResolutionReport();
+
+    /**
+     * Gets base directory of the local repository of the session
+     *
+     * @return The directory
+     */
+    File getLocalRepositoryDirectory();
+
     /**
      * Gets registry of the known artifact types based on underlying session
      *
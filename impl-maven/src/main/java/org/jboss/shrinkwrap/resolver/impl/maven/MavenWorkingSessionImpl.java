@@ -26,6 +26,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -47,6 +48,7 @@ import org.apache.maven.settings.Settings;
 import org.apache.maven.settings.building.SettingsBuildingRequest;
 import org.jboss.shrinkwrap.resolver.api.InvalidConfigurationFileException;
 import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.api.maven.ResolutionReport;
 import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependency;
 import org.jboss.shrinkwrap.resolver.api.maven.filter.MavenResolutionFilter;
 import org.jboss.shrinkwrap.resolver.impl.maven.aether.ClasspathWorkspaceReader;
@@ -56,6 +58,8 @@ import org.jboss.shrinkwrap.resolver.impl.maven.convert.MavenConverter;
 import org.jboss.shrinkwrap.resolver.impl.maven.internal.MavenModelResolver;
 import org.jboss.shrinkwrap.resolver.impl.maven.internal.SettingsXmlProfileSelector;
 import org.jboss.shrinkwrap.resolver.impl.maven.logging.LogModelProblemCollector;
+import org.jboss.shrinkwrap.resolver.impl.maven.metrics.Phase;
+import org.jboss.shrinkwrap.resolver.impl.maven.metrics.ResolverMetrics;
 import org.sonatype.aether.RepositorySystemSession;
 import org.sonatype.aether.artifact.ArtifactTypeRegistry;
 import org.sonatype.aether.collection.CollectRequest;
@@ -63,6 +67,12 @@ import org.sonatype.aether.repository.Authentication;
 import org.sonatype.aether.repository.RemoteRepository;
 import org.sonatype.aether.resolution.ArtifactResult;
 import org.sonatype.aether.resolution.DependencyResolutionException;
+import org.sonatype.aether.transfer.AbstractTransferListener;
+import org.sonatype.aether.transfer.TransferEvent;
+import org.sonatype.aether.transfer.TransferListener;
+import org.sonatype.aether.transfer.TransferResource;
+import org.sonatype.aether.util.FilterRepositorySystemSession;
+import org.sonatype.aether.util.listener.ChainedTransferListener;
 import org.sonatype.aether.util.repository.DefaultMirrorSelector;
 
 /**
@@ -75,7 +85,7 @@ public class MavenWorkingSessionImpl implements MavenWorkingSession {
     /**
      * <code><dependencyManagement></code> metadata
      */
-    private final Set<MavenDependency> dependencyManagement;
+    private final DependencyManagementIndex dependencyManagement;
     /**
      * Dependencies for resolution during this session
      */
@@ -101,7 +111,23 @@ public class MavenWorkingSessionImpl implements MavenWorkingSession {
 
     private final List<RemoteRepository> remoteRepositories;
 
-    private boolean useMavenCentralRepository = true;
+    private volatile boolean useMavenCentralRepository = true;
+
+    /**
+     * Version of the inputs of {@link MavenWorkingSessionImpl#getRemoteRepositories()}, incremented each time settings,
+     * model, offline mode or Maven Central usage changes
+     */
+    private final AtomicLong remoteRepositoriesVersion = new AtomicLong();
+
+    /**
+     * Effective remote repositories computed for a given version of inputs
+     */
+    private volatile RemoteRepositoriesSnapshot remoteRepositoriesSnapshot;
+
+    /**
+     * Report of loading of the POM, included in reports of all resolutions based on it
+     */
+    private volatile ResolutionReportImpl pomReport;
 
     public MavenWorkingSessionImpl() {
         this.system = new MavenRepositorySystem();
@@ -110,13 +136,13 @@ public class MavenWorkingSessionImpl implements MavenWorkingSession {
         // get session to spare time
         this.session = system.getSession(settings);
         this.dependencies = new ArrayList<MavenDependency>();
-        this.dependencyManagement = new HashSet<MavenDependency>();
+        this.dependencyManagement = new DependencyManagementIndex();
         this.declaredDependencies = new HashSet<MavenDependency>();
         ((MavenRepositorySystemSession) session).setWorkspaceReader(new ClasspathWorkspaceReader());
     }
 
     @Override
-    public Set<MavenDependency> getDependencyManagement() {
+    public DependencyManagementIndex getDependencyManagement() {
         return dependencyManagement;
     }
 
@@ -139,9 +165,14 @@ public class MavenWorkingSessionImpl implements MavenWorkingSession {
     public MavenWorkingSession execute(ModelBuildingRequest request) throws InvalidConfigurationFileException {
         ModelBuilder builder = new DefaultModelBuilderFactory().newInstance();
         ModelBuildingResult result;
+        boolean built = false;
+        final ResolutionReportImpl loading = new ResolutionReportImpl();
+        final long start = System.nanoTime();
         try {
-            request.setModelResolver(new MavenModelResolver(system, session, getRemoteRepositories()));
+            request.setModelResolver(new MavenModelResolver(system, new ReportingSession(session, loading),
+                getRemoteRepositories()));
             result = builder.build(request);
+            built = true;
         }
         // wrap exception message
         catch (ModelBuildingException e) {
@@ -155,16 +186,21 @@ public class MavenWorkingSessionImpl implements MavenWorkingSession {
             }
 
             throw new InvalidConfigurationFileException(sb.toString());
+        } finally {
+            ResolverMetrics.getInstance().phase(Phase.MODEL_BUILDING).record(start, built);
         }
 
         // get and update model
         Model model = result.getEffectiveModel();
         this.model = model;
+        loading.record(ResolutionReport.Phase.LOAD_POM_METADATA, start);
+        this.pomReport = loading;
 
         // update model repositories
         for (Repository repository : model.getRepositories()) {
             remoteRepositories.add(MavenConverter.asRemoteRepository(repository));
         }
+        invalidateRemoteRepositories();
 
         return this;
     }
@@ -173,6 +209,7 @@ public class MavenWorkingSessionImpl implements MavenWorkingSession {
     public MavenWorkingSession execute(SettingsBuildingRequest request) throws InvalidConfigurationFileException {
         MavenSettingsBuilder builder = new MavenSettingsBuilder();
         this.settings = builder.buildSettings(request);
+        invalidateRemoteRepositories();
         // propagate offline settings from system properties
         return goOffline(settings.isOffline());
     }
@@ -184,9 +221,10 @@ public class MavenWorkingSessionImpl implements MavenWorkingSession {
      * org.jboss.shrinkwrap.resolver.api.maven.filter.MavenResolutionFilter[])
      */
     @Override
-    public Collection<MavenResolvedArtifact> execute(CollectRequest request, MavenResolutionFilter[] filters)
-        throws DependencyResolutionException {
-        final Collection<ArtifactResult> results = system.resolveDependencies(session, this, request, filters);
+    public Collection<MavenResolvedArtifact> execute(CollectRequest request, MavenResolutionFilter[] filters,
+        ResolutionReportImpl report) throws DependencyResolutionException {
+        final Collection<ArtifactResult> results = system.resolveDependencies(new ReportingSession(session, report),
+            this, request, filters);
         final Collection<MavenResolvedArtifact> resolvedArtifacts = new ArrayList<MavenResolvedArtifact>(results.size());
 
         for (final ArtifactResult result : results) {
@@ -206,11 +244,35 @@ public class MavenWorkingSessionImpl implements MavenWorkingSession {
         } else {
             settings.setOffline(value);
         }
+        invalidateRemoteRepositories();
         return this;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The effective list is computed once and reused until any of settings, model, offline mode or Maven Central usage
+     * changes.
+     *
+     * @see org.jboss.shrinkwrap.resolver.impl.maven.MavenWorkingSession#getRemoteRepositories()
+     */
     @Override
     public List<RemoteRepository> getRemoteRepositories() throws IllegalStateException {
+        // version must be read before computation, so any concurrent change makes this snapshot stale
+        final long version = remoteRepositoriesVersion.get();
+        RemoteRepositoriesSnapshot snapshot = remoteRepositoriesSnapshot;
+        if (snapshot == null || snapshot.version != version) {
+            snapshot = new RemoteRepositoriesSnapshot(version, computeRemoteRepositories());
+            remoteRepositoriesSnapshot = snapshot;
+        }
+        return new ArrayList<RemoteRepository>(snapshot.repositories);
+    }
+
+    private void invalidateRemoteRepositories() {
+        remoteRepositoriesVersion.incrementAndGet();
+    }
+
+    private List<RemoteRepository> computeRemoteRepositories() throws IllegalStateException {
         // disable repositories if working offline
         if (settings.isOffline()) {
             log.log(Level.FINE, "No remote repositories will be available, working in offline mode");
@@ -337,11 +399,26 @@ public class MavenWorkingSessionImpl implements MavenWorkingSession {
         return this;
     }
 
+    @Override
+    public ResolutionReportImpl newResolutionReport() {
+        final ResolutionReportImpl report = new ResolutionReportImpl();
+        final ResolutionReportImpl loading = pomReport;
+        if (loading != null) {
+            report.include(loading);
+        }
+        return report;
+    }
+
     @Override
     public List<Profile> getSettingsDefinedProfiles() {
         return MavenConverter.asProfiles(settings.getProfiles());
     }
 
+    @Override
+    public File getLocalRepositoryDirectory() {
+        return session.getLocalRepository().getBasedir();
+    }
+
     @Override
     public ArtifactTypeRegistry getArtifactTypeRegistry() {
         return session.getArtifactTypeRegistry();
@@ -353,6 +430,7 @@ public class MavenWorkingSessionImpl implements MavenWorkingSession {
             log.finer("Set offline mode to: " + offline);
         }
         this.settings.setOffline(offline);
+        invalidateRemoteRepositories();
     }
 
     /**
@@ -379,5 +457,56 @@ public class MavenWorkingSessionImpl implements MavenWorkingSession {
             log.finest("Disabling Maven Central");
         }
         this.useMavenCentralRepository = false;
+        invalidateRemoteRepositories();
+    }
+
+    /**
+     * Immutable list of effective remote repositories together with the version of inputs it was computed from
+     */
+    private static final class RemoteRepositoriesSnapshot {
+
+        private final long version;
+        private final List<RemoteRepository> repositories;
+
+        RemoteRepositoriesSnapshot(final long version, final List<RemoteRepository> repositories) {
+            this.version = version;
+            this.repositories = Collections.unmodifiableList(repositories);
+        }
+    }
+
+    /**
+     * Session recording transfers into a report, in addition to notifying the transfer listener of the session, so
+     * concurrent resolutions of the same session are reported separately
+     */
+    private static final class ReportingSession extends FilterRepositorySystemSession {
+        private final TransferListener transferListener;
+
+        ReportingSession(final RepositorySystemSession session, final ResolutionReportImpl report) {
+            super(session);
+            this.transferListener = ChainedTransferListener.newInstance(session.getTransferListener(),
+                new AbstractTransferListener() {
+                    @Override
+                    public void transferSucceeded(final TransferEvent event) {
+                        record(event, true);
+                    }
+
+                    @Override
+                    public void transferFailed(final TransferEvent event) {
+                        record(event, false);
+                    }
+
+                    private void record(final TransferEvent event, final boolean succeeded) {
+                        final TransferResource resource = event.getResource();
+                        report.recordTransfer(resource.getResourceName(), resource.getRepositoryUrl(),
+                            event.getTransferredBytes(), System.currentTimeMillis()
+                                - resource.getTransferStartTime(), succeeded);
+                    }
+                });
+        }
+
+        @Override
+        public TransferListener getTransferListener() {
+            return transferListener;
+        }
     }
 }
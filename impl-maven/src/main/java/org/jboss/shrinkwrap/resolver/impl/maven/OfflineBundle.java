@@ -0,0 +1,209 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jboss.shrinkwrap.resolver.api.maven.MavenArtifactInfo;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenCoordinate;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.Checksums;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.IOUtil;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.Validate;
+
+/**
+ * Layout of an offline bundle and its export.
+ *
+ * A bundle is a directory containing artifacts and their POM files in Maven repository layout and an index file. The
+ * index starts with a header line, each following line represents one node of the dependency graph with tab separated
+ * values:
+ *
+ * <ul>
+ * <li>canonical form of the coordinate</li>
+ * <li>resolved version</li>
+ * <li>scope</li>
+ * <li>space separated keys of the dependencies</li>
+ * <li>path of the artifact relative to the bundle, empty for nodes which were not resolved</li>
+ * <li>SHA-1 checksum of the artifact</li>
+ * <li>path of the POM file relative to the bundle, empty if the POM file was not available</li>
+ * <li>SHA-1 checksum of the POM file</li>
+ * </ul>
+ *
+ * Nodes are identified by a key made of groupId, artifactId, packaging and classifier, as there is a single version of
+ * each artifact in a resolved graph.
+ */
+final class OfflineBundle {
+
+    static final String INDEX = "bundle.index";
+
+    static final String HEADER = "# shrinkwrap-resolver offline bundle 1";
+
+    static final int COLUMNS = 8;
+
+    private OfflineBundle() {
+        throw new UnsupportedOperationException("No instantiation");
+    }
+
+    /**
+     * Gets key of the node in the bundle
+     *
+     * @param coordinate
+     * @return
+     */
+    static String keyOf(final MavenCoordinate coordinate) {
+        final StringBuilder sb = new StringBuilder(coordinate.getGroupId()).append(':')
+            .append(coordinate.getArtifactId()).append(':').append(coordinate.getPackaging().toString()).append(':');
+        if (coordinate.getClassifier() != null) {
+            sb.append(coordinate.getClassifier());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Exports artifacts into a bundle
+     *
+     * @param artifacts
+     *            Resolved artifacts
+     * @param directory
+     *            Bundle directory
+     * @return The index file
+     * @throws IllegalArgumentException
+     *             If the directory is not specified or the bundle could not be written
+     */
+    static File export(final Collection<MavenResolvedArtifact> artifacts, final File directory)
+        throws IllegalArgumentException {
+        Validate.notNull(directory, "Bundle directory must be specified");
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("Unable to create bundle directory " + directory.getAbsolutePath());
+        }
+
+        // resolved artifacts go first so they keep their order, the rest of the graph follows
+        final Map<String, MavenArtifactInfo> nodes = new LinkedHashMap<String, MavenArtifactInfo>();
+        for (final MavenResolvedArtifact artifact : artifacts) {
+            final String key = keyOf(artifact.getCoordinate());
+            if (!nodes.containsKey(key)) {
+                nodes.put(key, artifact);
+            }
+        }
+        for (final MavenResolvedArtifact artifact : artifacts) {
+            collect(artifact.getDependencies(), nodes);
+        }
+
+        final File index = new File(directory, INDEX);
+        try {
+            final Writer writer = new OutputStreamWriter(new FileOutputStream(index), "UTF-8");
+            try {
+                writer.write(HEADER);
+                writer.write('\n');
+                for (final MavenArtifactInfo node : nodes.values()) {
+                    writeNode(writer, node, directory);
+                }
+            } finally {
+                writer.close();
+            }
+        } catch (final IOException e) {
+            throw new IllegalArgumentException("Unable to export bundle to " + directory.getAbsolutePath(), e);
+        }
+        return index;
+    }
+
+    /**
+     * Computes SHA-1 checksum of a file
+     *
+     * @param file
+     * @return Checksum as a lowercase hexadecimal string
+     * @throws IOException
+     *             If the file could not be read
+     */
+    static String sha1(final File file) throws IOException {
+        return Checksums.compute(file, Checksums.SHA1);
+    }
+
+    private static void collect(final MavenArtifactInfo[] dependencies, final Map<String, MavenArtifactInfo> nodes) {
+        for (final MavenArtifactInfo dependency : dependencies) {
+            final String key = keyOf(dependency.getCoordinate());
+            if (!nodes.containsKey(key)) {
+                nodes.put(key, dependency);
+                collect(dependency.getDependencies(), nodes);
+            }
+        }
+    }
+
+    private static void writeNode(final Writer writer, final MavenArtifactInfo node, final File directory)
+        throws IOException {
+        final MavenCoordinate coordinate = node.getCoordinate();
+        writer.write(coordinate.toCanonicalForm());
+        writer.write('\t');
+        writer.write(node.getResolvedVersion());
+        writer.write('\t');
+        writer.write(node.getScope().toString());
+        writer.write('\t');
+        final MavenArtifactInfo[] dependencies = node.getDependencies();
+        for (int i = 0; i < dependencies.length; i++) {
+            if (i > 0) {
+                writer.write(' ');
+            }
+            writer.write(keyOf(dependencies[i].getCoordinate()));
+        }
+
+        final File file = node instanceof MavenResolvedArtifact ? ((MavenResolvedArtifact) node).asFile() : null;
+        if (file == null) {
+            writer.write("\t\t\t\t\n");
+            return;
+        }
+
+        final String location = coordinate.getGroupId().replace('.', '/') + '/' + coordinate.getArtifactId() + '/'
+            + coordinate.getVersion() + '/';
+        writer.write('\t');
+        writer.write(location + file.getName());
+        writer.write('\t');
+        writer.write(copy(file, new File(directory, location + file.getName())));
+
+        final File pom = new File(file.getParentFile(), coordinate.getArtifactId() + '-' + node.getResolvedVersion()
+            + ".pom");
+        writer.write('\t');
+        if (pom.isFile() && !pom.equals(file)) {
+            writer.write(location + pom.getName());
+            writer.write('\t');
+            writer.write(copy(pom, new File(directory, location + pom.getName())));
+        } else {
+            writer.write('\t');
+        }
+        writer.write('\n');
+    }
+
+    private static String copy(final File source, final File target) throws IOException {
+        if (!target.getParentFile().isDirectory() && !target.getParentFile().mkdirs()) {
+            throw new IOException("Unable to create directory " + target.getParentFile().getAbsolutePath());
+        }
+        final MessageDigest digest = Checksums.digest(Checksums.SHA1);
+        final OutputStream out = new FileOutputStream(target);
+        IOUtil.copyWithClose(new DigestInputStream(new FileInputStream(source), digest), out);
+        return Checksums.toHex(digest.digest());
+    }
+}
@@ -18,7 +18,8 @@ package org.jboss.shrinkwrap.resolver.impl.maven;
 
 import java.text.MessageFormat;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.logging.Level;
@@ -26,9 +27,12 @@ import java.util.logging.Logger;
 
 import org.jboss.shrinkwrap.resolver.api.ResolutionException;
 import org.jboss.shrinkwrap.resolver.api.maven.MavenFormatStage;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenScopedResolution;
 import org.jboss.shrinkwrap.resolver.api.maven.MavenStrategyStageBase;
 import org.jboss.shrinkwrap.resolver.api.maven.PomEquippedResolveStage;
 import org.jboss.shrinkwrap.resolver.api.maven.PomEquippedResolveStageBase;
+import org.jboss.shrinkwrap.resolver.api.maven.ResolutionReport;
 import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
 import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependency;
 import org.jboss.shrinkwrap.resolver.api.maven.filter.MavenResolutionFilter;
@@ -119,6 +123,27 @@ public abstract class PomEquippedResolveStageBaseImpl<EQUIPPEDRESOLVESTAGETYPE e
         return importAnyDependencies(combined);
     }
 
+    @Override
+    public final MavenScopedResolution importDependenciesByScope() {
+        return importDependenciesByScope(AcceptAllStrategy.INSTANCE);
+    }
+
+    @Override
+    public final MavenScopedResolution importDependenciesByScope(final MavenResolutionStrategy strategy)
+        throws IllegalArgumentException {
+
+        Validate.notNull(strategy, "Specified strategy for importing dependencies by scope must not be null");
+
+        addScopedDependencies(ScopeType.values());
+        final FORMATSTAGETYPE stage = importAnyDependencies(strategy);
+        final MavenResolvedArtifact[] artifacts = stage.asResolvedArtifact();
+        // views share report of the resolution
+        final ResolutionReport report = stage.getResolutionReport();
+        return new MavenScopedResolutionImpl(Collections.unmodifiableList(Arrays.asList(artifacts)),
+            report instanceof ResolutionReportImpl ? (ResolutionReportImpl) report : new ResolutionReportImpl(),
+            getMavenWorkingSession().getLocalRepositoryDirectory());
+    }
+
     private FORMATSTAGETYPE importAnyDependencies(final MavenResolutionStrategy strategy) {
         // resolve
         return this.createStrategyStage().using(strategy);
@@ -157,23 +182,13 @@ public abstract class PomEquippedResolveStageBaseImpl<EQUIPPEDRESOLVESTAGETYPE e
         // is not able to infer anything, it was not configured
         if (Validate.isNullOrEmpty(resolvedVersion)) {
 
-            // version is ignore here, so we have to iterate to get the dependency we are looking for
-            if (session.getDependencyManagement().contains(dependency)) {
-
-                // get the dependency from internal dependencyManagement
-                MavenDependency resolved = null;
-                Iterator<MavenDependency> it = session.getDependencyManagement().iterator();
-                while (it.hasNext()) {
-                    resolved = it.next();
-                    if (resolved.equals(dependency)) {
-                        break;
-                    }
-                }
+            // version is ignored by the lookup
+            final MavenDependency resolved = session.getDependencyManagement().get(dependency);
+            if (resolved != null) {
                 // we have resolved a version from dependency management
                 resolvedVersion = resolved.getVersion();
-                log.log(Level.FINE, "Resolved version {} from the POM file for the artifact {}", new Object[] {
+                log.log(Level.FINE, "Resolved version {0} from the POM file for the artifact {1}", new Object[] {
                     resolved.getVersion(), dependency.toCanonicalForm() });
-
             }
         }
 
@@ -0,0 +1,256 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.jboss.shrinkwrap.resolver.api.maven.ResolutionReport;
+
+/**
+ * Implementation of {@link ResolutionReport}, recording phases and transfers of a resolution as they happen. Recording
+ * is thread safe, as artifacts are downloaded concurrently.
+ */
+public class ResolutionReportImpl implements ResolutionReport {
+
+    private static final int DEFAULT_LIMIT = 5;
+
+    private final AtomicLongArray phaseNanos = new AtomicLongArray(Phase.values().length);
+    private final List<TransferImpl> transfers = Collections.synchronizedList(new ArrayList<TransferImpl>());
+
+    /**
+     * Adds time spent in a phase
+     *
+     * @param phase
+     *        The phase
+     * @param startNanos
+     *        Value of {@link System#nanoTime()} at the start of the phase
+     * @return Value of {@link System#nanoTime()} at the end of the phase, so it can start the next phase
+     */
+    public long record(final Phase phase, final long startNanos) {
+        final long end = System.nanoTime();
+        phaseNanos.addAndGet(phase.ordinal(), end - startNanos);
+        return end;
+    }
+
+    /**
+     * Records a transfer from a remote repository
+     *
+     * @param resourceName
+     * @param repositoryUrl
+     * @param bytes
+     * @param millis
+     * @param succeeded
+     */
+    public void recordTransfer(final String resourceName, final String repositoryUrl, final long bytes,
+        final long millis, final boolean succeeded) {
+        transfers.add(new TransferImpl(resourceName, repositoryUrl, Math.max(0, bytes), Math.max(0, millis),
+            succeeded));
+    }
+
+    /**
+     * Adds phases and transfers of another report
+     *
+     * @param other
+     */
+    public void include(final ResolutionReportImpl other) {
+        for (int i = 0; i < phaseNanos.length(); i++) {
+            phaseNanos.addAndGet(i, other.phaseNanos.get(i));
+        }
+        transfers.addAll(other.transfers());
+    }
+
+    @Override
+    public long getPhaseMillis(final Phase phase) {
+        return phaseNanos.get(phase.ordinal()) / 1000000L;
+    }
+
+    @Override
+    public long getTotalMillis() {
+        long total = 0;
+        for (int i = 0; i < phaseNanos.length(); i++) {
+            total += phaseNanos.get(i);
+        }
+        return total / 1000000L;
+    }
+
+    @Override
+    public int getRemoteRequests() {
+        return transfers.size();
+    }
+
+    @Override
+    public long getBytesDownloaded() {
+        long bytes = 0;
+        for (final Transfer transfer : transfers()) {
+            bytes += transfer.getBytes();
+        }
+        return bytes;
+    }
+
+    @Override
+    public List<Transfer> getSlowestArtifacts(final int limit) {
+        final List<Transfer> slowest = new ArrayList<Transfer>(transfers());
+        Collections.sort(slowest, new Comparator<Transfer>() {
+            @Override
+            public int compare(final Transfer o1, final Transfer o2) {
+                return o1.getMillis() < o2.getMillis() ? 1 : (o1.getMillis() == o2.getMillis() ? 0 : -1);
+            }
+        });
+        return Collections.unmodifiableList(slowest.subList(0, Math.min(Math.max(0, limit), slowest.size())));
+    }
+
+    @Override
+    public List<RepositorySummary> getSlowestRepositories(final int limit) {
+        final Map<String, RepositorySummaryImpl> summaries = new LinkedHashMap<String, RepositorySummaryImpl>();
+        for (final Transfer transfer : transfers()) {
+            RepositorySummaryImpl summary = summaries.get(transfer.getRepositoryUrl());
+            if (summary == null) {
+                summary = new RepositorySummaryImpl(transfer.getRepositoryUrl());
+                summaries.put(transfer.getRepositoryUrl(), summary);
+            }
+            summary.add(transfer);
+        }
+
+        final List<RepositorySummary> slowest = new ArrayList<RepositorySummary>(summaries.values());
+        Collections.sort(slowest, new Comparator<RepositorySummary>() {
+            @Override
+            public int compare(final RepositorySummary o1, final RepositorySummary o2) {
+                return o1.getMillis() < o2.getMillis() ? 1 : (o1.getMillis() == o2.getMillis() ? 0 : -1);
+            }
+        });
+        return Collections.unmodifiableList(slowest.subList(0, Math.min(Math.max(0, limit), slowest.size())));
+    }
+
+    private List<TransferImpl> transfers() {
+        synchronized (transfers) {
+            return new ArrayList<TransferImpl>(transfers);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("Resolution took ").append(getTotalMillis()).append(" ms");
+        for (final Phase phase : Phase.values()) {
+            sb.append("\n  ").append(phase).append(": ").append(getPhaseMillis(phase)).append(" ms");
+        }
+        sb.append("\n  remote requests: ").append(getRemoteRequests()).append(", downloaded ")
+            .append(getBytesDownloaded()).append(" B");
+        for (final Transfer transfer : getSlowestArtifacts(DEFAULT_LIMIT)) {
+            sb.append("\n  ").append(transfer);
+        }
+        for (final RepositorySummary repository : getSlowestRepositories(DEFAULT_LIMIT)) {
+            sb.append("\n  ").append(repository);
+        }
+        return sb.toString();
+    }
+
+    private static final class TransferImpl implements Transfer {
+        private final String resourceName;
+        private final String repositoryUrl;
+        private final long bytes;
+        private final long millis;
+        private final boolean succeeded;
+
+        TransferImpl(final String resourceName, final String repositoryUrl, final long bytes, final long millis,
+            final boolean succeeded) {
+            this.resourceName = resourceName;
+            this.repositoryUrl = repositoryUrl;
+            this.bytes = bytes;
+            this.millis = millis;
+            this.succeeded = succeeded;
+        }
+
+        @Override
+        public String getResourceName() {
+            return resourceName;
+        }
+
+        @Override
+        public String getRepositoryUrl() {
+            return repositoryUrl;
+        }
+
+        @Override
+        public long getBytes() {
+            return bytes;
+        }
+
+        @Override
+        public long getMillis() {
+            return millis;
+        }
+
+        @Override
+        public boolean isSucceeded() {
+            return succeeded;
+        }
+
+        @Override
+        public String toString() {
+            return resourceName + " from " + repositoryUrl + ": " + millis + " ms, " + bytes + " B"
+                + (succeeded ? "" : ", failed");
+        }
+    }
+
+    private static final class RepositorySummaryImpl implements RepositorySummary {
+        private final String repositoryUrl;
+        private int requests;
+        private long bytes;
+        private long millis;
+
+        RepositorySummaryImpl(final String repositoryUrl) {
+            this.repositoryUrl = repositoryUrl;
+        }
+
+        void add(final Transfer transfer) {
+            requests++;
+            bytes += transfer.getBytes();
+            millis += transfer.getMillis();
+        }
+
+        @Override
+        public String getRepositoryUrl() {
+            return repositoryUrl;
+        }
+
+        @Override
+        public int getRequests() {
+            return requests;
+        }
+
+        @Override
+        public long getBytes() {
+            return bytes;
+        }
+
+        @Override
+        public long getMillis() {
+            return millis;
+        }
+
+        @Override
+        public String toString() {
+            return repositoryUrl + ": " + requests + " requests, " + millis + " ms, " + bytes + " B";
+        }
+    }
+}
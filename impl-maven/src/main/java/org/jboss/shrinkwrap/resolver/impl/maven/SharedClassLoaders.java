@@ -0,0 +1,209 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jboss.shrinkwrap.resolver.api.maven.MavenClassLoader;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+
+/**
+ * Registry of {@link URLClassLoader}s of resolved artifacts shared by all {@link MavenClassLoader}s of the same artifact
+ * files in the same order with the same parent. Files are identified by canonical path, size and modification time.
+ *
+ * Every {@link MavenClassLoader} holds a reference of the shared loader and delegates to it; the shared loader is removed
+ * and closed once the last reference is released.
+ */
+final class SharedClassLoaders {
+    private static final Logger log = Logger.getLogger(SharedClassLoaders.class.getName());
+
+    private static final Map<Key, Shared> LOADERS = new HashMap<Key, Shared>();
+
+    /**
+     * No instantiation
+     */
+    private SharedClassLoaders() {
+        throw new UnsupportedOperationException("No instantiation");
+    }
+
+    /**
+     * Gets a new loader of the artifacts, backed by a shared loader
+     *
+     * @param artifacts
+     * @param parent
+     * @return
+     * @throws IllegalArgumentException If an artifact was not resolved to a file
+     */
+    static MavenClassLoader acquire(final Collection<MavenResolvedArtifact> artifacts, final ClassLoader parent)
+        throws IllegalArgumentException {
+        final List<File> files = new ArrayList<File>(artifacts.size());
+        for (final MavenResolvedArtifact artifact : artifacts) {
+            final File file = artifact.asFile();
+            if (file == null) {
+                throw new IllegalArgumentException("Artifact " + artifact.getCoordinate() + " was not resolved");
+            }
+            files.add(file);
+        }
+
+        final Key key = new Key(files, parent);
+        synchronized (LOADERS) {
+            Shared shared = LOADERS.get(key);
+            if (shared == null) {
+                shared = new Shared(key, toUrls(files), parent);
+                LOADERS.put(key, shared);
+            }
+            shared.references++;
+            return new Handle(shared);
+        }
+    }
+
+    /**
+     * Gets number of shared loaders in use
+     *
+     * @return
+     */
+    static int size() {
+        synchronized (LOADERS) {
+            return LOADERS.size();
+        }
+    }
+
+    private static void release(final Shared shared) {
+        synchronized (LOADERS) {
+            if (--shared.references > 0) {
+                return;
+            }
+            LOADERS.remove(shared.key);
+        }
+        shared.closeFiles();
+    }
+
+    private static URL[] toUrls(final List<File> files) {
+        final URL[] urls = new URL[files.size()];
+        int i = 0;
+        for (final File file : files) {
+            try {
+                urls[i++] = file.toURI().toURL();
+            } catch (final MalformedURLException e) {
+                throw new IllegalArgumentException("Unable to convert " + file.getAbsolutePath() + " to URL", e);
+            }
+        }
+        return urls;
+    }
+
+    private static final class Shared extends URLClassLoader {
+        private final Key key;
+        // guarded by LOADERS
+        private int references;
+
+        private Shared(final Key key, final URL[] urls, final ClassLoader parent) {
+            super(urls, parent);
+            this.key = key;
+        }
+
+        /**
+         * Closes files opened by the loader, possible since Java 7 only
+         */
+        private void closeFiles() {
+            try {
+                final Method close = URLClassLoader.class.getMethod("close");
+                close.invoke(this);
+            } catch (final NoSuchMethodException e) {
+                // Java 6, files are closed once the loader is garbage collected
+            } catch (final Exception e) {
+                log.log(Level.FINE, "Unable to close class loader of " + key.files, e);
+            }
+        }
+    }
+
+    private static final class Handle extends MavenClassLoader {
+        private final Shared shared;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Handle(final Shared shared) {
+            super(shared);
+            this.shared = shared;
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                release(shared);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "MavenClassLoader " + shared.key.files;
+        }
+    }
+
+    private static final class Key {
+        private final List<String> files;
+        private final ClassLoader parent;
+        private final int hashCode;
+
+        private Key(final List<File> files, final ClassLoader parent) {
+            this.files = new ArrayList<String>(files.size());
+            for (final File file : files) {
+                this.files.add(identity(file));
+            }
+            this.parent = parent;
+            this.hashCode = 31 * this.files.hashCode() + System.identityHashCode(parent);
+        }
+
+        private static String identity(final File file) {
+            String path;
+            try {
+                path = file.getCanonicalPath();
+            } catch (final IOException e) {
+                path = file.getAbsolutePath();
+            }
+            return path + "@" + file.length() + "@" + file.lastModified();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return parent == other.parent && files.equals(other.files);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
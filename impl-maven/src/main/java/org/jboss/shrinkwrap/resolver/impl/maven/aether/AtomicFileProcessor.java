@@ -0,0 +1,137 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.aether;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import org.sonatype.aether.spi.io.FileProcessor;
+
+/**
+ * {@link FileProcessor} which never exposes partially written files. Content is written into a temporary file in the
+ * target directory which is then renamed to the target, so other processes sharing the local repository see either no
+ * file or the complete one.
+ */
+public class AtomicFileProcessor implements FileProcessor {
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    @Override
+    public boolean mkdirs(final File directory) {
+        if (directory == null) {
+            return false;
+        }
+        // another process might have created the directory meanwhile
+        return directory.mkdirs() || directory.isDirectory();
+    }
+
+    @Override
+    public void write(final File target, final String data) throws IOException {
+        final File temp = createTempFile(target);
+        try {
+            final OutputStream out = new FileOutputStream(temp);
+            try {
+                if (data != null) {
+                    out.write(data.getBytes("UTF-8"));
+                }
+            } finally {
+                out.close();
+            }
+            rename(temp, target);
+        } finally {
+            temp.delete();
+        }
+    }
+
+    @Override
+    public long copy(final File source, final File target, final ProgressListener listener) throws IOException {
+        final File temp = createTempFile(target);
+        try {
+            final long total = copyContent(source, temp, listener);
+            rename(temp, target);
+            return total;
+        } finally {
+            temp.delete();
+        }
+    }
+
+    @Override
+    public void move(final File source, final File target) throws IOException {
+        if (source.renameTo(target)) {
+            return;
+        }
+        // source is on a different file system or target cannot be replaced in place
+        copy(source, target, null);
+        target.setLastModified(source.lastModified());
+        source.delete();
+    }
+
+    private File createTempFile(final File target) throws IOException {
+        final File directory = target.getAbsoluteFile().getParentFile();
+        if (!mkdirs(directory)) {
+            throw new IOException("Unable to create directory " + directory.getAbsolutePath());
+        }
+        return File.createTempFile(target.getName() + ".", TEMP_SUFFIX, directory);
+    }
+
+    private static void rename(final File temp, final File target) throws IOException {
+        if (temp.renameTo(target)) {
+            return;
+        }
+        // platforms which do not replace existing files on rename
+        if (target.delete() && temp.renameTo(target)) {
+            return;
+        }
+        throw new IOException("Unable to rename " + temp.getAbsolutePath() + " to " + target.getAbsolutePath());
+    }
+
+    private static long copyContent(final File source, final File target, final ProgressListener listener)
+        throws IOException {
+        final InputStream in = new FileInputStream(source);
+        try {
+            final OutputStream out = new FileOutputStream(target);
+            try {
+                final ByteBuffer buffer = ByteBuffer.allocate(32 * 1024);
+                final byte[] array = buffer.array();
+                long total = 0;
+                int read;
+                while ((read = in.read(array)) >= 0) {
+                    if (read == 0) {
+                        continue;
+                    }
+                    out.write(array, 0, read);
+                    total += read;
+                    if (listener != null) {
+                        buffer.rewind();
+                        buffer.limit(read);
+                        listener.progressed(buffer);
+                    }
+                }
+                return total;
+            } finally {
+                out.close();
+            }
+        } finally {
+            in.close();
+        }
+    }
+}
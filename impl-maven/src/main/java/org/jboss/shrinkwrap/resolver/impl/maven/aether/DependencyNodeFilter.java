@@ -0,0 +1,42 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.aether;
+
+import java.util.List;
+
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependency;
+import org.jboss.shrinkwrap.resolver.api.maven.filter.MavenResolutionFilter;
+import org.sonatype.aether.graph.Dependency;
+
+/**
+ * A {@link MavenResolutionFilter} which is able to evaluate Aether {@link Dependency} directly. Such filters are called by
+ * {@link ResolutionFilterCompiler} without converting each dependency graph node to a {@link MavenDependency} first.
+ */
+public interface DependencyNodeFilter extends MavenResolutionFilter {
+
+    /**
+     * Returns whether or not the given {@link Dependency} should be accepted by this filter. The result must be the same
+     * as if {@link MavenResolutionFilter#accepts(MavenDependency, List)} was called with a converted dependency.
+     *
+     * @param dependency
+     *        The Aether dependency of a graph node, never {@code null}
+     * @param dependenciesForResolution
+     *        Dependencies explicitly specified for resolution
+     * @return {@code true} if the dependency passes the filter
+     */
+    boolean accepts(Dependency dependency, List<MavenDependency> dependenciesForResolution);
+}
@@ -0,0 +1,172 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.aether;
+
+import java.io.File;
+
+import org.sonatype.aether.RepositorySystemSession;
+import org.sonatype.aether.artifact.Artifact;
+import org.sonatype.aether.metadata.Metadata;
+import org.sonatype.aether.repository.LocalArtifactRegistration;
+import org.sonatype.aether.repository.LocalArtifactRequest;
+import org.sonatype.aether.repository.LocalArtifactResult;
+import org.sonatype.aether.repository.LocalMetadataRegistration;
+import org.sonatype.aether.repository.LocalMetadataRequest;
+import org.sonatype.aether.repository.LocalMetadataResult;
+import org.sonatype.aether.repository.LocalRepository;
+import org.sonatype.aether.repository.LocalRepositoryManager;
+import org.sonatype.aether.repository.RemoteRepository;
+
+/**
+ * {@link LocalRepositoryManager} which answers artifact lookups from a persistent index of the local repository instead
+ * of probing the file system and reading tracking files for every artifact. Paths and metadata are handled by the
+ * delegate, which also performs all the writes; the index is refreshed after every registration.
+ *
+ * Indexed artifacts are trusted without touching their files. Artifacts registered by other processes using the index
+ * are picked up when a manager is created for a new session; artifacts missing from the index are looked up in the
+ * repository. Changes made by other tools, e.g. deleting an artifact, are noticed once the index file is removed and
+ * rebuilt.
+ *
+ * Availability of artifacts follows rules of the delegate, artifacts downloaded from a repository manager are always
+ * looked up by the delegate.
+ */
+public class IndexedLocalRepositoryManager implements LocalRepositoryManager {
+
+    /**
+     * System property which enables the index of the local repository
+     */
+    public static final String INDEXED_LOCAL_REPOSITORY = "org.jboss.shrinkwrap.resolver.maven.indexed-local-repository";
+
+    private static final String SIMPLE_CONTENT_TYPE = "simple";
+
+    private final LocalRepositoryManager delegate;
+    private final LocalRepositoryIndex index;
+    private final boolean tracking;
+
+    /**
+     * Creates indexed manager of the same local repository as the delegate
+     *
+     * @param delegate
+     *        Manager provided by the repository system
+     */
+    public IndexedLocalRepositoryManager(final LocalRepositoryManager delegate) {
+        this.delegate = delegate;
+        this.index = LocalRepositoryIndex.forRepository(delegate.getRepository().getBasedir());
+        this.index.sync();
+        this.tracking = !SIMPLE_CONTENT_TYPE.equals(delegate.getRepository().getContentType());
+    }
+
+    /**
+     * Checks whether usage of the index was enabled by {@link #INDEXED_LOCAL_REPOSITORY}
+     *
+     * @return
+     */
+    public static boolean isEnabled() {
+        return Boolean.valueOf(SecurityActions.getProperty(INDEXED_LOCAL_REPOSITORY));
+    }
+
+    @Override
+    public LocalRepository getRepository() {
+        return delegate.getRepository();
+    }
+
+    @Override
+    public String getPathForLocalArtifact(final Artifact artifact) {
+        return delegate.getPathForLocalArtifact(artifact);
+    }
+
+    @Override
+    public String getPathForRemoteArtifact(final Artifact artifact, final RemoteRepository repository,
+        final String context) {
+        return delegate.getPathForRemoteArtifact(artifact, repository, context);
+    }
+
+    @Override
+    public String getPathForLocalMetadata(final Metadata metadata) {
+        return delegate.getPathForLocalMetadata(metadata);
+    }
+
+    @Override
+    public String getPathForRemoteMetadata(final Metadata metadata, final RemoteRepository repository,
+        final String context) {
+        return delegate.getPathForRemoteMetadata(metadata, repository, context);
+    }
+
+    @Override
+    public LocalArtifactResult find(final RepositorySystemSession session, final LocalArtifactRequest request) {
+        if (tracking) {
+            for (final RemoteRepository repository : request.getRepositories()) {
+                // key of a repository manager depends on the context, leave it to the delegate
+                if (repository.isRepositoryManager()) {
+                    return delegate.find(session, request);
+                }
+            }
+        }
+
+        // Aether managers look up artifacts under their remote path, regardless of the repository
+        final String path = delegate.getPathForRemoteArtifact(request.getArtifact(), null, request.getContext());
+        LocalRepositoryIndex.Entry entry = index.get(path);
+        if (entry == null) {
+            entry = index.refresh(path);
+        }
+
+        final LocalArtifactResult result = new LocalArtifactResult(request);
+        if (entry == null) {
+            return result;
+        }
+        result.setFile(new File(index.getBasedir(), path));
+
+        if (!tracking || entry.isLocallyInstalled()) {
+            return result.setAvailable(true);
+        }
+        for (final RemoteRepository repository : request.getRepositories()) {
+            if (entry.isFrom(repository.getId())) {
+                return result.setAvailable(true).setRepository(repository);
+            }
+        }
+        // artifacts which are not tracked at all are considered locally installed
+        return result.setAvailable(!entry.isTracked());
+    }
+
+    @Override
+    public void add(final RepositorySystemSession session, final LocalArtifactRegistration request) {
+        delegate.add(session, request);
+
+        final Artifact artifact = request.getArtifact();
+        final String localPath = delegate.getPathForLocalArtifact(artifact);
+        index.refresh(localPath);
+        final String remotePath = delegate.getPathForRemoteArtifact(artifact, request.getRepository(), "");
+        if (!remotePath.equals(localPath)) {
+            index.refresh(remotePath);
+        }
+    }
+
+    @Override
+    public LocalMetadataResult find(final RepositorySystemSession session, final LocalMetadataRequest request) {
+        return delegate.find(session, request);
+    }
+
+    @Override
+    public void add(final RepositorySystemSession session, final LocalMetadataRegistration request) {
+        delegate.add(session, request);
+    }
+
+    @Override
+    public String toString() {
+        return "indexed " + delegate;
+    }
+}
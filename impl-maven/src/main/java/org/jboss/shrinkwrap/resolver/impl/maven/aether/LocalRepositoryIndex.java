@@ -0,0 +1,769 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.aether;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jboss.shrinkwrap.resolver.impl.maven.util.Checksums;
+
+/**
+ * Persistent index of artifacts in a local repository, mapping path of an artifact to its size, modification time,
+ * SHA-1 checksum and repositories it was downloaded from.
+ *
+ * The index is stored in the local repository as a hash table of record offsets followed by the records themselves.
+ * The file is memory-mapped and looked up in place without locking, records are decoded only when their path hash
+ * matches. Changes are appended to the file as a journal of records, a later record for the same path replaces the
+ * earlier one. The journal is read on load and kept in memory until the index is rewritten; records appended by other
+ * processes are picked up by {@link #sync()}. If the index is missing or unreadable, it is rebuilt by scanning the
+ * repository in parallel. A single index instance is shared by all sessions of the JVM using the same local repository.
+ */
+final class LocalRepositoryIndex {
+    private static final Logger log = Logger.getLogger(LocalRepositoryIndex.class.getName());
+
+    static final String INDEX_FILE = ".shrinkwrap-resolver/local-repository.index";
+
+    /**
+     * Name of the file Aether uses to track origin of artifacts in the enhanced local repository
+     */
+    static final String TRACKING_FILE = "_maven.repositories";
+
+    private static final int MAGIC = 0x53575249;
+    private static final int VERSION = 2;
+
+    // magic, version, number of slots, number of records, start of the journal
+    private static final int HEADER_LENGTH = 24;
+
+    // hash of the path and offset of the record, zero offset marks an empty slot
+    private static final int SLOT_LENGTH = 8;
+
+    private static final int MIN_SLOTS = 16;
+
+    // index is rewritten if its journal grows larger than this
+    private static final int COMPACTION_THRESHOLD = 1024;
+
+    private static final ConcurrentMap<File, LocalRepositoryIndex> INDEXES = new ConcurrentHashMap<File, LocalRepositoryIndex>();
+
+    private final File basedir;
+    private final File indexFile;
+
+    // read by lookups without locking, replaced as a whole when the index file is mapped again
+    private volatile State state;
+
+    // the rest is guarded by this
+    private int size;
+    // length of the index file read so far, records appended by other processes start here
+    private long end;
+    private FileChannel journal;
+    private boolean persistent;
+    // once lookups may run concurrently, mappings are left to the garbage collector instead of being unmapped
+    private boolean shared;
+
+    LocalRepositoryIndex(final File basedir) {
+        this.basedir = basedir;
+        this.indexFile = new File(basedir, INDEX_FILE);
+        this.state = new State(null, 0);
+        this.persistent = true;
+        synchronized (this) {
+            load();
+            shared = true;
+        }
+    }
+
+    /**
+     * Gets index of the local repository
+     *
+     * @param basedir
+     *            Base directory of the local repository
+     * @return
+     */
+    static LocalRepositoryIndex forRepository(final File basedir) {
+        File key;
+        try {
+            key = basedir.getCanonicalFile();
+        } catch (final IOException e) {
+            key = basedir.getAbsoluteFile();
+        }
+        LocalRepositoryIndex index = INDEXES.get(key);
+        if (index == null) {
+            index = new LocalRepositoryIndex(key);
+            final LocalRepositoryIndex existing = INDEXES.putIfAbsent(key, index);
+            if (existing != null) {
+                index.close();
+                index = existing;
+            }
+        }
+        return index;
+    }
+
+    File getBasedir() {
+        return basedir;
+    }
+
+    /**
+     * Gets entry for the path. The entry is not checked against the file system, lookups do not lock and do not touch
+     * any file but the mapped index.
+     *
+     * @param path
+     *            Path relative to the local repository
+     * @return The entry or {@code null} if the path is not indexed
+     */
+    Entry get(final String path) {
+        final State current = state;
+        final Entry entry = current.journaled.get(path);
+        if (entry != null) {
+            return entry.isRemoved() ? null : entry;
+        }
+        return current.lookup(path);
+    }
+
+    /**
+     * Reads current state of the path from the local repository and records it in the index
+     *
+     * @param path
+     *            Path relative to the local repository
+     * @return The entry or {@code null} if there is no artifact at the path
+     */
+    synchronized Entry refresh(final String path) {
+        final File file = new File(basedir, path);
+        final Entry entry = file.isFile() ? Entry.read(path, file, readTracking(file.getParentFile())) : null;
+        final Entry previous = get(path);
+        if (entry != null && !entry.equals(previous)) {
+            journal(entry, previous);
+            append(entry);
+        } else if (entry == null && previous != null) {
+            final Entry removed = Entry.removed(path);
+            journal(removed, previous);
+            append(removed);
+        }
+        return entry;
+    }
+
+    /**
+     * Picks up changes other processes recorded in the index file since it was read. Only the length and, if it has
+     * changed, the header of the index file are read unless there are new records.
+     */
+    synchronized void sync() {
+        if (!persistent) {
+            return;
+        }
+        final long length = indexFile.length();
+        if (length == end) {
+            return;
+        }
+        try {
+            final RandomAccessFile file = new RandomAccessFile(indexFile, "r");
+            try {
+                final State current = state;
+                if (length < end || current.mapped == null || !hasHeader(file, current.mapped)) {
+                    // the index was rewritten by another process
+                    reload();
+                    return;
+                }
+                final byte[] appended = new byte[(int) (length - end)];
+                file.seek(end);
+                file.readFully(appended);
+                final ByteBuffer buffer = ByteBuffer.wrap(appended);
+                readJournal(buffer);
+                end += buffer.position();
+            } finally {
+                file.close();
+            }
+        } catch (final IOException e) {
+            log.log(Level.FINE, "Unable to read changes of local repository index " + indexFile, e);
+        }
+    }
+
+    // checks whether the index file still starts with the header of the mapped one, i.e. it was not rewritten
+    private static boolean hasHeader(final RandomAccessFile file, final ByteBuffer mapped) throws IOException {
+        final byte[] header = new byte[HEADER_LENGTH];
+        file.readFully(header);
+        for (int i = 0; i < HEADER_LENGTH; i++) {
+            if (header[i] != mapped.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Releases the index file. The index is not usable afterwards, it must not be closed while it is looked up.
+     */
+    synchronized void close() {
+        release(true);
+        state = new State(null, 0);
+        size = 0;
+        persistent = false;
+    }
+
+    private void journal(final Entry entry, final Entry previous) {
+        state.journaled.put(entry.path, entry);
+        size += (entry.isRemoved() ? 0 : 1) - (previous == null ? 0 : 1);
+    }
+
+    private void reload() {
+        release(!shared);
+        state = new State(null, 0);
+        size = 0;
+        end = 0;
+        load();
+    }
+
+    private void load() {
+        boolean valid = false;
+        int records = 0;
+        boolean complete = false;
+        MappedByteBuffer buffer = null;
+        if (indexFile.isFile()) {
+            try {
+                buffer = map(indexFile);
+                if (buffer.capacity() >= HEADER_LENGTH && buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION) {
+                    final int slots = buffer.getInt(8);
+                    final int count = buffer.getInt(12);
+                    final long journalStart = buffer.getLong(16);
+                    if (slots >= MIN_SLOTS && Integer.bitCount(slots) == 1 && count >= 0 && count <= slots / 2
+                        && journalStart >= HEADER_LENGTH + (long) slots * SLOT_LENGTH
+                        && journalStart <= buffer.capacity()) {
+                        valid = true;
+                        state = new State(buffer, slots);
+                        size = count;
+                        final ByteBuffer journaled = buffer.duplicate();
+                        journaled.position((int) journalStart);
+                        records = readJournal(journaled);
+                        complete = !journaled.hasRemaining();
+                        end = journaled.position();
+                    }
+                }
+            } catch (final IOException e) {
+                log.log(Level.FINE, "Unable to read local repository index " + indexFile + ", it will be rebuilt", e);
+                valid = false;
+            }
+        }
+
+        try {
+            if (!valid) {
+                if (buffer != null && buffer != state.mapped && !shared) {
+                    SecurityActions.unmap(buffer);
+                }
+                release(!shared);
+                state = new State(null, 0);
+                final long start = System.currentTimeMillis();
+                final Collection<Entry> scanned = scan();
+                log.log(Level.FINE, "Rebuilt index of local repository {0}, {1} artifacts indexed in {2}ms",
+                    new Object[] { basedir, scanned.size(), System.currentTimeMillis() - start });
+                rewrite(scanned);
+            } else if (!complete || records > COMPACTION_THRESHOLD) {
+                rewrite(entries());
+            }
+        } catch (final IOException e) {
+            // artifacts are looked up in the repository directly until they are refreshed
+            log.log(Level.FINE, "Unable to build local repository index " + indexFile + ", it will not be persisted",
+                e);
+            release(!shared);
+            persistent = false;
+        }
+    }
+
+    private int readJournal(final ByteBuffer buffer) throws IOException {
+        int records = 0;
+        while (buffer.remaining() >= 4) {
+            final int length = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                // truncated record of an interrupted write, index is rewritten
+                buffer.position(buffer.position() - 4);
+                return records;
+            }
+            final byte[] payload = new byte[length];
+            buffer.get(payload);
+            final Entry entry = Entry.decode(payload);
+            final Entry previous = get(entry.path);
+            if (!entry.equals(previous) && !(entry.isRemoved() && previous == null)) {
+                journal(entry, previous);
+            }
+            records++;
+        }
+        return records;
+    }
+
+    // all entries of the index, mapped ones which were not replaced by the journal and journaled ones
+    private List<Entry> entries() throws IOException {
+        final State current = state;
+        final List<Entry> entries = new ArrayList<Entry>(size);
+        if (current.mapped != null) {
+            final int journalStart = (int) current.mapped.getLong(16);
+            int offset = HEADER_LENGTH + current.slots * SLOT_LENGTH;
+            while (offset < journalStart) {
+                final Entry entry = readRecord(current.mapped, offset);
+                if (!current.journaled.containsKey(entry.path)) {
+                    entries.add(entry);
+                }
+                offset += 4 + current.mapped.getInt(offset);
+            }
+        }
+        for (final Entry entry : current.journaled.values()) {
+            if (!entry.isRemoved()) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    private void append(final Entry entry) {
+        if (!persistent) {
+            return;
+        }
+        try {
+            if (journal == null) {
+                if (state.mapped == null || !indexFile.isFile()) {
+                    rewrite(entries());
+                    return;
+                }
+                journal = new FileOutputStream(indexFile, true).getChannel();
+            }
+            final long position = journal.position();
+            final int written = journal.write(entry.encode());
+            if (position == end) {
+                // own records need not be read again by sync()
+                end += written;
+            }
+        } catch (final IOException e) {
+            log.log(Level.FINE, "Unable to update local repository index " + indexFile, e);
+        }
+    }
+
+    // writes all entries into a new index which replaces the current one, entries are kept in memory if that fails
+    private void rewrite(final Collection<Entry> entries) {
+        // a mapped or open file can not be replaced on some platforms
+        release(!shared);
+        final State written = new State(null, 0);
+        for (final Entry entry : entries) {
+            written.journaled.put(entry.path, entry);
+        }
+        state = written;
+        size = written.journaled.size();
+
+        final File directory = indexFile.getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            log.log(Level.FINE, "Unable to create directory {0}, local repository index will not be persisted",
+                directory);
+            persistent = false;
+            return;
+        }
+        try {
+            final File temp = File.createTempFile("local-repository", ".index", directory);
+            write(temp, entries);
+            if (!temp.renameTo(indexFile) && !(indexFile.delete() && temp.renameTo(indexFile))) {
+                temp.delete();
+                log.log(Level.FINE, "Unable to replace local repository index {0}, it will not be persisted",
+                    indexFile);
+                persistent = false;
+                return;
+            }
+            final MappedByteBuffer mapped = map(indexFile);
+            state = new State(mapped, mapped.getInt(8));
+            end = mapped.capacity();
+        } catch (final IOException e) {
+            log.log(Level.FINE, "Unable to write local repository index " + indexFile + ", it will not be persisted",
+                e);
+            persistent = false;
+        }
+    }
+
+    private static void write(final File file, final Collection<Entry> entries) throws IOException {
+        int slots = MIN_SLOTS;
+        while (slots < entries.size() * 2) {
+            slots <<= 1;
+        }
+        final int mask = slots - 1;
+        final ByteBuffer table = ByteBuffer.allocate(HEADER_LENGTH + slots * SLOT_LENGTH);
+        final List<ByteBuffer> records = new ArrayList<ByteBuffer>(entries.size());
+        long offset = table.capacity();
+        for (final Entry entry : entries) {
+            final ByteBuffer record = entry.encode();
+            final int hash = entry.path.hashCode();
+            int slot = hash & mask;
+            while (table.getInt(HEADER_LENGTH + slot * SLOT_LENGTH + 4) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table.putInt(HEADER_LENGTH + slot * SLOT_LENGTH, hash);
+            table.putInt(HEADER_LENGTH + slot * SLOT_LENGTH + 4, (int) offset);
+            records.add(record);
+            offset += record.remaining();
+            if (offset > Integer.MAX_VALUE) {
+                throw new IOException("Local repository index would exceed " + Integer.MAX_VALUE + " bytes");
+            }
+        }
+        table.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, slots).putInt(12, entries.size()).putLong(16, offset);
+
+        final FileChannel channel = new FileOutputStream(file).getChannel();
+        try {
+            channel.write(table);
+            for (final ByteBuffer record : records) {
+                channel.write(record);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    private static MappedByteBuffer map(final File file) throws IOException {
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            return raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+        } finally {
+            raf.close();
+        }
+    }
+
+    private static Entry readRecord(final ByteBuffer buffer, final int offset) throws IOException {
+        final int length = buffer.getInt(offset);
+        if (length <= 0 || offset + 4L + length > buffer.capacity()) {
+            throw new IOException("Corrupted record at " + offset);
+        }
+        final ByteBuffer record = buffer.duplicate();
+        record.position(offset + 4);
+        final byte[] payload = new byte[length];
+        record.get(payload);
+        return Entry.decode(payload);
+    }
+
+    // closes the journal and drops the mapping of the index file, unmapping it only if no lookup can be using it
+    private void release(final boolean unmap) {
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (final IOException ignore) {
+                log.log(Level.FINER, "Could not close local repository index due to: {0}; ignoring", ignore.getMessage());
+            }
+            journal = null;
+        }
+        final MappedByteBuffer mapped = state.mapped;
+        if (mapped != null) {
+            state = new State(null, 0);
+            if (unmap && !SecurityActions.unmap(mapped)) {
+                log.log(Level.FINER, "Unable to unmap local repository index {0}, it is released when collected",
+                    indexFile);
+            }
+        }
+    }
+
+    // every directory of the repository is scanned by a separate task
+    private Collection<Entry> scan() throws IOException {
+        final File[] roots = basedir.listFiles();
+        if (roots == null || roots.length == 0) {
+            return Collections.emptyList();
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            final DirectoryScan scan = new DirectoryScan(executor);
+            for (final File root : roots) {
+                if (root.isDirectory() && !root.getName().startsWith(".")) {
+                    scan.submit(root, root.getName() + '/');
+                }
+            }
+            return scan.await();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Mapped index file and entries recorded since it was written, removals included, which take precedence over the
+     * mapped ones. Lookups read it without locking.
+     */
+    private static final class State {
+        private final MappedByteBuffer mapped;
+        private final int slots;
+        private final ConcurrentMap<String, Entry> journaled = new ConcurrentHashMap<String, Entry>();
+
+        State(final MappedByteBuffer mapped, final int slots) {
+            this.mapped = mapped;
+            this.slots = slots;
+        }
+
+        // probes the mapped hash table, only records with the same path hash are decoded
+        Entry lookup(final String path) {
+            if (mapped == null) {
+                return null;
+            }
+            final int hash = path.hashCode();
+            final int mask = slots - 1;
+            try {
+                for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+                    final int position = HEADER_LENGTH + slot * SLOT_LENGTH;
+                    final int offset = mapped.getInt(position + 4);
+                    if (offset == 0) {
+                        return null;
+                    }
+                    if (mapped.getInt(position) == hash) {
+                        final Entry entry = readRecord(mapped, offset);
+                        if (entry.path.equals(path)) {
+                            return entry;
+                        }
+                    }
+                }
+            } catch (final IOException e) {
+                log.log(Level.FINE, "Unable to read local repository index", e);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Parallel scan of a directory tree, each directory is scanned by a task which submits its subdirectories
+     */
+    private static final class DirectoryScan {
+        private final ExecutorService executor;
+        private final ConcurrentMap<String, Entry> found = new ConcurrentHashMap<String, Entry>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final AtomicReference<RuntimeException> failure = new AtomicReference<RuntimeException>();
+
+        DirectoryScan(final ExecutorService executor) {
+            this.executor = executor;
+        }
+
+        void submit(final File directory, final String prefix) {
+            pending.incrementAndGet();
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        scanDirectory(directory, prefix);
+                    } catch (final RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        if (pending.decrementAndGet() == 0) {
+                            done.countDown();
+                        }
+                    }
+                }
+            });
+        }
+
+        Collection<Entry> await() throws IOException {
+            if (pending.get() > 0) {
+                try {
+                    done.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while scanning local repository");
+                }
+            }
+            if (failure.get() != null) {
+                final IOException e = new IOException("Unable to scan local repository");
+                e.initCause(failure.get());
+                throw e;
+            }
+            return found.values();
+        }
+
+        private void scanDirectory(final File directory, final String prefix) {
+            final File[] files = directory.listFiles();
+            if (files == null) {
+                return;
+            }
+            Properties tracking = null;
+            for (final File file : files) {
+                final String name = file.getName();
+                if (file.isDirectory()) {
+                    submit(file, prefix + name + '/');
+                } else if (isArtifact(name)) {
+                    if (tracking == null) {
+                        tracking = readTracking(directory);
+                    }
+                    found.put(prefix + name, Entry.read(prefix + name, file, tracking));
+                }
+            }
+        }
+    }
+
+    private static boolean isArtifact(final String name) {
+        return !(name.startsWith("_") || name.startsWith("maven-metadata") || name.startsWith("resolver-status")
+            || name.endsWith(".sha1") || name.endsWith(".md5") || name.endsWith(".lastUpdated")
+            || name.endsWith(".part") || name.endsWith(".tmp") || name.endsWith(".lock") || name.endsWith(".classes"));
+    }
+
+    private static Properties readTracking(final File directory) {
+        final Properties properties = new Properties();
+        final File tracking = new File(directory, TRACKING_FILE);
+        if (tracking.isFile()) {
+            try {
+                final InputStream in = new FileInputStream(tracking);
+                try {
+                    properties.load(in);
+                } finally {
+                    in.close();
+                }
+            } catch (final IOException e) {
+                log.log(Level.FINE, "Unable to read " + tracking, e);
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Indexed artifact
+     */
+    static final class Entry {
+        private static final String LOCAL_REPOSITORY = "";
+
+        private final String path;
+        private final long size;
+        private final long lastModified;
+        private final String sha1;
+        private final Set<String> repositories;
+
+        private Entry(final String path, final long size, final long lastModified, final String sha1,
+            final Set<String> repositories) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.sha1 = sha1;
+            this.repositories = repositories;
+        }
+
+        static Entry read(final String path, final File file, final Properties tracking) {
+            final String prefix = file.getName() + '>';
+            final Set<String> repositories = new HashSet<String>();
+            for (final Object key : tracking.keySet()) {
+                final String name = key.toString();
+                if (name.startsWith(prefix)) {
+                    repositories.add(name.substring(prefix.length()));
+                }
+            }
+            return new Entry(path, file.length(), file.lastModified(), readSha1(file),
+                Collections.unmodifiableSet(repositories));
+        }
+
+        static Entry removed(final String path) {
+            return new Entry(path, -1L, -1L, "", Collections.<String> emptySet());
+        }
+
+        boolean isRemoved() {
+            return size < 0;
+        }
+
+        /**
+         * SHA-1 checksum of the artifact as found in its checksum file, empty if there was none
+         */
+        String getSha1() {
+            return sha1;
+        }
+
+        boolean isLocallyInstalled() {
+            return repositories.contains(LOCAL_REPOSITORY);
+        }
+
+        boolean isTracked() {
+            return !repositories.isEmpty();
+        }
+
+        boolean isFrom(final String repositoryKey) {
+            return repositories.contains(repositoryKey);
+        }
+
+        ByteBuffer encode() throws IOException {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            final DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0);
+            out.writeUTF(path);
+            out.writeLong(size);
+            out.writeLong(lastModified);
+            out.writeUTF(sha1);
+            out.writeShort(repositories.size());
+            for (final String repository : repositories) {
+                out.writeUTF(repository);
+            }
+            out.close();
+            final ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            buffer.putInt(0, buffer.capacity() - 4);
+            return buffer;
+        }
+
+        static Entry decode(final byte[] payload) throws IOException {
+            final DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            final String path = in.readUTF();
+            final long size = in.readLong();
+            final long lastModified = in.readLong();
+            final String sha1 = in.readUTF();
+            final int count = in.readShort();
+            final Set<String> repositories = new HashSet<String>(count * 2);
+            for (int i = 0; i < count; i++) {
+                repositories.add(in.readUTF());
+            }
+            return new Entry(path, size, lastModified, sha1, Collections.unmodifiableSet(repositories));
+        }
+
+        private static String readSha1(final File file) {
+            final String sha1 = Checksums.read(file, Checksums.SHA1);
+            return sha1 == null ? "" : sha1;
+        }
+
+        @Override
+        public int hashCode() {
+            return path.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Entry)) {
+                return false;
+            }
+            final Entry other = (Entry) obj;
+            return path.equals(other.path) && size == other.size && lastModified == other.lastModified
+                && sha1.equals(other.sha1)
+                && repositories.equals(other.repositories);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.aether;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileLock;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Exclusive locks of artifacts in a local repository, shared by threads of the JVM as well as by other processes. A lock
+ * is represented by a lock file; threads of the JVM are serialized before the file is locked, as file locks are held on
+ * behalf of the whole JVM.
+ *
+ * All files of an artifact directory share a single lock file, so the number of lock files is bounded by the number of
+ * artifact directories and lock files are reused by every later download into the directory.
+ *
+ * Locks of several directories have to be acquired in order of their lock files to prevent deadlocks.
+ */
+final class LocalRepositoryLocks {
+
+    /**
+     * Directory of lock files, relative to the local repository
+     */
+    static final String LOCKS_DIRECTORY = ".shrinkwrap-resolver/locks";
+
+    private static final String LOCK_SUFFIX = ".lock";
+
+    // lock of a file is kept while there are threads using it
+    private static final Map<String, JvmLock> JVM_LOCKS = new HashMap<String, JvmLock>();
+
+    private LocalRepositoryLocks() {
+        throw new UnsupportedOperationException("No instantiation");
+    }
+
+    /**
+     * Gets lock file of the directory of an artifact file
+     *
+     * @param basedir
+     *            Base directory of the local repository
+     * @param file
+     *            Artifact file
+     * @return
+     */
+    static File lockFileOf(final File basedir, final File file) {
+        final String base = basedir.getAbsolutePath() + File.separator;
+        final String directory = file.getAbsoluteFile().getParent();
+        if (directory.startsWith(base)) {
+            return new File(new File(basedir, LOCKS_DIRECTORY), directory.substring(base.length()) + LOCK_SUFFIX);
+        }
+        return new File(directory, LOCKS_DIRECTORY.replace('/', '-') + LOCK_SUFFIX);
+    }
+
+    /**
+     * Acquires lock, blocking until it is available
+     *
+     * @param lockFile
+     *            Lock file, created if it does not exist
+     * @return The lock, to be released by {@link Lock#release()}
+     * @throws IOException
+     *             If the lock file could not be locked
+     */
+    static Lock acquire(final File lockFile) throws IOException {
+        final String key = lockFile.getAbsolutePath();
+        final JvmLock jvmLock;
+        synchronized (JVM_LOCKS) {
+            JvmLock existing = JVM_LOCKS.get(key);
+            if (existing == null) {
+                existing = new JvmLock();
+                JVM_LOCKS.put(key, existing);
+            }
+            existing.users++;
+            jvmLock = existing;
+        }
+
+        jvmLock.lock.lock();
+        try {
+            final File directory = lockFile.getParentFile();
+            if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+                throw new IOException("Unable to create directory " + directory.getAbsolutePath());
+            }
+            final RandomAccessFile file = new RandomAccessFile(lockFile, "rw");
+            try {
+                return new Lock(key, jvmLock, file, file.getChannel().lock());
+            } catch (final IOException e) {
+                file.close();
+                throw e;
+            }
+        } catch (final IOException e) {
+            unlock(key, jvmLock);
+            throw e;
+        } catch (final RuntimeException e) {
+            unlock(key, jvmLock);
+            throw e;
+        }
+    }
+
+    private static void unlock(final String key, final JvmLock jvmLock) {
+        jvmLock.lock.unlock();
+        synchronized (JVM_LOCKS) {
+            if (--jvmLock.users == 0) {
+                JVM_LOCKS.remove(key);
+            }
+        }
+    }
+
+    private static final class JvmLock {
+        private final ReentrantLock lock = new ReentrantLock();
+        private int users;
+    }
+
+    /**
+     * Acquired lock
+     */
+    static final class Lock {
+        private final String key;
+        private final JvmLock jvmLock;
+        private final RandomAccessFile file;
+        private final FileLock fileLock;
+
+        private Lock(final String key, final JvmLock jvmLock, final RandomAccessFile file, final FileLock fileLock) {
+            this.key = key;
+            this.jvmLock = jvmLock;
+            this.file = file;
+            this.fileLock = fileLock;
+        }
+
+        /**
+         * Reads the stamp of a file stored in the lock file by the last holder of the lock
+         *
+         * @param name
+         *            Name of the file within the locked directory
+         * @return The stamp or {@code null} if none was stored
+         */
+        String readStamp(final String name) {
+            return readStamps().get(name);
+        }
+
+        /**
+         * Stores a stamp of a file in the lock file, replacing the previous stamp of the file
+         *
+         * @param name
+         *            Name of the file within the locked directory
+         * @param stamp
+         */
+        void writeStamp(final String name, final String stamp) {
+            final Map<String, String> stamps = readStamps();
+            stamps.put(name, stamp);
+            try {
+                file.seek(0);
+                file.writeInt(stamps.size());
+                for (final Map.Entry<String, String> entry : stamps.entrySet()) {
+                    file.writeUTF(entry.getKey());
+                    file.writeUTF(entry.getValue());
+                }
+                file.setLength(file.getFilePointer());
+            } catch (final IOException ignore) {
+                // without a stamp, the artifact is downloaded again by the next holder of the lock
+            }
+        }
+
+        private Map<String, String> readStamps() {
+            final Map<String, String> stamps = new LinkedHashMap<String, String>();
+            try {
+                if (file.length() == 0) {
+                    return stamps;
+                }
+                file.seek(0);
+                for (int i = file.readInt(); i > 0; i--) {
+                    final String name = file.readUTF();
+                    stamps.put(name, file.readUTF());
+                }
+            } catch (final IOException e) {
+                // stamps are only a hint, broken ones are ignored
+                stamps.clear();
+            }
+            return stamps;
+        }
+
+        /**
+         * Releases the lock, lock file is kept for later downloads into the directory as deleting it would race with
+         * other processes
+         */
+        void release() {
+            try {
+                fileLock.release();
+                file.close();
+            } catch (final IOException ignore) {
+                // closing the file releases the lock anyway
+            } finally {
+                unlock(key, jvmLock);
+            }
+        }
+    }
+}
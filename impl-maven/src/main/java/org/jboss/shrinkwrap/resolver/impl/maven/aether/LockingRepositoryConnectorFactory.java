@@ -0,0 +1,265 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.aether;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.sonatype.aether.RepositorySystemSession;
+import org.sonatype.aether.connector.wagon.WagonRepositoryConnectorFactory;
+import org.sonatype.aether.repository.RemoteRepository;
+import org.sonatype.aether.spi.connector.ArtifactDownload;
+import org.sonatype.aether.spi.connector.ArtifactUpload;
+import org.sonatype.aether.spi.connector.MetadataDownload;
+import org.sonatype.aether.spi.connector.MetadataUpload;
+import org.sonatype.aether.spi.connector.RepositoryConnector;
+import org.sonatype.aether.spi.connector.RepositoryConnectorFactory;
+import org.sonatype.aether.spi.locator.Service;
+import org.sonatype.aether.spi.locator.ServiceLocator;
+import org.sonatype.aether.transfer.ArtifactTransferException;
+import org.sonatype.aether.transfer.NoRepositoryConnectorException;
+
+/**
+ * {@link RepositoryConnectorFactory} coordinating downloads of artifacts into a local repository.
+ *
+ * Within the JVM, concurrent requests of the same artifact from the same repository share a single download, see
+ * {@link SingleFlightDownloads}.
+ *
+ * If enabled by {@link #LOCAL_REPOSITORY_LOCKING}, downloads are also coordinated with other processes sharing the
+ * local repository. The directory of every downloaded artifact is locked for the time of the download. Once the
+ * download completes, a stamp identifying the repository and the downloaded file is stored in the lock file; if the
+ * next holder of the lock finds a stamp of the same repository matching the file and written since the factory was
+ * created, or if the artifact appeared while waiting for the lock, the artifact was downloaded by another process and
+ * it is not downloaded again. Artifacts which are already present are read without any locking.
+ *
+ * Downloads are performed by {@link WagonRepositoryConnectorFactory}.
+ */
+public class LockingRepositoryConnectorFactory implements RepositoryConnectorFactory, Service {
+    private static final Logger log = Logger.getLogger(LockingRepositoryConnectorFactory.class.getName());
+
+    /**
+     * System property which enables locking of the local repository shared by several processes
+     */
+    public static final String LOCAL_REPOSITORY_LOCKING =
+        "org.jboss.shrinkwrap.resolver.maven.local-repository-locking";
+
+    private final WagonRepositoryConnectorFactory delegate = new WagonRepositoryConnectorFactory();
+
+    // stamps written before are not trusted, the artifact might have been updated in the repository since then
+    private final long since = System.currentTimeMillis();
+
+    private final boolean locking = isEnabled();
+
+    /**
+     * Checks whether locking of the local repository was enabled by {@link #LOCAL_REPOSITORY_LOCKING}
+     *
+     * @return
+     */
+    public static boolean isEnabled() {
+        return Boolean.valueOf(SecurityActions.getProperty(LOCAL_REPOSITORY_LOCKING));
+    }
+
+    @Override
+    public void initService(final ServiceLocator locator) {
+        delegate.initService(locator);
+    }
+
+    @Override
+    public RepositoryConnector newInstance(final RepositorySystemSession session, final RemoteRepository repository)
+        throws NoRepositoryConnectorException {
+        return new LockingRepositoryConnector(delegate.newInstance(session, repository), locking ? session
+            .getLocalRepository().getBasedir() : null, repository, since);
+    }
+
+    @Override
+    public int getPriority() {
+        return delegate.getPriority();
+    }
+
+    private static class LockingRepositoryConnector implements RepositoryConnector {
+        private final RepositoryConnector delegate;
+        // null if the local repository is not locked
+        private final File basedir;
+        private final RemoteRepository remoteRepository;
+        private final String repository;
+        private final long since;
+
+        LockingRepositoryConnector(final RepositoryConnector delegate, final File basedir,
+            final RemoteRepository remoteRepository, final long since) {
+            this.delegate = delegate;
+            this.basedir = basedir;
+            this.remoteRepository = remoteRepository;
+            this.repository = remoteRepository.getId() + '@' + remoteRepository.getUrl();
+            this.since = since;
+        }
+
+        @Override
+        public void get(final Collection<? extends ArtifactDownload> artifactDownloads,
+            final Collection<? extends MetadataDownload> metadataDownloads) {
+            if (artifactDownloads == null || artifactDownloads.isEmpty()) {
+                delegate.get(artifactDownloads, metadataDownloads);
+                return;
+            }
+
+            // lock files are ordered, so processes waiting for each other cannot deadlock
+            final Map<File, List<ArtifactDownload>> locked = new TreeMap<File, List<ArtifactDownload>>();
+            final List<ArtifactDownload> pending = new ArrayList<ArtifactDownload>(artifactDownloads.size());
+            final Set<ArtifactDownload> present = new HashSet<ArtifactDownload>();
+            final Map<ArtifactDownload, SingleFlightDownloads.Ticket> led =
+                new LinkedHashMap<ArtifactDownload, SingleFlightDownloads.Ticket>();
+            final Map<ArtifactDownload, SingleFlightDownloads.Ticket> followed =
+                new LinkedHashMap<ArtifactDownload, SingleFlightDownloads.Ticket>();
+            for (final ArtifactDownload download : artifactDownloads) {
+                if (download.isExistenceCheck()) {
+                    pending.add(download);
+                    continue;
+                }
+                final SingleFlightDownloads.Ticket ticket = SingleFlightDownloads.join(SingleFlightDownloads.keyOf(
+                    repository, download.getFile().getAbsolutePath()));
+                if (!ticket.isLeader()) {
+                    followed.put(download, ticket);
+                    continue;
+                }
+                led.put(download, ticket);
+                if (basedir == null) {
+                    pending.add(download);
+                    continue;
+                }
+                if (download.getFile().isFile()) {
+                    present.add(download);
+                }
+                final File lockFile = LocalRepositoryLocks.lockFileOf(basedir, download.getFile());
+                List<ArtifactDownload> downloads = locked.get(lockFile);
+                if (downloads == null) {
+                    downloads = new ArrayList<ArtifactDownload>(1);
+                    locked.put(lockFile, downloads);
+                }
+                downloads.add(download);
+            }
+
+            final Map<File, LocalRepositoryLocks.Lock> locks = new TreeMap<File, LocalRepositoryLocks.Lock>();
+            boolean transferred = false;
+            try {
+                for (final Map.Entry<File, List<ArtifactDownload>> entry : locked.entrySet()) {
+                    LocalRepositoryLocks.Lock lock = null;
+                    try {
+                        lock = LocalRepositoryLocks.acquire(entry.getKey());
+                        locks.put(entry.getKey(), lock);
+                    } catch (final IOException e) {
+                        log.log(Level.FINE, "Unable to lock " + entry.getKey() + ", downloading without a lock", e);
+                    }
+                    for (final ArtifactDownload download : entry.getValue()) {
+                        if (isDownloaded(download, lock, present.contains(download))) {
+                            log.log(Level.FINE, "Artifact {0} was downloaded by another process", download.getFile());
+                        } else {
+                            pending.add(download);
+                        }
+                    }
+                }
+                delegate.get(pending, metadataDownloads);
+                transferred = true;
+
+                for (final ArtifactDownload download : pending) {
+                    if (download.isExistenceCheck() || download.getException() != null) {
+                        continue;
+                    }
+                    final LocalRepositoryLocks.Lock lock = basedir == null ? null : locks.get(LocalRepositoryLocks
+                        .lockFileOf(basedir, download.getFile()));
+                    if (lock != null) {
+                        lock.writeStamp(download.getFile().getName(), stampOf(download.getFile(),
+                            System.currentTimeMillis()));
+                    }
+                }
+            } finally {
+                final List<LocalRepositoryLocks.Lock> acquired = new ArrayList<LocalRepositoryLocks.Lock>(
+                    locks.values());
+                for (int i = acquired.size() - 1; i >= 0; i--) {
+                    acquired.get(i).release();
+                }
+                // downloads led by this thread are completed before waiting for others, so threads cannot deadlock
+                for (final Map.Entry<ArtifactDownload, SingleFlightDownloads.Ticket> entry : led.entrySet()) {
+                    final ArtifactDownload download = entry.getKey();
+                    entry.getValue().complete(transferred ? download.getException() : new ArtifactTransferException(
+                        download.getArtifact(), remoteRepository, "Download of " + download.getFile()
+                            + " failed in another thread"));
+                }
+            }
+
+            for (final Map.Entry<ArtifactDownload, SingleFlightDownloads.Ticket> entry : followed.entrySet()) {
+                final ArtifactDownload download = entry.getKey();
+                try {
+                    final ArtifactTransferException exception = entry.getValue().await();
+                    if (exception != null) {
+                        download.setException(exception);
+                    } else {
+                        log.log(Level.FINE, "Artifact {0} was downloaded by another thread", download.getFile());
+                    }
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    download.setException(new ArtifactTransferException(download.getArtifact(), remoteRepository, e));
+                }
+            }
+        }
+
+        private boolean isDownloaded(final ArtifactDownload download, final LocalRepositoryLocks.Lock lock,
+            final boolean present) {
+            final File file = download.getFile();
+            if (!file.isFile()) {
+                return false;
+            }
+            if (!present) {
+                return true;
+            }
+            final String stamp = lock == null ? null : lock.readStamp(file.getName());
+            if (stamp == null) {
+                return false;
+            }
+            final int separator = stamp.lastIndexOf('|');
+            try {
+                final long written = Long.parseLong(stamp.substring(separator + 1));
+                return written >= since && stamp.equals(stampOf(file, written));
+            } catch (final NumberFormatException e) {
+                return false;
+            }
+        }
+
+        private String stampOf(final File file, final long written) {
+            return repository + '|' + file.length() + '|' + file.lastModified() + '|' + written;
+        }
+
+        @Override
+        public void put(final Collection<? extends ArtifactUpload> artifactUploads,
+            final Collection<? extends MetadataUpload> metadataUploads) {
+            delegate.put(artifactUploads, metadataUploads);
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
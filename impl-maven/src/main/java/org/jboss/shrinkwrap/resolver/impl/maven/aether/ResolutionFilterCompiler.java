@@ -0,0 +1,339 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.aether;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenCoordinate;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependency;
+import org.jboss.shrinkwrap.resolver.api.maven.filter.AcceptAllFilter;
+import org.jboss.shrinkwrap.resolver.api.maven.filter.MavenResolutionFilter;
+import org.jboss.shrinkwrap.resolver.api.maven.filter.NonTransitiveFilter;
+import org.jboss.shrinkwrap.resolver.api.maven.filter.RejectDependenciesFilter;
+import org.jboss.shrinkwrap.resolver.api.maven.filter.ScopeFilter;
+import org.jboss.shrinkwrap.resolver.impl.maven.convert.MavenConverter;
+import org.sonatype.aether.RepositorySystemSession;
+import org.sonatype.aether.artifact.Artifact;
+import org.sonatype.aether.collection.DependencyCollectionContext;
+import org.sonatype.aether.collection.DependencyTraverser;
+import org.sonatype.aether.graph.Dependency;
+import org.sonatype.aether.graph.DependencyFilter;
+import org.sonatype.aether.graph.DependencyNode;
+import org.sonatype.aether.util.FilterRepositorySystemSession;
+import org.sonatype.aether.util.graph.traverser.StaticDependencyTraverser;
+
+/**
+ * Compiles an array of {@link MavenResolutionFilter}s into a single Aether {@link DependencyFilter}.
+ *
+ * Built-in filters are replaced by lookups into hashed groupId, artifactId, packaging and classifier sets computed once per
+ * resolution, {@link DependencyNodeFilter}s are evaluated on Aether dependencies directly and a graph node is converted
+ * into a {@link MavenDependency} at most once, and only if there is a filter left which requires it.
+ *
+ * Non transitive resolutions might also be pushed down into dependency graph collection, see
+ * {@link #pruneCollection(RepositorySystemSession, MavenResolutionFilter[])}.
+ */
+public final class ResolutionFilterCompiler {
+
+    /**
+     * System property which enables pruning of non transitive resolutions, see
+     * {@link #pruneCollection(RepositorySystemSession, MavenResolutionFilter[])}
+     */
+    public static final String PRUNE_NON_TRANSITIVE_COLLECTION = "org.jboss.shrinkwrap.resolver.maven.prune-non-transitive";
+
+    /**
+     * No instantiation
+     */
+    private ResolutionFilterCompiler() {
+        throw new UnsupportedOperationException("No instantiation");
+    }
+
+    /**
+     * Compiles filters into a single {@link DependencyFilter}. Filters are evaluated in the given order.
+     *
+     * @param filters
+     *        Filters to be compiled, might be empty
+     * @param dependenciesForResolution
+     *        Dependencies explicitly specified for resolution
+     * @return The compiled filter
+     */
+    public static DependencyFilter compile(final MavenResolutionFilter[] filters,
+        final List<MavenDependency> dependenciesForResolution) {
+        assert filters != null : "filters must be specified, even if empty";
+        assert dependenciesForResolution != null : "dependenciesForResolution must be specified";
+
+        final List<NodePredicate> predicates = new ArrayList<NodePredicate>(filters.length);
+        Set<String> declared = null;
+        for (final MavenResolutionFilter filter : filters) {
+            if (filter instanceof AcceptAllFilter) {
+                continue;
+            } else if (filter instanceof NonTransitiveFilter) {
+                if (declared == null) {
+                    declared = keysOf(dependenciesForResolution);
+                }
+                predicates.add(new KeyPredicate(declared, true));
+            } else if (filter != null && filter.getClass() == ScopeFilter.class) {
+                predicates.add(new ScopePredicate(((ScopeFilter) filter).getAllowedScopes()));
+            } else if (filter != null && filter.getClass() == RejectDependenciesFilter.class) {
+                predicates.add(new KeyPredicate(keysOf(((RejectDependenciesFilter) filter).getBannedCoordinates()),
+                    false));
+            } else if (filter instanceof DependencyNodeFilter) {
+                predicates.add(new NodeFilterPredicate((DependencyNodeFilter) filter, dependenciesForResolution));
+            } else {
+                predicates.add(new ConvertingPredicate(filter, dependenciesForResolution));
+            }
+        }
+        return new CompiledFilter(predicates.toArray(new NodePredicate[predicates.size()]));
+    }
+
+    /**
+     * Returns a session which prunes the dependency graph already during collection, if enabled by
+     * {@link #PRUNE_NON_TRANSITIVE_COLLECTION} and the filters allow to do so. Otherwise, the original session is returned.
+     *
+     * Filters are applied to a fully collected graph and a node rejected by a filter does not hide its children, which
+     * might also take part in version and scope mediation of nodes in other branches. This means that subtrees of nodes
+     * rejected by {@link RejectDependenciesFilter} or {@link ScopeFilter} must always be collected. The only case where
+     * pruning does not change the resolved artifacts is a {@link NonTransitiveFilter} combined with filters which neither
+     * depend on scope nor version: only direct dependencies can pass and these always win version mediation, so their
+     * children are not collected at all. As the dependency tree of a resolved artifact is still exposed via
+     * {@link org.jboss.shrinkwrap.resolver.api.maven.MavenArtifactInfo#getDependencies()}, which will be empty for pruned
+     * dependencies, pruning has to be enabled explicitly.
+     *
+     * @param session
+     *        The session used for the resolution
+     * @param filters
+     *        Resolution filters
+     * @return The session to be used for collection
+     */
+    public static RepositorySystemSession pruneCollection(final RepositorySystemSession session,
+        final MavenResolutionFilter[] filters) {
+        assert filters != null : "filters must be specified, even if empty";
+
+        if (!Boolean.valueOf(SecurityActions.getProperty(PRUNE_NON_TRANSITIVE_COLLECTION))) {
+            return session;
+        }
+
+        boolean nonTransitive = false;
+        for (final MavenResolutionFilter filter : filters) {
+            if (filter instanceof NonTransitiveFilter) {
+                nonTransitive = true;
+            } else if (!(filter instanceof AcceptAllFilter)
+                && (filter == null || filter.getClass() != RejectDependenciesFilter.class)) {
+                return session;
+            }
+        }
+        if (!nonTransitive) {
+            return session;
+        }
+        return new DirectDependenciesSession(session);
+    }
+
+    private static Set<String> keysOf(final Collection<? extends MavenCoordinate> coordinates) {
+        final Set<String> keys = new HashSet<String>(coordinates.size() * 2);
+        for (final MavenCoordinate coordinate : coordinates) {
+            keys.add(key(coordinate.getGroupId(), coordinate.getArtifactId(), coordinate.getPackaging().toString(),
+                coordinate.getClassifier()));
+        }
+        return keys;
+    }
+
+    private static String key(final String groupId, final String artifactId, final String packaging,
+        final String classifier) {
+        return new StringBuilder(groupId.length() + artifactId.length() + packaging.length() + classifier.length() + 3)
+            .append(groupId).append(':').append(artifactId).append(':').append(packaging).append(':')
+            .append(classifier).toString();
+    }
+
+    /**
+     * A single compiled filter. Implementations are called with a non-null dependency and the node conversion shared by
+     * all predicates of a node.
+     */
+    private interface NodePredicate {
+        boolean accepts(Dependency dependency, NodeConversion conversion);
+    }
+
+    /**
+     * Lazily computed views of a single dependency graph node
+     */
+    private static final class NodeConversion {
+        private final Dependency dependency;
+        private String key;
+        private MavenDependency converted;
+
+        NodeConversion(final Dependency dependency) {
+            this.dependency = dependency;
+        }
+
+        String key() {
+            if (key == null) {
+                final Artifact artifact = dependency.getArtifact();
+                key = ResolutionFilterCompiler.key(artifact.getGroupId(), artifact.getArtifactId(),
+                    artifact.getExtension(), artifact.getClassifier());
+            }
+            return key;
+        }
+
+        MavenDependency converted() {
+            if (converted == null) {
+                converted = MavenConverter.fromDependency(dependency);
+            }
+            return converted;
+        }
+    }
+
+    private static final class KeyPredicate implements NodePredicate {
+        private final Set<String> keys;
+        private final boolean acceptContained;
+
+        KeyPredicate(final Set<String> keys, final boolean acceptContained) {
+            this.keys = keys;
+            this.acceptContained = acceptContained;
+        }
+
+        @Override
+        public boolean accepts(final Dependency dependency, final NodeConversion conversion) {
+            return keys.contains(conversion.key()) == acceptContained;
+        }
+    }
+
+    private static final class ScopePredicate implements NodePredicate {
+        private final Set<String> scopes;
+
+        ScopePredicate(final Set<ScopeType> allowedScopes) {
+            this.scopes = new HashSet<String>(allowedScopes.size() * 2);
+            for (final ScopeType scope : allowedScopes) {
+                scopes.add(scope.toString());
+                // empty scope is interpreted as compile scope
+                if (scope == ScopeType.COMPILE) {
+                    scopes.add("");
+                }
+            }
+        }
+
+        @Override
+        public boolean accepts(final Dependency dependency, final NodeConversion conversion) {
+            final String scope = dependency.getScope();
+            return scopes.contains(scope == null ? "" : scope);
+        }
+    }
+
+    private static final class NodeFilterPredicate implements NodePredicate {
+        private final DependencyNodeFilter filter;
+        private final List<MavenDependency> dependenciesForResolution;
+
+        NodeFilterPredicate(final DependencyNodeFilter filter, final List<MavenDependency> dependenciesForResolution) {
+            this.filter = filter;
+            this.dependenciesForResolution = dependenciesForResolution;
+        }
+
+        @Override
+        public boolean accepts(final Dependency dependency, final NodeConversion conversion) {
+            return filter.accepts(dependency, dependenciesForResolution);
+        }
+    }
+
+    private static final class ConvertingPredicate implements NodePredicate {
+        private final MavenResolutionFilter filter;
+        private final List<MavenDependency> dependenciesForResolution;
+
+        ConvertingPredicate(final MavenResolutionFilter filter, final List<MavenDependency> dependenciesForResolution) {
+            this.filter = filter;
+            this.dependenciesForResolution = dependenciesForResolution;
+        }
+
+        @Override
+        public boolean accepts(final Dependency dependency, final NodeConversion conversion) {
+            return filter.accepts(conversion.converted(), dependenciesForResolution);
+        }
+    }
+
+    /**
+     * Session collecting only direct dependencies
+     */
+    private static final class DirectDependenciesSession extends FilterRepositorySystemSession {
+        private final DependencyTraverser traverser;
+
+        DirectDependenciesSession(final RepositorySystemSession session) {
+            super(session);
+            this.traverser = new DirectDependenciesTraverser(session.getDependencyTraverser());
+        }
+
+        @Override
+        public DependencyTraverser getDependencyTraverser() {
+            return traverser;
+        }
+    }
+
+    /**
+     * Traverses the root of the graph, but none of its children
+     */
+    private static final class DirectDependenciesTraverser implements DependencyTraverser {
+        private static final DependencyTraverser NONE = new StaticDependencyTraverser(false);
+
+        private final DependencyTraverser delegate;
+
+        DirectDependenciesTraverser(final DependencyTraverser delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean traverseDependency(final Dependency dependency) {
+            return delegate == null || delegate.traverseDependency(dependency);
+        }
+
+        @Override
+        public DependencyTraverser deriveChildTraverser(final DependencyCollectionContext context) {
+            return NONE;
+        }
+    }
+
+    private static final class CompiledFilter implements DependencyFilter {
+        private final NodePredicate[] predicates;
+
+        CompiledFilter(final NodePredicate[] predicates) {
+            this.predicates = predicates;
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @see org.sonatype.aether.graph.DependencyFilter#accept(org.sonatype.aether.graph.DependencyNode,
+         *      java.util.List)
+         */
+        @Override
+        public boolean accept(final DependencyNode node, final List<DependencyNode> parents) {
+            final Dependency dependency = node.getDependency();
+            if (dependency == null) {
+                return false;
+            }
+
+            final NodeConversion conversion = new NodeConversion(dependency);
+            for (final NodePredicate predicate : predicates) {
+                if (!predicate.accepts(dependency, conversion)) {
+                    return false;
+                }
+            }
+
+            // All filters passed
+            return true;
+        }
+    }
+}
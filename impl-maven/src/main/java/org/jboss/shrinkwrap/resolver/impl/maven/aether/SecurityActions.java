@@ -16,7 +16,10 @@
  */
 package org.jboss.shrinkwrap.resolver.impl.maven.aether;
 
+import java.lang.reflect.Method;
+import java.nio.MappedByteBuffer;
 import java.security.AccessController;
+import java.security.PrivilegedAction;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
 
@@ -78,4 +81,31 @@ final class SecurityActions {
             }
         }
     }
+
+    /**
+     * Releases the mapping of the buffer immediately instead of waiting for garbage collection. The buffer must not be
+     * accessed afterwards.
+     *
+     * @param buffer
+     * @return {@code true} if the mapping was released, {@code false} if the JVM does not allow to do so
+     */
+    static boolean unmap(final MappedByteBuffer buffer) {
+        return AccessController.doPrivileged(new PrivilegedAction<Boolean>() {
+            @Override
+            public Boolean run() {
+                try {
+                    final Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                    cleanerMethod.setAccessible(true);
+                    final Object cleaner = cleanerMethod.invoke(buffer);
+                    if (cleaner == null) {
+                        return false;
+                    }
+                    cleaner.getClass().getMethod("clean").invoke(cleaner);
+                    return true;
+                } catch (final Exception e) {
+                    return false;
+                }
+            }
+        });
+    }
 }
@@ -0,0 +1,146 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.aether;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import org.sonatype.aether.transfer.ArtifactTransferException;
+
+/**
+ * Registry of downloads in progress in the JVM. The first thread requesting a resource leads the download, threads
+ * requesting the same resource meanwhile wait for the leader and share its result instead of transferring the resource
+ * again.
+ *
+ * Registry is striped by the key of the resource, so unrelated downloads do not contend on a single monitor.
+ */
+final class SingleFlightDownloads {
+
+    private static final int STRIPES = 32;
+
+    private static final Stripe[] REGISTRY = new Stripe[STRIPES];
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            REGISTRY[i] = new Stripe();
+        }
+    }
+
+    private SingleFlightDownloads() {
+        throw new UnsupportedOperationException("No instantiation");
+    }
+
+    /**
+     * Gets key of a resource
+     *
+     * @param repository
+     *            Identification of the remote repository
+     * @param path
+     *            Path of the resource in the local repository
+     * @return
+     */
+    static String keyOf(final String repository, final String path) {
+        return repository + '|' + path;
+    }
+
+    /**
+     * Joins the download of a resource. The caller either leads the download and has to {@link Ticket#complete complete}
+     * it, or it has to {@link Ticket#await() wait} for the leader.
+     *
+     * @param key
+     *            Key of the resource
+     * @return
+     */
+    static Ticket join(final String key) {
+        final Stripe stripe = REGISTRY[(key.hashCode() & 0x7fffffff) % STRIPES];
+        synchronized (stripe) {
+            final Flight flight = stripe.flights.get(key);
+            if (flight != null) {
+                return new Ticket(stripe, key, flight, false);
+            }
+            final Flight started = new Flight();
+            stripe.flights.put(key, started);
+            return new Ticket(stripe, key, started, true);
+        }
+    }
+
+    private static final class Stripe {
+        private final Map<String, Flight> flights = new HashMap<String, Flight>();
+    }
+
+    private static final class Flight {
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile ArtifactTransferException exception;
+    }
+
+    /**
+     * Participation of a thread in a download
+     */
+    static final class Ticket {
+        private final Stripe stripe;
+        private final String key;
+        private final Flight flight;
+        private final boolean leader;
+
+        private Ticket(final Stripe stripe, final String key, final Flight flight, final boolean leader) {
+            this.stripe = stripe;
+            this.key = key;
+            this.flight = flight;
+            this.leader = leader;
+        }
+
+        /**
+         * Returns {@code true} if the thread leads the download
+         *
+         * @return
+         */
+        boolean isLeader() {
+            return leader;
+        }
+
+        /**
+         * Completes the download and wakes up all waiting threads. Threads joining afterwards start a new download.
+         *
+         * @param exception
+         *            Failure of the download or {@code null} if it succeeded
+         * @throws IllegalStateException
+         *             If the thread does not lead the download
+         */
+        void complete(final ArtifactTransferException exception) throws IllegalStateException {
+            if (!leader) {
+                throw new IllegalStateException("Download of " + key + " is led by another thread");
+            }
+            synchronized (stripe) {
+                stripe.flights.remove(key);
+            }
+            flight.exception = exception;
+            flight.done.countDown();
+        }
+
+        /**
+         * Waits until the leader completes the download
+         *
+         * @return Failure of the download or {@code null} if it succeeded
+         * @throws InterruptedException
+         *             If the thread was interrupted while waiting
+         */
+        ArtifactTransferException await() throws InterruptedException {
+            flight.done.await();
+            return flight.exception;
+        }
+    }
+}
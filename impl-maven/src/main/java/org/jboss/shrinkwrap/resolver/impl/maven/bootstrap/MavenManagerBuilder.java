@@ -21,9 +21,12 @@ import java.io.File;
 import org.apache.maven.settings.Mirror;
 import org.apache.maven.settings.Proxy;
 import org.apache.maven.settings.Settings;
+import org.jboss.shrinkwrap.resolver.impl.maven.aether.IndexedLocalRepositoryManager;
 import org.jboss.shrinkwrap.resolver.impl.maven.convert.MavenConverter;
 import org.jboss.shrinkwrap.resolver.impl.maven.logging.LogRepositoryListener;
 import org.jboss.shrinkwrap.resolver.impl.maven.logging.LogTransferListener;
+import org.jboss.shrinkwrap.resolver.impl.maven.metrics.MetricsRepositoryListener;
+import org.jboss.shrinkwrap.resolver.impl.maven.metrics.MetricsTransferListener;
 import org.jboss.shrinkwrap.resolver.impl.maven.util.Validate;
 import org.sonatype.aether.RepositoryListener;
 import org.sonatype.aether.RepositorySystem;
@@ -33,6 +36,8 @@ import org.sonatype.aether.repository.MirrorSelector;
 import org.sonatype.aether.repository.ProxySelector;
 import org.sonatype.aether.repository.WorkspaceReader;
 import org.sonatype.aether.transfer.TransferListener;
+import org.sonatype.aether.util.listener.ChainedRepositoryListener;
+import org.sonatype.aether.util.listener.ChainedTransferListener;
 import org.sonatype.aether.util.repository.DefaultMirrorSelector;
 import org.sonatype.aether.util.repository.DefaultProxySelector;
 
@@ -74,25 +79,26 @@ class MavenManagerBuilder {
     }
 
     /**
-     * Gets the transfer listener
+     * Gets the transfer listener, which logs transfers and feeds them to metrics
      *
      * @return the listener
      */
     public TransferListener transferListerer() {
-        return new LogTransferListener();
+        return new ChainedTransferListener(new LogTransferListener(), new MetricsTransferListener());
     }
 
     /**
-     * Get the repository listener
+     * Get the repository listener, which logs repository events and feeds artifact resolutions to metrics
      *
      * @return the listener
      */
     public RepositoryListener repositoryListener() {
-        return new LogRepositoryListener();
+        return new ChainedRepositoryListener(new LogRepositoryListener(), new MetricsRepositoryListener());
     }
 
     /**
-     * Gets manager for local repository
+     * Gets manager for local repository. The manager is backed by an index of the local repository if enabled by
+     * {@link IndexedLocalRepositoryManager#INDEXED_LOCAL_REPOSITORY}
      *
      * @return the manager
      */
@@ -103,8 +109,9 @@ class MavenManagerBuilder {
 
         LocalRepositoryType repositoryType = settings.isOffline() ? LocalRepositoryType.SIMPLE
             : LocalRepositoryType.ENHANCED;
-        return system.newLocalRepositoryManager(new LocalRepository(new File(localRepositoryPath), repositoryType
-            .contentType()));
+        LocalRepositoryManager manager = system.newLocalRepositoryManager(new LocalRepository(new File(
+            localRepositoryPath), repositoryType.contentType()));
+        return IndexedLocalRepositoryManager.isEnabled() ? new IndexedLocalRepositoryManager(manager) : manager;
     }
 
     /**
@@ -19,7 +19,6 @@ package org.jboss.shrinkwrap.resolver.impl.maven.bootstrap;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.List;
 
 import org.apache.maven.model.building.DefaultModelBuilderFactory;
 import org.apache.maven.model.building.ModelBuilder;
@@ -29,15 +28,17 @@ import org.apache.maven.settings.Settings;
 import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependency;
 import org.jboss.shrinkwrap.resolver.api.maven.filter.MavenResolutionFilter;
 import org.jboss.shrinkwrap.resolver.impl.maven.MavenWorkingSession;
-import org.jboss.shrinkwrap.resolver.impl.maven.convert.MavenConverter;
+import org.jboss.shrinkwrap.resolver.impl.maven.aether.AtomicFileProcessor;
+import org.jboss.shrinkwrap.resolver.impl.maven.aether.LockingRepositoryConnectorFactory;
+import org.jboss.shrinkwrap.resolver.impl.maven.aether.ResolutionFilterCompiler;
+import org.jboss.shrinkwrap.resolver.impl.maven.metrics.Phase;
+import org.jboss.shrinkwrap.resolver.impl.maven.metrics.ResolverMetrics;
 import org.sonatype.aether.RepositorySystem;
 import org.sonatype.aether.RepositorySystemSession;
 import org.sonatype.aether.collection.CollectRequest;
+import org.sonatype.aether.collection.CollectResult;
 import org.sonatype.aether.collection.DependencyCollectionException;
 import org.sonatype.aether.connector.wagon.WagonProvider;
-import org.sonatype.aether.connector.wagon.WagonRepositoryConnectorFactory;
-import org.sonatype.aether.graph.Dependency;
-import org.sonatype.aether.graph.DependencyNode;
 import org.sonatype.aether.impl.internal.DefaultServiceLocator;
 import org.sonatype.aether.resolution.ArtifactRequest;
 import org.sonatype.aether.resolution.ArtifactResolutionException;
@@ -46,6 +47,7 @@ import org.sonatype.aether.resolution.DependencyRequest;
 import org.sonatype.aether.resolution.DependencyResolutionException;
 import org.sonatype.aether.resolution.DependencyResult;
 import org.sonatype.aether.spi.connector.RepositoryConnectorFactory;
+import org.sonatype.aether.spi.io.FileProcessor;
 
 /**
  * Abstraction of the repository system for purposes of dependency resolution used by Maven
@@ -108,9 +110,49 @@ public class MavenRepositorySystem {
     public Collection<ArtifactResult> resolveDependencies(final RepositorySystemSession repoSession,
             final MavenWorkingSession swrSession, final CollectRequest request, final MavenResolutionFilter[] filters)
             throws DependencyResolutionException {
-        final DependencyRequest depRequest = new DependencyRequest(request, new MavenResolutionFilterWrap(filters,
+        final RepositorySystemSession session = ResolutionFilterCompiler.pruneCollection(repoSession, filters);
+        final DependencyRequest depRequest = new DependencyRequest(request, ResolutionFilterCompiler.compile(filters,
                 Collections.unmodifiableList(new ArrayList<MavenDependency>(swrSession.getDependenciesForResolution()))));
-        DependencyResult result = system.resolveDependencies(repoSession, depRequest);
+
+        // graph is collected separately from resolution of artifacts, so time of each phase is measured; failures are
+        // reported the same way as if the repository system did both
+        CollectResult collectResult;
+        DependencyCollectionException collectionFailure = null;
+        boolean collected = false;
+        final long collectionStart = System.nanoTime();
+        try {
+            collectResult = system.collectDependencies(session, request);
+            collected = true;
+        } catch (DependencyCollectionException e) {
+            collectionFailure = e;
+            collectResult = e.getResult();
+        } finally {
+            ResolverMetrics.getInstance().phase(Phase.COLLECTION).record(collectionStart, collected);
+        }
+        if (collectResult.getRoot() == null) {
+            throw new DependencyResolutionException(new DependencyResult(depRequest), collectionFailure);
+        }
+        depRequest.setRoot(collectResult.getRoot());
+
+        DependencyResult result;
+        boolean resolved = false;
+        final long resolutionStart = System.nanoTime();
+        try {
+            result = system.resolveDependencies(session, depRequest);
+            resolved = true;
+        } catch (DependencyResolutionException e) {
+            if (collectionFailure == null) {
+                throw e;
+            }
+            result = e.getResult();
+        } finally {
+            ResolverMetrics.getInstance().phase(Phase.RESOLUTION).record(resolutionStart, resolved);
+        }
+        result.setCollectExceptions(collectResult.getExceptions());
+
+        if (collectionFailure != null) {
+            throw new DependencyResolutionException(result, collectionFailure);
+        }
         return result.getArtifactResults();
     }
 
@@ -127,7 +169,15 @@ public class MavenRepositorySystem {
      */
     public ArtifactResult resolveArtifact(RepositorySystemSession session, ArtifactRequest request)
             throws ArtifactResolutionException {
-        return system.resolveArtifact(session, request);
+        boolean resolved = false;
+        final long start = System.nanoTime();
+        try {
+            final ArtifactResult result = system.resolveArtifact(session, request);
+            resolved = true;
+            return result;
+        } finally {
+            ResolverMetrics.getInstance().phase(Phase.RESOLUTION).record(start, resolved);
+        }
     }
 
     /**
@@ -141,46 +191,13 @@ public class MavenRepositorySystem {
         final DefaultServiceLocator locator = new MavenServiceLocator();
         locator.setServices(ModelBuilder.class, new DefaultModelBuilderFactory().newInstance());
         locator.setServices(WagonProvider.class, new ManualWagonProvider());
-        locator.addService(RepositoryConnectorFactory.class, WagonRepositoryConnectorFactory.class);
+        if (LockingRepositoryConnectorFactory.isEnabled()) {
+            locator.setServices(FileProcessor.class, new AtomicFileProcessor());
+        }
+        locator.addService(RepositoryConnectorFactory.class, LockingRepositoryConnectorFactory.class);
 
         final RepositorySystem repositorySystem = locator.getService(RepositorySystem.class);
         return repositorySystem;
     }
 
 }
-
-class MavenResolutionFilterWrap implements org.sonatype.aether.graph.DependencyFilter {
-    private final MavenResolutionFilter[] filters;
-    private final List<MavenDependency> dependenciesForResolution;
-
-    public MavenResolutionFilterWrap(final MavenResolutionFilter[] filters,
-            final List<MavenDependency> dependenciesForResolution) {
-        assert filters != null : "filters must be specified, even if empty";
-        assert dependenciesForResolution != null : "declaredDependencies must be specified";
-        this.dependenciesForResolution = dependenciesForResolution;
-        this.filters = filters;
-    }
-
-    /**
-     * {@inheritDoc}
-     *
-     * @see org.sonatype.aether.graph.DependencyFilter#accept(org.sonatype.aether.graph.DependencyNode, java.util.List)
-     */
-    @Override
-    public boolean accept(final DependencyNode node, List<DependencyNode> parents) {
-        Dependency dependency = node.getDependency();
-        if (dependency == null) {
-            return false;
-        }
-
-        for (final MavenResolutionFilter filter : filters) {
-            if (!filter.accepts(MavenConverter.fromDependency(dependency), dependenciesForResolution)) {
-                return false;
-            }
-        }
-
-        // All filters passed
-        return true;
-    }
-
-}
@@ -36,6 +36,8 @@ import org.apache.maven.settings.building.SettingsBuildingRequest;
 import org.apache.maven.settings.building.SettingsBuildingResult;
 import org.apache.maven.settings.building.SettingsProblem;
 import org.jboss.shrinkwrap.resolver.api.InvalidConfigurationFileException;
+import org.jboss.shrinkwrap.resolver.impl.maven.metrics.Phase;
+import org.jboss.shrinkwrap.resolver.impl.maven.metrics.ResolverMetrics;
 
 /**
  * Builds Maven settings from arbitrary settings.xml file
@@ -104,6 +106,18 @@ public class MavenSettingsBuilder {
      * The request for new settings
      */
     public Settings buildSettings(SettingsBuildingRequest request) {
+        boolean built = false;
+        final long start = System.nanoTime();
+        try {
+            final Settings settings = build(request);
+            built = true;
+            return settings;
+        } finally {
+            ResolverMetrics.getInstance().phase(Phase.SETTINGS_BUILDING).record(start, built);
+        }
+    }
+
+    private Settings build(SettingsBuildingRequest request) {
         SettingsBuildingResult result;
         try {
             SettingsBuilder builder = new DefaultSettingsBuilderFactory().newInstance();
@@ -1,7 +1,7 @@
 package org.jboss.shrinkwrap.resolver.impl.maven.format;
 
 import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
-import org.jboss.shrinkwrap.resolver.spi.format.FormatProcessor;
+import org.jboss.shrinkwrap.resolver.spi.format.ConcurrentFormatProcessor;
 
 /**
  * A format processor which returns {@link MavenResolvedArtifact}. As {@link MavenResolvedArtifact} is the default format for
@@ -9,7 +9,8 @@ import org.jboss.shrinkwrap.resolver.spi.format.FormatProcessor;
  *
  * @author <a href="mailto:kpiwko@redhat.com">Karel Piwko</a>
  */
-public class MavenResolvedArtifactProcessor implements FormatProcessor<MavenResolvedArtifact, MavenResolvedArtifact> {
+public class MavenResolvedArtifactProcessor implements
+    ConcurrentFormatProcessor<MavenResolvedArtifact, MavenResolvedArtifact> {
 
     @Override
     public boolean handles(final Class<?> resolvedTypeClass) {
@@ -0,0 +1,187 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free histogram of durations with fixed, roughly exponential buckets. Recording a duration costs a few atomic
+ * increments, so it can be used on every transfer and resolution phase.
+ */
+public final class LatencyHistogram {
+
+    /**
+     * Inclusive upper bounds of the buckets in milliseconds; the last bucket counts everything longer than the last bound
+     */
+    private static final long[] BOUNDS = new long[] { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000,
+        30000, 60000 };
+
+    private final AtomicLongArray counts = new AtomicLongArray(BOUNDS.length + 1);
+    private final AtomicLong totalMillis = new AtomicLong();
+    private final AtomicLong maxMillis = new AtomicLong();
+
+    /**
+     * Gets inclusive upper bounds of the buckets in milliseconds. The histogram has one more bucket than bounds, which
+     * counts durations longer than the last bound.
+     *
+     * @return
+     */
+    public static long[] getBounds() {
+        return BOUNDS.clone();
+    }
+
+    /**
+     * Records a duration
+     *
+     * @param millis
+     *            Duration in milliseconds, negative durations are recorded as zero
+     */
+    public void record(final long millis) {
+        final long duration = Math.max(0, millis);
+        counts.incrementAndGet(bucketOf(duration));
+        totalMillis.addAndGet(duration);
+        long max = maxMillis.get();
+        while (duration > max && !maxMillis.compareAndSet(max, duration)) {
+            max = maxMillis.get();
+        }
+    }
+
+    /**
+     * Creates an immutable copy of the histogram. Durations recorded concurrently might be partially reflected only.
+     *
+     * @return
+     */
+    public Snapshot snapshot() {
+        final long[] copy = new long[counts.length()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new Snapshot(copy, totalMillis.get(), maxMillis.get());
+    }
+
+    void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        totalMillis.set(0);
+        maxMillis.set(0);
+    }
+
+    private static int bucketOf(final long millis) {
+        for (int i = 0; i < BOUNDS.length; i++) {
+            if (millis <= BOUNDS[i]) {
+                return i;
+            }
+        }
+        return BOUNDS.length;
+    }
+
+    /**
+     * Immutable state of a {@link LatencyHistogram}
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long totalMillis;
+        private final long maxMillis;
+
+        Snapshot(final long[] counts, final long totalMillis, final long maxMillis) {
+            this.counts = counts;
+            long count = 0;
+            for (final long bucket : counts) {
+                count += bucket;
+            }
+            this.count = count;
+            this.totalMillis = totalMillis;
+            this.maxMillis = maxMillis;
+        }
+
+        /**
+         * Gets number of recorded durations
+         *
+         * @return
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Gets sum of all recorded durations in milliseconds
+         *
+         * @return
+         */
+        public long getTotalMillis() {
+            return totalMillis;
+        }
+
+        /**
+         * Gets the longest recorded duration in milliseconds
+         *
+         * @return
+         */
+        public long getMaxMillis() {
+            return maxMillis;
+        }
+
+        /**
+         * Gets mean duration in milliseconds or {@code 0} if nothing was recorded
+         *
+         * @return
+         */
+        public double getMeanMillis() {
+            return count == 0 ? 0 : (double) totalMillis / count;
+        }
+
+        /**
+         * Gets number of durations in each bucket, see {@link LatencyHistogram#getBounds()}
+         *
+         * @return
+         */
+        public long[] getCounts() {
+            return counts.clone();
+        }
+
+        /**
+         * Estimates a percentile of recorded durations as the upper bound of the bucket the percentile falls into. The
+         * estimate never exceeds {@link #getMaxMillis()}.
+         *
+         * @param percentile
+         *            Percentile, between {@code 0} and {@code 100}
+         * @return Estimated duration in milliseconds or {@code 0} if nothing was recorded
+         * @throws IllegalArgumentException
+         *             If the percentile is out of range
+         */
+        public long getPercentileMillis(final double percentile) throws IllegalArgumentException {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 100, was " + percentile);
+            }
+            if (count == 0) {
+                return 0;
+            }
+            final long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return i < BOUNDS.length ? Math.min(BOUNDS[i], maxMillis) : maxMillis;
+                }
+            }
+            return maxMillis;
+        }
+    }
+}
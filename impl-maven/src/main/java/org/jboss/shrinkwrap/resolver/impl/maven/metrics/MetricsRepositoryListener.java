@@ -0,0 +1,53 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.metrics;
+
+import org.sonatype.aether.AbstractRepositoryListener;
+import org.sonatype.aether.RepositoryEvent;
+import org.sonatype.aether.repository.ArtifactRepository;
+import org.sonatype.aether.repository.WorkspaceRepository;
+
+/**
+ * A listener which feeds artifact resolutions to {@link ResolverMetrics}, distinguishing artifacts found by the
+ * workspace reader, in the local repository and in a remote repository.
+ *
+ * The repository of a resolved artifact does not tell whether it was downloaded, the local repository manager reports
+ * the remote repository an artifact originally came from. Downloads are therefore counted separately.
+ */
+public class MetricsRepositoryListener extends AbstractRepositoryListener {
+
+    private final ResolverMetrics metrics = ResolverMetrics.getInstance();
+
+    @Override
+    public void artifactResolved(final RepositoryEvent event) {
+        final ArtifactRepository repository = event.getRepository();
+        if (event.getFile() == null || repository == null) {
+            metrics.artifactFailure();
+        } else if (repository instanceof WorkspaceRepository) {
+            metrics.workspaceHit();
+        } else {
+            metrics.repositoryResolution();
+        }
+    }
+
+    @Override
+    public void artifactDownloaded(final RepositoryEvent event) {
+        if (event.getException() == null) {
+            metrics.remoteResolution();
+        }
+    }
+}
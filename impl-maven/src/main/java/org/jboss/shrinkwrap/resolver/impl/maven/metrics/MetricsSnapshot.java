@@ -0,0 +1,237 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Immutable copy of {@link ResolverMetrics}
+ */
+public final class MetricsSnapshot {
+
+    private final long workspaceHits;
+    private final long localRepositoryHits;
+    private final long remoteResolutions;
+    private final long artifactFailures;
+    private final Map<String, RepositoryStatistics> repositories;
+    private final Map<Phase, PhaseStatistics> phases;
+
+    MetricsSnapshot(final long workspaceHits, final long localRepositoryHits, final long remoteResolutions,
+        final long artifactFailures, final Map<String, RepositoryStatistics> repositories,
+        final Map<Phase, PhaseStatistics> phases) {
+        this.workspaceHits = workspaceHits;
+        this.localRepositoryHits = localRepositoryHits;
+        this.remoteResolutions = remoteResolutions;
+        this.artifactFailures = artifactFailures;
+        this.repositories = Collections.unmodifiableMap(repositories);
+        this.phases = Collections.unmodifiableMap(phases);
+    }
+
+    /**
+     * Gets number of artifacts resolved, regardless of where they were found
+     *
+     * @return
+     */
+    public long getArtifactsResolved() {
+        return workspaceHits + localRepositoryHits + remoteResolutions;
+    }
+
+    /**
+     * Gets number of artifacts found by the workspace reader
+     *
+     * @return
+     */
+    public long getWorkspaceHits() {
+        return workspaceHits;
+    }
+
+    /**
+     * Gets number of artifacts found in the local repository
+     *
+     * @return
+     */
+    public long getLocalRepositoryHits() {
+        return localRepositoryHits;
+    }
+
+    /**
+     * Gets number of artifacts which had to be downloaded from a remote repository
+     *
+     * @return
+     */
+    public long getRemoteResolutions() {
+        return remoteResolutions;
+    }
+
+    /**
+     * Gets number of artifacts which could not be resolved
+     *
+     * @return
+     */
+    public long getArtifactFailures() {
+        return artifactFailures;
+    }
+
+    /**
+     * Gets ratio of resolved artifacts found by the workspace reader or {@code 0} if nothing was resolved
+     *
+     * @return
+     */
+    public double getWorkspaceHitRatio() {
+        return ratio(workspaceHits, getArtifactsResolved());
+    }
+
+    /**
+     * Gets ratio of artifacts not found by the workspace reader which were found in the local repository or {@code 0} if
+     * there are no such artifacts
+     *
+     * @return
+     */
+    public double getLocalRepositoryHitRatio() {
+        return ratio(localRepositoryHits, localRepositoryHits + remoteResolutions);
+    }
+
+    /**
+     * Gets statistics of accessed remote repositories, by URL
+     *
+     * @return
+     */
+    public Map<String, RepositoryStatistics> getRepositories() {
+        return repositories;
+    }
+
+    /**
+     * Gets statistics of all resolution phases
+     *
+     * @return
+     */
+    public Map<Phase, PhaseStatistics> getPhases() {
+        return phases;
+    }
+
+    private static double ratio(final long part, final long total) {
+        return total == 0 ? 0 : (double) part / total;
+    }
+
+    /**
+     * Transfer statistics of a remote repository, see {@link RepositoryMetricsMBean} for description of the values
+     */
+    public static final class RepositoryStatistics {
+        private final String url;
+        private final long requests;
+        private final long downloads;
+        private final long uploads;
+        private final long bytesDownloaded;
+        private final long bytesUploaded;
+        private final long failures;
+        private final long corrupted;
+        private final LatencyHistogram.Snapshot latency;
+
+        RepositoryStatistics(final String url, final long requests, final long downloads, final long uploads,
+            final long bytesDownloaded, final long bytesUploaded, final long failures, final long corrupted,
+            final LatencyHistogram.Snapshot latency) {
+            this.url = url;
+            this.requests = requests;
+            this.downloads = downloads;
+            this.uploads = uploads;
+            this.bytesDownloaded = bytesDownloaded;
+            this.bytesUploaded = bytesUploaded;
+            this.failures = failures;
+            this.corrupted = corrupted;
+            this.latency = latency;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public long getDownloads() {
+            return downloads;
+        }
+
+        public long getUploads() {
+            return uploads;
+        }
+
+        public long getBytesDownloaded() {
+            return bytesDownloaded;
+        }
+
+        public long getBytesUploaded() {
+            return bytesUploaded;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        public long getCorrupted() {
+            return corrupted;
+        }
+
+        /**
+         * Gets latencies of completed transfers
+         *
+         * @return
+         */
+        public LatencyHistogram.Snapshot getLatency() {
+            return latency;
+        }
+    }
+
+    /**
+     * Statistics of a resolution phase
+     */
+    public static final class PhaseStatistics {
+        private final Phase phase;
+        private final long failures;
+        private final LatencyHistogram.Snapshot durations;
+
+        PhaseStatistics(final Phase phase, final long failures, final LatencyHistogram.Snapshot durations) {
+            this.phase = phase;
+            this.failures = failures;
+            this.durations = durations;
+        }
+
+        public Phase getPhase() {
+            return phase;
+        }
+
+        /**
+         * Gets number of executions of the phase which failed
+         *
+         * @return
+         */
+        public long getFailures() {
+            return failures;
+        }
+
+        /**
+         * Gets durations of all executions of the phase
+         *
+         * @return
+         */
+        public LatencyHistogram.Snapshot getDurations() {
+            return durations;
+        }
+    }
+}
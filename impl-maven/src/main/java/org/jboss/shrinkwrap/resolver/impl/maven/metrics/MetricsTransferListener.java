@@ -0,0 +1,52 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.metrics;
+
+import org.sonatype.aether.transfer.AbstractTransferListener;
+import org.sonatype.aether.transfer.TransferEvent;
+import org.sonatype.aether.transfer.TransferResource;
+
+/**
+ * A listener which feeds transfer events to {@link ResolverMetrics}
+ */
+public class MetricsTransferListener extends AbstractTransferListener {
+
+    private final ResolverMetrics metrics = ResolverMetrics.getInstance();
+
+    @Override
+    public void transferInitiated(final TransferEvent event) {
+        metrics.repository(event.getResource().getRepositoryUrl()).transferInitiated();
+    }
+
+    @Override
+    public void transferSucceeded(final TransferEvent event) {
+        final TransferResource resource = event.getResource();
+        metrics.repository(resource.getRepositoryUrl()).transferSucceeded(
+            event.getRequestType() == TransferEvent.RequestType.PUT, event.getTransferredBytes(),
+            System.currentTimeMillis() - resource.getTransferStartTime());
+    }
+
+    @Override
+    public void transferFailed(final TransferEvent event) {
+        metrics.repository(event.getResource().getRepositoryUrl()).transferFailed();
+    }
+
+    @Override
+    public void transferCorrupted(final TransferEvent event) {
+        metrics.repository(event.getResource().getRepositoryUrl()).transferCorrupted();
+    }
+}
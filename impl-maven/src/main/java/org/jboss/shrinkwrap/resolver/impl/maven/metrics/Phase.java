@@ -0,0 +1,43 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.metrics;
+
+/**
+ * Timed phases of a resolution
+ */
+public enum Phase {
+
+    /**
+     * Building of Maven settings
+     */
+    SETTINGS_BUILDING,
+
+    /**
+     * Building of the effective POM model
+     */
+    MODEL_BUILDING,
+
+    /**
+     * Collection of the dependency graph
+     */
+    COLLECTION,
+
+    /**
+     * Resolution of artifacts of the collected graph or of a single artifact
+     */
+    RESOLUTION
+}
@@ -0,0 +1,97 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Durations and failures of a {@link Phase}
+ */
+public final class PhaseMetrics implements PhaseMetricsMBean {
+
+    private final Phase phase;
+    private final LatencyHistogram durations = new LatencyHistogram();
+    private final AtomicLong failures = new AtomicLong();
+
+    PhaseMetrics(final Phase phase) {
+        this.phase = phase;
+    }
+
+    /**
+     * Records an execution of the phase
+     *
+     * @param startNanos
+     *            Value of {@link System#nanoTime()} at the start of the phase
+     * @param succeeded
+     *            Whether the phase succeeded
+     */
+    public void record(final long startNanos, final boolean succeeded) {
+        durations.record((System.nanoTime() - startNanos) / 1000000L);
+        if (!succeeded) {
+            failures.incrementAndGet();
+        }
+    }
+
+    @Override
+    public String getPhase() {
+        return phase.name();
+    }
+
+    @Override
+    public long getCount() {
+        return durations.snapshot().getCount();
+    }
+
+    @Override
+    public long getFailures() {
+        return failures.get();
+    }
+
+    @Override
+    public long getTotalMillis() {
+        return durations.snapshot().getTotalMillis();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return durations.snapshot().getMeanMillis();
+    }
+
+    @Override
+    public long getMaxMillis() {
+        return durations.snapshot().getMaxMillis();
+    }
+
+    @Override
+    public long[] getDurationBucketBoundsMillis() {
+        return LatencyHistogram.getBounds();
+    }
+
+    @Override
+    public long[] getDurationBucketCounts() {
+        return durations.snapshot().getCounts();
+    }
+
+    MetricsSnapshot.PhaseStatistics snapshot() {
+        return new MetricsSnapshot.PhaseStatistics(phase, failures.get(), durations.snapshot());
+    }
+
+    void reset() {
+        durations.reset();
+        failures.set(0);
+    }
+}
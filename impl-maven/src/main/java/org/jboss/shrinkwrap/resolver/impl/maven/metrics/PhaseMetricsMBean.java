@@ -0,0 +1,79 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.metrics;
+
+/**
+ * Management interface of {@link PhaseMetrics}
+ */
+public interface PhaseMetricsMBean {
+
+    /**
+     * Gets name of the phase
+     *
+     * @return
+     */
+    String getPhase();
+
+    /**
+     * Gets number of executions of the phase
+     *
+     * @return
+     */
+    long getCount();
+
+    /**
+     * Gets number of executions of the phase which failed
+     *
+     * @return
+     */
+    long getFailures();
+
+    /**
+     * Gets time spent in the phase in milliseconds
+     *
+     * @return
+     */
+    long getTotalMillis();
+
+    /**
+     * Gets mean duration of the phase in milliseconds
+     *
+     * @return
+     */
+    double getMeanMillis();
+
+    /**
+     * Gets the longest duration of the phase in milliseconds
+     *
+     * @return
+     */
+    long getMaxMillis();
+
+    /**
+     * Gets inclusive upper bounds of the duration buckets in milliseconds
+     *
+     * @return
+     */
+    long[] getDurationBucketBoundsMillis();
+
+    /**
+     * Gets number of executions in each duration bucket
+     *
+     * @return
+     */
+    long[] getDurationBucketCounts();
+}
@@ -0,0 +1,138 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transfer statistics of a single remote repository
+ */
+public final class RepositoryMetrics implements RepositoryMetricsMBean {
+
+    private final String url;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong downloads = new AtomicLong();
+    private final AtomicLong uploads = new AtomicLong();
+    private final AtomicLong bytesDownloaded = new AtomicLong();
+    private final AtomicLong bytesUploaded = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong corrupted = new AtomicLong();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    RepositoryMetrics(final String url) {
+        this.url = url;
+    }
+
+    void transferInitiated() {
+        requests.incrementAndGet();
+    }
+
+    void transferSucceeded(final boolean upload, final long bytes, final long millis) {
+        if (upload) {
+            uploads.incrementAndGet();
+            bytesUploaded.addAndGet(Math.max(0, bytes));
+        } else {
+            downloads.incrementAndGet();
+            bytesDownloaded.addAndGet(Math.max(0, bytes));
+        }
+        latency.record(millis);
+    }
+
+    void transferFailed() {
+        failures.incrementAndGet();
+    }
+
+    void transferCorrupted() {
+        corrupted.incrementAndGet();
+    }
+
+    @Override
+    public String getUrl() {
+        return url;
+    }
+
+    @Override
+    public long getRequests() {
+        return requests.get();
+    }
+
+    @Override
+    public long getDownloads() {
+        return downloads.get();
+    }
+
+    @Override
+    public long getUploads() {
+        return uploads.get();
+    }
+
+    @Override
+    public long getBytesDownloaded() {
+        return bytesDownloaded.get();
+    }
+
+    @Override
+    public long getBytesUploaded() {
+        return bytesUploaded.get();
+    }
+
+    @Override
+    public long getFailures() {
+        return failures.get();
+    }
+
+    @Override
+    public long getCorrupted() {
+        return corrupted.get();
+    }
+
+    @Override
+    public double getMeanLatencyMillis() {
+        return latency.snapshot().getMeanMillis();
+    }
+
+    @Override
+    public long getMaxLatencyMillis() {
+        return latency.snapshot().getMaxMillis();
+    }
+
+    @Override
+    public long[] getLatencyBucketBoundsMillis() {
+        return LatencyHistogram.getBounds();
+    }
+
+    @Override
+    public long[] getLatencyBucketCounts() {
+        return latency.snapshot().getCounts();
+    }
+
+    MetricsSnapshot.RepositoryStatistics snapshot() {
+        return new MetricsSnapshot.RepositoryStatistics(url, requests.get(), downloads.get(), uploads.get(),
+            bytesDownloaded.get(), bytesUploaded.get(), failures.get(), corrupted.get(), latency.snapshot());
+    }
+
+    void reset() {
+        requests.set(0);
+        downloads.set(0);
+        uploads.set(0);
+        bytesDownloaded.set(0);
+        bytesUploaded.set(0);
+        failures.set(0);
+        corrupted.set(0);
+        latency.reset();
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.metrics;
+
+/**
+ * Management interface of {@link RepositoryMetrics}
+ */
+public interface RepositoryMetricsMBean {
+
+    /**
+     * Gets URL of the remote repository
+     *
+     * @return
+     */
+    String getUrl();
+
+    /**
+     * Gets number of transfers started with the repository, including existence checks and failed transfers
+     *
+     * @return
+     */
+    long getRequests();
+
+    /**
+     * Gets number of completed downloads
+     *
+     * @return
+     */
+    long getDownloads();
+
+    /**
+     * Gets number of completed uploads
+     *
+     * @return
+     */
+    long getUploads();
+
+    /**
+     * Gets number of downloaded bytes
+     *
+     * @return
+     */
+    long getBytesDownloaded();
+
+    /**
+     * Gets number of uploaded bytes
+     *
+     * @return
+     */
+    long getBytesUploaded();
+
+    /**
+     * Gets number of failed transfers, including resources not found in the repository
+     *
+     * @return
+     */
+    long getFailures();
+
+    /**
+     * Gets number of transfers with checksum failures
+     *
+     * @return
+     */
+    long getCorrupted();
+
+    /**
+     * Gets mean duration of a completed transfer in milliseconds
+     *
+     * @return
+     */
+    double getMeanLatencyMillis();
+
+    /**
+     * Gets the longest duration of a completed transfer in milliseconds
+     *
+     * @return
+     */
+    long getMaxLatencyMillis();
+
+    /**
+     * Gets inclusive upper bounds of the latency buckets in milliseconds
+     *
+     * @return
+     */
+    long[] getLatencyBucketBoundsMillis();
+
+    /**
+     * Gets number of completed transfers in each latency bucket
+     *
+     * @return
+     */
+    long[] getLatencyBucketCounts();
+}
@@ -0,0 +1,324 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registry of metrics of all resolutions performed in the JVM. Metrics are fed by {@link MetricsTransferListener},
+ * {@link MetricsRepositoryListener} and by timing of resolution {@link Phase phases}; they are available as a
+ * {@link #snapshot() snapshot} and, once {@link #register() registered}, as MBeans in the {@link #DOMAIN} domain of the
+ * platform MBean server:
+ *
+ * <ul>
+ * <li>{@code type=ResolverMetrics}, artifact resolution and cache hit ratios</li>
+ * <li>{@code type=RepositoryMetrics,url=<url>}, requests, bytes and latencies per remote repository</li>
+ * <li>{@code type=PhaseMetrics,phase=<phase>}, durations and failures of resolution phases</li>
+ * </ul>
+ *
+ * Repository URLs are stripped of user info before they are used as keys. At most {@link #MAX_REPOSITORIES}
+ * repositories are tracked separately, any further ones are counted together as {@link #OTHER_REPOSITORIES}. If another
+ * copy of the resolver, loaded by a different {@link ClassLoader}, registered its MBeans already, names of MBeans of this
+ * copy get an additional {@code instance} property. MBeans keep the {@link ClassLoader} of the resolver reachable, so
+ * they are only registered on request, either by {@link #register()} or at startup by {@link #ENABLE_JMX_METRICS}, and
+ * they should be removed by {@link #unregister()} once the resolver is not used anymore, e.g. when an application is
+ * undeployed.
+ */
+public final class ResolverMetrics implements ResolverMetricsMBean {
+    private static final Logger log = Logger.getLogger(ResolverMetrics.class.getName());
+
+    /**
+     * System property which registers MBeans of the {@link #getInstance() registry} once it is loaded, metrics are
+     * always available via {@link #snapshot()}
+     */
+    public static final String ENABLE_JMX_METRICS = "org.jboss.shrinkwrap.resolver.maven.enable-jmx-metrics";
+
+    /**
+     * Domain of registered MBeans
+     */
+    public static final String DOMAIN = "org.jboss.shrinkwrap.resolver";
+
+    /**
+     * Maximal number of remote repositories with metrics of their own
+     */
+    public static final int MAX_REPOSITORIES = 64;
+
+    /**
+     * Key of metrics shared by repositories accessed after {@link #MAX_REPOSITORIES} were tracked
+     */
+    public static final String OTHER_REPOSITORIES = "other";
+
+    private static final ResolverMetrics INSTANCE = new ResolverMetrics();
+    static {
+        if (Boolean.valueOf(SecurityActions.getProperty(ENABLE_JMX_METRICS))) {
+            INSTANCE.register();
+        }
+    }
+
+    // MBeans registered by this copy of the resolver and their names
+    private final Map<Object, ObjectName> registered = new IdentityHashMap<Object, ObjectName>();
+    private boolean jmx;
+
+    private final ConcurrentMap<String, RepositoryMetrics> repositories = new ConcurrentHashMap<String, RepositoryMetrics>();
+    private final Map<Phase, PhaseMetrics> phases = new EnumMap<Phase, PhaseMetrics>(Phase.class);
+
+    private final AtomicLong workspaceHits = new AtomicLong();
+    // artifacts resolved from the local repository, including those downloaded into it during the resolution
+    private final AtomicLong repositoryResolutions = new AtomicLong();
+    private final AtomicLong remoteResolutions = new AtomicLong();
+    private final AtomicLong artifactFailures = new AtomicLong();
+
+    ResolverMetrics() {
+        for (final Phase phase : Phase.values()) {
+            phases.put(phase, new PhaseMetrics(phase));
+        }
+    }
+
+    /**
+     * Gets the registry
+     *
+     * @return
+     */
+    public static ResolverMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Gets metrics of a phase
+     *
+     * @param phase
+     * @return
+     */
+    public PhaseMetrics phase(final Phase phase) {
+        return phases.get(phase);
+    }
+
+    /**
+     * Gets metrics of a remote repository, registering them if the repository was not accessed yet. Once
+     * {@link #MAX_REPOSITORIES} are tracked, metrics of {@link #OTHER_REPOSITORIES} are returned for any new
+     * repository.
+     *
+     * @param url
+     *            URL of the repository, user info is ignored
+     * @return
+     */
+    public RepositoryMetrics repository(final String url) {
+        final String key = withoutUserInfo(url);
+        RepositoryMetrics metrics = repositories.get(key);
+        if (metrics != null) {
+            return metrics;
+        }
+        synchronized (repositories) {
+            final String tracked = repositories.containsKey(key) || repositories.size() < MAX_REPOSITORIES ? key
+                : OTHER_REPOSITORIES;
+            metrics = repositories.get(tracked);
+            if (metrics == null) {
+                metrics = new RepositoryMetrics(tracked);
+                repositories.put(tracked, metrics);
+                register(metrics);
+            }
+            return metrics;
+        }
+    }
+
+    /**
+     * Removes user info, which might contain credentials, from the URL
+     *
+     * @param url
+     * @return
+     */
+    static String withoutUserInfo(final String url) {
+        if (url == null) {
+            return "";
+        }
+        final int scheme = url.indexOf("://");
+        if (scheme < 0) {
+            return url;
+        }
+        final int authority = scheme + 3;
+        int path = url.indexOf('/', authority);
+        if (path < 0) {
+            path = url.length();
+        }
+        final int userInfo = url.lastIndexOf('@', path - 1);
+        if (userInfo < authority) {
+            return url;
+        }
+        return url.substring(0, authority) + url.substring(userInfo + 1);
+    }
+
+    void workspaceHit() {
+        workspaceHits.incrementAndGet();
+    }
+
+    void repositoryResolution() {
+        repositoryResolutions.incrementAndGet();
+    }
+
+    void remoteResolution() {
+        remoteResolutions.incrementAndGet();
+    }
+
+    void artifactFailure() {
+        artifactFailures.incrementAndGet();
+    }
+
+    /**
+     * Creates an immutable copy of all metrics
+     *
+     * @return
+     */
+    public MetricsSnapshot snapshot() {
+        final Map<String, MetricsSnapshot.RepositoryStatistics> repositoryStatistics = new LinkedHashMap<String, MetricsSnapshot.RepositoryStatistics>();
+        for (final RepositoryMetrics repository : repositories.values()) {
+            repositoryStatistics.put(repository.getUrl(), repository.snapshot());
+        }
+        final Map<Phase, MetricsSnapshot.PhaseStatistics> phaseStatistics = new EnumMap<Phase, MetricsSnapshot.PhaseStatistics>(
+            Phase.class);
+        for (final Map.Entry<Phase, PhaseMetrics> phase : phases.entrySet()) {
+            phaseStatistics.put(phase.getKey(), phase.getValue().snapshot());
+        }
+        final long remote = remoteResolutions.get();
+        return new MetricsSnapshot(workspaceHits.get(), Math.max(0, repositoryResolutions.get() - remote), remote,
+            artifactFailures.get(), repositoryStatistics, phaseStatistics);
+    }
+
+    @Override
+    public long getArtifactsResolved() {
+        return snapshot().getArtifactsResolved();
+    }
+
+    @Override
+    public long getWorkspaceHits() {
+        return workspaceHits.get();
+    }
+
+    @Override
+    public long getLocalRepositoryHits() {
+        return snapshot().getLocalRepositoryHits();
+    }
+
+    @Override
+    public long getRemoteResolutions() {
+        return remoteResolutions.get();
+    }
+
+    @Override
+    public long getArtifactFailures() {
+        return artifactFailures.get();
+    }
+
+    @Override
+    public double getWorkspaceHitRatio() {
+        return snapshot().getWorkspaceHitRatio();
+    }
+
+    @Override
+    public double getLocalRepositoryHitRatio() {
+        return snapshot().getLocalRepositoryHitRatio();
+    }
+
+    @Override
+    public String[] getRepositoryUrls() {
+        return repositories.keySet().toArray(new String[0]);
+    }
+
+    @Override
+    public void reset() {
+        workspaceHits.set(0);
+        repositoryResolutions.set(0);
+        remoteResolutions.set(0);
+        artifactFailures.set(0);
+        for (final RepositoryMetrics repository : repositories.values()) {
+            repository.reset();
+        }
+        for (final PhaseMetrics phase : phases.values()) {
+            phase.reset();
+        }
+    }
+
+    /**
+     * Registers MBeans of all metrics in the platform MBean server, metrics of repositories accessed later are
+     * registered as well until {@link #unregister()} is called
+     */
+    public synchronized void register() {
+        jmx = true;
+        register("type=ResolverMetrics", this);
+        for (final PhaseMetrics phase : phases.values()) {
+            register("type=PhaseMetrics,phase=" + phase.getPhase(), phase);
+        }
+        for (final RepositoryMetrics repository : repositories.values()) {
+            register(repository);
+        }
+    }
+
+    @Override
+    public synchronized void unregister() {
+        jmx = false;
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            for (final ObjectName name : registered.values()) {
+                try {
+                    server.unregisterMBean(name);
+                } catch (final JMException e) {
+                    log.log(Level.FINE, "Unable to unregister metrics " + name, e);
+                }
+            }
+        } catch (final SecurityException e) {
+            log.log(Level.FINE, "Unable to unregister metrics", e);
+        }
+        registered.clear();
+    }
+
+    private void register(final RepositoryMetrics repository) {
+        register("type=RepositoryMetrics,url=" + ObjectName.quote(repository.getUrl()), repository);
+    }
+
+    private synchronized void register(final String properties, final Object mbean) {
+        if (!jmx || registered.containsKey(mbean)) {
+            return;
+        }
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(DOMAIN + ":" + properties);
+            // another copy of the resolver, loaded by a different ClassLoader, might have registered it already
+            if (server.isRegistered(name)) {
+                name = new ObjectName(DOMAIN + ":" + properties + ",instance="
+                    + Integer.toHexString(System.identityHashCode(this)));
+            }
+            server.registerMBean(mbean, name);
+            registered.put(mbean, name);
+        } catch (final JMException e) {
+            log.log(Level.FINE, "Unable to register metrics " + properties, e);
+        } catch (final SecurityException e) {
+            log.log(Level.FINE, "Unable to register metrics " + properties, e);
+        }
+    }
+}
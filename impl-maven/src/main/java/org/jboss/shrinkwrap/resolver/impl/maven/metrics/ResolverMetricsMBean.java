@@ -0,0 +1,89 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.metrics;
+
+/**
+ * Management interface of {@link ResolverMetrics}
+ */
+public interface ResolverMetricsMBean {
+
+    /**
+     * Gets number of artifacts resolved, regardless of where they were found
+     *
+     * @return
+     */
+    long getArtifactsResolved();
+
+    /**
+     * Gets number of artifacts found by the workspace reader
+     *
+     * @return
+     */
+    long getWorkspaceHits();
+
+    /**
+     * Gets number of artifacts found in the local repository
+     *
+     * @return
+     */
+    long getLocalRepositoryHits();
+
+    /**
+     * Gets number of artifacts which had to be downloaded from a remote repository
+     *
+     * @return
+     */
+    long getRemoteResolutions();
+
+    /**
+     * Gets number of artifacts which could not be resolved
+     *
+     * @return
+     */
+    long getArtifactFailures();
+
+    /**
+     * Gets ratio of resolved artifacts found by the workspace reader
+     *
+     * @return
+     */
+    double getWorkspaceHitRatio();
+
+    /**
+     * Gets ratio of artifacts not found by the workspace reader which were found in the local repository
+     *
+     * @return
+     */
+    double getLocalRepositoryHitRatio();
+
+    /**
+     * Gets URLs of remote repositories which were accessed
+     *
+     * @return
+     */
+    String[] getRepositoryUrls();
+
+    /**
+     * Resets all metrics, including repository and phase metrics
+     */
+    void reset();
+
+    /**
+     * Unregisters all MBeans of this copy of the resolver, metrics are still collected and available via snapshots
+     */
+    void unregister();
+}
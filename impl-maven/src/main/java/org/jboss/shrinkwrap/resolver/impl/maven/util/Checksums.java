@@ -0,0 +1,153 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Checksums of files, either read from checksum files stored next to them, as in Maven repositories, or computed
+ */
+public final class Checksums {
+
+    /**
+     * SHA-1 algorithm, stored in {@code .sha1} files
+     */
+    public static final String SHA1 = "SHA-1";
+
+    /**
+     * MD5 algorithm, stored in {@code .md5} files
+     */
+    public static final String MD5 = "MD5";
+
+    /**
+     * No instantiation
+     */
+    private Checksums() {
+        throw new UnsupportedOperationException("No instantiation");
+    }
+
+    /**
+     * Reads checksum of a file from its checksum file, e.g. {@code artifact.jar.sha1} for {@link #SHA1}. A checksum
+     * file modified before the file is not trusted, as the file was replaced since the checksum was stored.
+     *
+     * @param file
+     * @param algorithm
+     *        {@link #SHA1} or {@link #MD5}
+     * @return Checksum as a lowercase hexadecimal string or {@code null} if there is no valid checksum file
+     */
+    public static String read(final File file, final String algorithm) {
+        final File checksum = new File(file.getPath() + '.' + extensionOf(algorithm));
+        if (!checksum.isFile() || checksum.lastModified() < file.lastModified()) {
+            return null;
+        }
+        try {
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(checksum),
+                "UTF-8"));
+            try {
+                final String line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+                // checksum may be followed by the file name
+                final String value = line.trim().split("\\s+")[0].toLowerCase();
+                return isHex(value, digest(algorithm).getDigestLength() * 2) ? value : null;
+            } finally {
+                reader.close();
+            }
+        } catch (final IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Computes checksum of a file
+     *
+     * @param file
+     * @param algorithm
+     *        {@link #SHA1} or {@link #MD5}
+     * @return Checksum as a lowercase hexadecimal string
+     * @throws IOException
+     *         If the file could not be read
+     */
+    public static String compute(final File file, final String algorithm) throws IOException {
+        final MessageDigest digest = digest(algorithm);
+        final InputStream in = new DigestInputStream(new FileInputStream(file), digest);
+        try {
+            final byte[] buffer = new byte[8192];
+            while (in.read(buffer) != -1) {
+                // digested while reading
+            }
+        } finally {
+            in.close();
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Creates a new digest
+     *
+     * @param algorithm
+     * @return
+     * @throws IllegalStateException
+     *         If the algorithm is not supported by the platform
+     */
+    public static MessageDigest digest(final String algorithm) throws IllegalStateException {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(algorithm + " is not supported by the platform", e);
+        }
+    }
+
+    /**
+     * Formats bytes as a lowercase hexadecimal string
+     *
+     * @param bytes
+     * @return
+     */
+    public static String toHex(final byte[] bytes) {
+        final StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (final byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+
+    private static String extensionOf(final String algorithm) {
+        return algorithm.replace("-", "").toLowerCase();
+    }
+
+    private static boolean isHex(final String value, final int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (Character.digit(value.charAt(i), 16) == -1) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import junit.framework.Assert;
+
+import org.jboss.shrinkwrap.resolver.api.maven.MavenArtifactInfo;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenCoordinates;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Ensures that checksums of resolved artifacts are read from checksum files if available and computed otherwise
+ */
+public class ArtifactChecksumsTestCase {
+
+    private static final String SHA1 = "040f06fd774092478d450774f5ba30c5da78acc8";
+    private static final String MD5 = "9a0364b9e99bb480dd25e1f0284c8555";
+    private static final String STORED_SHA1 = "0123456789abcdef0123456789abcdef01234567";
+    private static final String STORED_MD5 = "0123456789abcdef0123456789abcdef";
+
+    private File file;
+
+    @Before
+    public void createArtifactFile() throws IOException {
+        file = new File("target/artifact-checksums/artifact.jar");
+        file.getParentFile().mkdirs();
+        write(file, "content");
+        new File(file.getPath() + ".sha1").delete();
+        new File(file.getPath() + ".md5").delete();
+    }
+
+    @Test
+    public void computedWithoutChecksumFile() {
+        final MavenResolvedArtifact artifact = artifact();
+        Assert.assertEquals(SHA1, artifact.getSha1());
+        Assert.assertEquals(MD5, artifact.getMd5());
+    }
+
+    @Test
+    public void readFromChecksumFile() throws IOException {
+        write(new File(file.getPath() + ".sha1"), STORED_SHA1.toUpperCase() + "  artifact.jar\n");
+        Assert.assertEquals("Checksum file is trusted", STORED_SHA1, artifact().getSha1());
+    }
+
+    @Test
+    public void invalidChecksumFileIsIgnored() throws IOException {
+        write(new File(file.getPath() + ".sha1"), "not a checksum");
+        Assert.assertEquals(SHA1, artifact().getSha1());
+    }
+
+    @Test
+    public void staleChecksumFileIsIgnored() throws IOException {
+        final File checksum = new File(file.getPath() + ".md5");
+        write(checksum, STORED_MD5);
+        file.setLastModified(checksum.lastModified() + 2000);
+        Assert.assertEquals("Checksum file older than the artifact is not trusted", MD5, artifact().getMd5());
+    }
+
+    @Test
+    public void checksumsAreMemoized() throws IOException {
+        final MavenResolvedArtifact artifact = artifact();
+        Assert.assertEquals(SHA1, artifact.getSha1());
+
+        write(new File(file.getPath() + ".sha1"), STORED_SHA1);
+        Assert.assertEquals("Checksum is kept by the artifact", SHA1, artifact.getSha1());
+        Assert.assertEquals("New artifact reads the checksum again", STORED_SHA1, artifact().getSha1());
+    }
+
+    private MavenResolvedArtifact artifact() {
+        return new MavenResolvedArtifactImpl(MavenCoordinates.createCoordinate("org.jboss.test:artifact:1.0"), "1.0",
+            false, "jar", ScopeType.COMPILE, file, new MavenArtifactInfo[0]);
+    }
+
+    private static void write(final File file, final String content) throws IOException {
+        final Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+}
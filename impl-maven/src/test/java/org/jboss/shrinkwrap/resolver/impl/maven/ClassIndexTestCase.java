@@ -0,0 +1,158 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import junit.framework.Assert;
+
+import org.jboss.shrinkwrap.resolver.api.maven.MavenArtifactInfo;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenClassIndex;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenCoordinates;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Ensures that {@link MavenClassIndex} finds artifacts of classes and packages and reuses stored lists of classes
+ */
+public class ClassIndexTestCase {
+
+    private static final File DIRECTORY = new File("target/class-index");
+
+    private MavenResolvedArtifact first;
+    private MavenResolvedArtifact second;
+    private MavenResolvedArtifact pom;
+
+    @Before
+    public void createArtifacts() throws IOException {
+        DIRECTORY.mkdirs();
+        first = artifact(jar("first.jar", "org/example/first/First.class", "org/example/shared/Shared.class",
+            "org/example/shared/Shared$Inner.class", "META-INF/MANIFEST.MF"));
+        second = artifact(jar("second.jar", "org/example/second/Second.class", "org/example/shared/Other.class",
+            "Default.class"));
+        final File pomFile = new File(DIRECTORY, "artifact.pom");
+        write(pomFile, "<project/>");
+        pom = artifact(pomFile);
+        for (final String name : new String[] { "first.jar", "second.jar" }) {
+            new File(DIRECTORY, name + ClassIndex.CLASS_LIST_SUFFIX).delete();
+        }
+    }
+
+    @Test
+    public void findClasses() {
+        final MavenClassIndex index = stage().asClassIndex();
+
+        assertArtifacts(index.findClass("org.example.first.First"), first);
+        assertArtifacts(index.findClass("org.example.shared.Shared$Inner"), first);
+        assertArtifacts(index.findClass("Default"), second);
+        assertArtifacts(index.findClass("org.example.Missing"));
+    }
+
+    @Test
+    public void findPackages() {
+        final MavenClassIndex index = stage().asClassIndex();
+
+        assertArtifacts(index.findPackage("org.example.shared"), first, second);
+        assertArtifacts(index.findPackage("org.example.second"), second);
+        assertArtifacts(index.findPackage(""), second);
+        Assert.assertEquals(Collections.singleton("org.example.shared"), index.getSplitPackages());
+    }
+
+    @Test
+    public void storedClassListIsReused() throws IOException {
+        stage().asClassIndex();
+        final File classList = new File(DIRECTORY, "first.jar" + ClassIndex.CLASS_LIST_SUFFIX);
+        Assert.assertTrue("List of classes was stored next to the artifact", classList.isFile());
+        Assert.assertFalse("Nothing is stored for other artifacts",
+            new File(DIRECTORY, "artifact.pom" + ClassIndex.CLASS_LIST_SUFFIX).exists());
+
+        final File jar = first.asFile();
+        write(classList, "# " + jar.length() + " " + jar.lastModified() + "\norg.example.Stored\n");
+        assertArtifacts(stage().asClassIndex().findClass("org.example.Stored"), first);
+
+        jar.setLastModified(jar.lastModified() + 2000);
+        final MavenClassIndex rescanned = stage().asClassIndex();
+        assertArtifacts(rescanned.findClass("org.example.Stored"));
+        assertArtifacts(rescanned.findClass("org.example.first.First"), first);
+    }
+
+    @Test
+    public void nothingIsStoredOutsideLocalRepository() throws IOException {
+        final File classList = new File(DIRECTORY, "first.jar" + ClassIndex.CLASS_LIST_SUFFIX);
+
+        stage(new File("target/class-index-repository")).asClassIndex();
+        new MavenFormatStageImpl(Arrays.asList(first, pom, second)).asClassIndex();
+        Assert.assertFalse("List of classes was not stored next to the artifact", classList.exists());
+
+        final File jar = first.asFile();
+        write(classList, "# " + jar.length() + " " + jar.lastModified() + "\norg.example.Stored\n");
+        final MavenClassIndex index = stage(new File("target/class-index-repository")).asClassIndex();
+        assertArtifacts(index.findClass("org.example.Stored"));
+        assertArtifacts(index.findClass("org.example.first.First"), first);
+    }
+
+    private MavenFormatStageImpl stage() {
+        return stage(DIRECTORY);
+    }
+
+    private MavenFormatStageImpl stage(final File localRepository) {
+        return new MavenFormatStageImpl(Arrays.asList(first, pom, second), new ResolutionReportImpl(), localRepository);
+    }
+
+    private static void assertArtifacts(final MavenResolvedArtifact[] found, final MavenResolvedArtifact... expected) {
+        Assert.assertEquals(Arrays.asList(expected), Arrays.asList(found));
+    }
+
+    private static MavenResolvedArtifact artifact(final File file) {
+        final String name = file.getName().substring(0, file.getName().lastIndexOf('.'));
+        return new MavenResolvedArtifactImpl(MavenCoordinates.createCoordinate("org.jboss.test:" + name + ":1.0"), "1.0",
+            false, "jar", ScopeType.COMPILE, file, new MavenArtifactInfo[0]);
+    }
+
+    private static File jar(final String name, final String... entries) throws IOException {
+        final File file = new File(DIRECTORY, name);
+        final JarOutputStream out = new JarOutputStream(new FileOutputStream(file));
+        try {
+            for (final String entry : entries) {
+                out.putNextEntry(new ZipEntry(entry));
+                out.closeEntry();
+            }
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    private static void write(final File file, final String content) throws IOException {
+        final Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenCoordinates;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependencies;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependency;
+import org.junit.Test;
+import org.sonatype.aether.graph.Dependency;
+
+/**
+ * Ensures that dependency management is looked up by groupId, artifactId, packaging and classifier only
+ */
+public class DependencyManagementIndexTestCase {
+
+    @Test
+    public void lookupIgnoresVersionAndScope() {
+        final DependencyManagementIndex index = new DependencyManagementIndex();
+        index.add(dependency("org.jboss:a:1.0", ScopeType.RUNTIME));
+        index.add(dependency("org.jboss:a:jar:tests:2.0", ScopeType.TEST));
+
+        final MavenDependency versionless = dependency("org.jboss:a", ScopeType.COMPILE);
+        Assert.assertEquals("1.0", index.get(versionless).getVersion());
+        Assert.assertEquals("2.0", index.get(dependency("org.jboss:a:jar:tests:3.0", ScopeType.COMPILE)).getVersion());
+        Assert.assertNull(index.get(dependency("org.jboss:a:war:1.0", ScopeType.COMPILE)));
+    }
+
+    @Test
+    public void firstEntryWins() {
+        final DependencyManagementIndex index = new DependencyManagementIndex();
+        Assert.assertTrue(index.add(dependency("org.jboss:a:1.0", ScopeType.COMPILE)));
+        Assert.assertFalse(index.add(dependency("org.jboss:a:2.0", ScopeType.TEST)));
+
+        Assert.assertEquals(1, index.size());
+        Assert.assertEquals("1.0", index.get(MavenCoordinates.createCoordinate("org.jboss:a:3.0")).getVersion());
+    }
+
+    @Test
+    public void aetherDependenciesFollowChanges() {
+        final DependencyManagementIndex index = new DependencyManagementIndex();
+        index.add(dependency("org.jboss:a:1.0", ScopeType.COMPILE));
+        Assert.assertEquals(1, index.asDependencies().size());
+
+        index.add(dependency("org.jboss:b:1.0", ScopeType.COMPILE));
+        final List<Dependency> dependencies = index.asDependencies();
+        Assert.assertEquals(2, dependencies.size());
+        Assert.assertEquals("a", dependencies.get(0).getArtifact().getArtifactId());
+        Assert.assertEquals("b", dependencies.get(1).getArtifact().getArtifactId());
+    }
+
+    @Test
+    public void manyEntries() {
+        final DependencyManagementIndex index = new DependencyManagementIndex();
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue(index.add(dependency("org.jboss:a" + i + ":1." + i, ScopeType.COMPILE)));
+        }
+
+        Assert.assertEquals(100, index.size());
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals("1." + i, index.get(MavenCoordinates.createCoordinate("org.jboss:a" + i + ":2.0"))
+                .getVersion());
+        }
+        int position = 0;
+        for (final MavenDependency dependency : index) {
+            Assert.assertEquals("Iteration follows insertion order", "a" + position++, dependency.getArtifactId());
+        }
+    }
+
+    private static MavenDependency dependency(final String coordinates, final ScopeType scope) {
+        return MavenDependencies.createDependency(coordinates, scope, false);
+    }
+}
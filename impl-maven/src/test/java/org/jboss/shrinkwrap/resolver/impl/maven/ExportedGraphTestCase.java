@@ -0,0 +1,132 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import junit.framework.Assert;
+
+import org.jboss.shrinkwrap.resolver.api.Resolvers;
+import org.jboss.shrinkwrap.resolver.api.maven.InvalidEnvironmentException;
+import org.jboss.shrinkwrap.resolver.api.maven.Maven;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenArtifactInfo;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenExportedGraphResolverSystem;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenExportedGraphStage;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
+import org.junit.Test;
+
+/**
+ * Ensures that dependencies exported by the ShrinkWrap Maven Resolver Plugin are imported without resolution
+ */
+public class ExportedGraphTestCase {
+
+    private static final File GRAPH_DIR = new File("target/exported-graph");
+
+    @Test
+    public void runtimeDependencies() throws IOException {
+        final MavenExportedGraphStage stage = load(writeGraph());
+
+        final MavenResolvedArtifact[] artifacts = stage.importRuntimeDependencies().asResolvedArtifact();
+        Assert.assertEquals("Test scoped artifacts are not on runtime classpath", 2, artifacts.length);
+        Assert.assertEquals("org.jboss:a:jar:1.0", artifacts[0].getCoordinate().toCanonicalForm());
+        Assert.assertEquals(ScopeType.COMPILE, artifacts[0].getScope());
+        Assert.assertEquals(new File(GRAPH_DIR, "a.jar").getAbsoluteFile(), artifacts[0].asFile());
+        Assert.assertEquals("org.jboss:b:jar:2.0-SNAPSHOT", artifacts[1].getCoordinate().toCanonicalForm());
+        Assert.assertEquals("2.0-20120101.101010-1", artifacts[1].getResolvedVersion());
+        Assert.assertTrue("Snapshot is recognized from base version", artifacts[1].isSnapshotVersion());
+        Assert.assertEquals(ScopeType.RUNTIME, artifacts[1].getScope());
+    }
+
+    @Test
+    public void allDependencies() throws IOException {
+        final MavenExportedGraphStage stage = load(writeGraph());
+
+        Assert.assertEquals(3, stage.importRuntimeAndTestDependencies().asResolvedArtifact().length);
+        final MavenResolvedArtifact[] tests = stage.importDependenciesByScope().scopes(ScopeType.TEST)
+            .asResolvedArtifact();
+        Assert.assertEquals(1, tests.length);
+        Assert.assertEquals("org.jboss:c:jar:tests:1.0", tests[0].getCoordinate().toCanonicalForm());
+    }
+
+    @Test
+    public void dependenciesFollowParents() throws IOException {
+        final MavenResolvedArtifact a = load(writeGraph()).importRuntimeDependencies().asResolvedArtifact()[0];
+
+        final MavenArtifactInfo[] dependencies = a.getDependencies();
+        Assert.assertEquals("Artifact a brought in artifact b", 1, dependencies.length);
+        Assert.assertEquals("org.jboss:b:jar:2.0-SNAPSHOT", dependencies[0].getCoordinate().toCanonicalForm());
+        Assert.assertEquals(0, dependencies[0].getDependencies().length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectUnknownFormat() throws IOException {
+        load(write("unknown.txt", "# something else\n"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectMalformedLine() throws IOException {
+        load(write("malformed.txt", MavenExportedGraphStageImpl.HEADER + "\norg.jboss:a:jar:1.0\t1.0\tcompile\n"));
+    }
+
+    @Test(expected = InvalidEnvironmentException.class)
+    public void requirePluginEnvironment() {
+        System.clearProperty(MavenExportedGraphResolverSystemImpl.RESOLVED_GRAPH_KEY);
+        Maven.resolvedGraphViaPlugin();
+    }
+
+    @Test
+    public void loadViaPluginProperty() throws IOException {
+        final File graph = writeGraph();
+        System.setProperty(MavenExportedGraphResolverSystemImpl.RESOLVED_GRAPH_KEY, graph.getAbsolutePath());
+        try {
+            Assert.assertEquals(2, Maven.resolvedGraphViaPlugin().importRuntimeDependencies().asFile().length);
+        } finally {
+            System.clearProperty(MavenExportedGraphResolverSystemImpl.RESOLVED_GRAPH_KEY);
+        }
+    }
+
+    private static MavenExportedGraphStage load(final File graph) {
+        return Resolvers.use(MavenExportedGraphResolverSystem.class).loadGraph(graph);
+    }
+
+    private static File writeGraph() throws IOException {
+        final String a = write("a.jar", "").getAbsolutePath();
+        final String b = write("b.jar", "").getAbsolutePath();
+        final String c = write("c-tests.jar", "").getAbsolutePath();
+        return write("resolved-graph.txt", MavenExportedGraphStageImpl.HEADER + "\n"
+            + "org.jboss:a:jar:1.0\t1.0\tcompile\t" + a + "\t\n"
+            + "org.jboss:b:jar:2.0-SNAPSHOT\t2.0-20120101.101010-1\truntime\t" + b + "\torg.jboss:a:jar:1.0\n"
+            + "org.jboss:c:jar:tests:1.0\t1.0\ttest\t" + c + "\t\n");
+    }
+
+    private static File write(final String name, final String content) throws IOException {
+        GRAPH_DIR.mkdirs();
+        final File file = new File(GRAPH_DIR, name);
+        final Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+        return file;
+    }
+}
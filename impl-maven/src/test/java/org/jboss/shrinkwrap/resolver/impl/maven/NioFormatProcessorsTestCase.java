@@ -0,0 +1,97 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+
+import junit.framework.Assert;
+
+import org.jboss.shrinkwrap.resolver.api.maven.Maven;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenArtifactInfo;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenFormatStage;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenCoordinates;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Ensures that resolved artifacts can be formatted as {@link FileChannel}s and mapped {@link ByteBuffer}s
+ */
+public class NioFormatProcessorsTestCase {
+
+    private static final byte[] CONTENT = "content of the artifact".getBytes();
+
+    private MavenFormatStage stage;
+
+    @BeforeClass
+    public static void initializeServiceRegistry() {
+        // format processors are looked up in the registry initialized by the resolver system
+        Maven.resolver();
+    }
+
+    @Before
+    public void createArtifact() throws IOException {
+        final File file = new File("target/nio-format/artifact.jar");
+        file.getParentFile().mkdirs();
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(CONTENT);
+        } finally {
+            out.close();
+        }
+
+        final MavenResolvedArtifact artifact = new MavenResolvedArtifactImpl(
+            MavenCoordinates.createCoordinate("org.jboss.test:artifact:1.0"), "1.0", false, "jar", ScopeType.COMPILE,
+            file, new MavenArtifactInfo[0]);
+        stage = new MavenFormatStageImpl(Collections.singletonList(artifact));
+    }
+
+    @Test
+    public void asFileChannel() throws IOException {
+        final FileChannel channel = stage.asSingle(FileChannel.class);
+        try {
+            Assert.assertEquals(CONTENT.length, channel.size());
+            final ByteBuffer buffer = ByteBuffer.allocate(CONTENT.length);
+            channel.read(buffer);
+            Assert.assertTrue(ByteBuffer.wrap(CONTENT).equals(buffer.flip()));
+        } finally {
+            channel.close();
+        }
+    }
+
+    @Test
+    public void asByteBuffer() {
+        final ByteBuffer buffer = stage.asSingle(ByteBuffer.class);
+        Assert.assertTrue("Buffer is read only", buffer.isReadOnly());
+        Assert.assertTrue(ByteBuffer.wrap(CONTENT).equals(buffer));
+    }
+
+    @Test
+    public void asMappedByteBuffer() {
+        final MappedByteBuffer[] buffers = stage.inParallel().as(MappedByteBuffer.class);
+        Assert.assertEquals(1, buffers.length);
+        Assert.assertEquals(CONTENT.length, buffers[0].remaining());
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.Assert;
+
+import org.jboss.shrinkwrap.resolver.api.maven.Maven;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenArtifactInfo;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenFormatStage;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenCoordinates;
+import org.jboss.shrinkwrap.resolver.spi.format.ConcurrentFormatProcessor;
+import org.jboss.shrinkwrap.resolver.spi.format.FormatProcessor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Ensures that parallel format stages keep order of artifacts and call only concurrent processors in parallel
+ */
+public class ParallelFormatStageTestCase {
+
+    private static final int ARTIFACTS = 50;
+
+    private List<MavenResolvedArtifact> artifacts;
+    private ExecutorService pool;
+    private AtomicInteger executed;
+    private Executor executor;
+
+    @BeforeClass
+    public static void initializeServiceRegistry() {
+        // format processors are looked up in the registry initialized by the resolver system
+        Maven.resolver();
+    }
+
+    @Before
+    public void createArtifacts() throws IOException {
+        final File directory = new File("target/parallel-format");
+        directory.mkdirs();
+        artifacts = new ArrayList<MavenResolvedArtifact>();
+        for (int i = 0; i < ARTIFACTS; i++) {
+            final File file = new File(directory, "artifact-" + i + ".jar");
+            file.createNewFile();
+            artifacts.add(new MavenResolvedArtifactImpl(MavenCoordinates.createCoordinate("org.jboss.test:artifact-" + i
+                + ":1.0"), "1.0", false, "jar", ScopeType.COMPILE, file,
+                new MavenArtifactInfo[0]));
+        }
+        pool = Executors.newFixedThreadPool(4);
+        executed = new AtomicInteger();
+        executor = new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                executed.incrementAndGet();
+                pool.execute(command);
+            }
+        };
+    }
+
+    @After
+    public void shutdownPool() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void parallelKeepsOrder() {
+        final MavenFormatStage stage = new MavenFormatStageImpl(artifacts);
+
+        final File[] sequential = stage.asFile();
+        final File[] parallel = stage.inParallel(executor).asFile();
+
+        Assert.assertEquals("All artifacts were processed by the executor", ARTIFACTS, executed.get());
+        Assert.assertEquals(ARTIFACTS, parallel.length);
+        for (int i = 0; i < ARTIFACTS; i++) {
+            Assert.assertEquals("Artifact " + i + " kept its position", sequential[i], parallel[i]);
+        }
+    }
+
+    @Test
+    public void defaultExecutorKeepsOrder() {
+        final MavenResolvedArtifact[] parallel = new MavenFormatStageImpl(artifacts).inParallel().asResolvedArtifact();
+        for (int i = 0; i < ARTIFACTS; i++) {
+            Assert.assertSame(artifacts.get(i), parallel[i]);
+        }
+    }
+
+    @Test
+    public void otherProcessorsAreSequential() {
+        final FormatProcessor<MavenResolvedArtifact, String> processor = new ArtifactIdProcessor();
+
+        final String[] ids = MavenFormatStageImpl.process(artifacts, processor, String.class, executor);
+
+        Assert.assertEquals("Executor was not used", 0, executed.get());
+        Assert.assertEquals("artifact-0", ids[0]);
+        Assert.assertEquals("artifact-" + (ARTIFACTS - 1), ids[ARTIFACTS - 1]);
+    }
+
+    @Test
+    public void failuresArePropagated() {
+        final FormatProcessor<MavenResolvedArtifact, String> processor = new ConcurrentArtifactIdProcessor() {
+            @Override
+            public String process(final MavenResolvedArtifact input, final Class<String> returnType) {
+                if (input == artifacts.get(ARTIFACTS / 2)) {
+                    throw new IllegalArgumentException("Unable to process " + input);
+                }
+                return super.process(input, returnType);
+            }
+        };
+
+        try {
+            MavenFormatStageImpl.process(artifacts, processor, String.class, executor);
+            Assert.fail("Failure of a processor was propagated");
+        } catch (final IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().startsWith("Unable to process"));
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void nestedFormattingOnDefaultExecutorDoesNotDeadlock() {
+        final FormatProcessor<MavenResolvedArtifact, String> processor = new ConcurrentArtifactIdProcessor() {
+            @Override
+            public String process(final MavenResolvedArtifact input, final Class<String> returnType) {
+                // formats all artifacts again from a thread of the pool
+                final String[] ids = MavenFormatStageImpl.process(artifacts, new ConcurrentArtifactIdProcessor(),
+                    String.class, MavenFormatStageImpl.DefaultExecutor.INSTANCE);
+                Assert.assertEquals(ARTIFACTS, ids.length);
+                return super.process(input, returnType);
+            }
+        };
+
+        final String[] ids = MavenFormatStageImpl.process(artifacts, processor, String.class,
+            MavenFormatStageImpl.DefaultExecutor.INSTANCE);
+
+        Assert.assertEquals("artifact-" + (ARTIFACTS - 1), ids[ARTIFACTS - 1]);
+    }
+
+    @Test
+    public void poolThreadsDoNotInheritContextClassLoader() {
+        final Set<ClassLoader> loaders = Collections.synchronizedSet(new HashSet<ClassLoader>());
+        final FormatProcessor<MavenResolvedArtifact, String> processor = new ConcurrentArtifactIdProcessor() {
+            @Override
+            public String process(final MavenResolvedArtifact input, final Class<String> returnType) {
+                loaders.add(Thread.currentThread().getContextClassLoader());
+                return super.process(input, returnType);
+            }
+        };
+
+        final Thread current = Thread.currentThread();
+        final ClassLoader previous = current.getContextClassLoader();
+        final ClassLoader application = new URLClassLoader(new URL[0], previous);
+        current.setContextClassLoader(application);
+        try {
+            MavenFormatStageImpl.process(artifacts, processor, String.class,
+                MavenFormatStageImpl.DefaultExecutor.INSTANCE);
+        } finally {
+            current.setContextClassLoader(previous);
+        }
+
+        Assert.assertEquals("Pool threads use class loader of the resolver",
+            Collections.singleton(MavenFormatStageImpl.class.getClassLoader()), loaders);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void executorIsRequired() {
+        new MavenFormatStageImpl(artifacts).inParallel(null);
+    }
+
+    private static class ArtifactIdProcessor implements FormatProcessor<MavenResolvedArtifact, String> {
+
+        @Override
+        public boolean handles(final Class<?> resolvedTypeClass) {
+            return MavenResolvedArtifact.class.isAssignableFrom(resolvedTypeClass);
+        }
+
+        @Override
+        public boolean returns(final Class<?> returnTypeClass) {
+            return String.class.equals(returnTypeClass);
+        }
+
+        @Override
+        public String process(final MavenResolvedArtifact input, final Class<String> returnType) {
+            return input.getCoordinate().getArtifactId();
+        }
+    }
+
+    private static class ConcurrentArtifactIdProcessor extends ArtifactIdProcessor implements
+        ConcurrentFormatProcessor<MavenResolvedArtifact, String> {
+    }
+}
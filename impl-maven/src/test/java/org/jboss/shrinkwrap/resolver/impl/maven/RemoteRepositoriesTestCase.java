@@ -0,0 +1,74 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.sonatype.aether.repository.RemoteRepository;
+
+/**
+ * Ensures that memoized remote repositories of a {@link MavenWorkingSession} follow changes of the session
+ */
+public class RemoteRepositoriesTestCase {
+
+    @Test
+    public void repositoriesAreReused() {
+        final MavenWorkingSession session = new MavenWorkingSessionImpl();
+        session.setOffline(false);
+
+        final List<RemoteRepository> first = session.getRemoteRepositories();
+        final List<RemoteRepository> second = session.getRemoteRepositories();
+
+        Assert.assertEquals("Repositories are equal when session did not change", first, second);
+        Assert.assertNotSame("Callers get their own copy", first, second);
+    }
+
+    @Test
+    public void repositoriesFollowOfflineMode() {
+        final MavenWorkingSession session = new MavenWorkingSessionImpl();
+        session.setOffline(false);
+        final int online = session.getRemoteRepositories().size();
+
+        session.setOffline(true);
+        Assert.assertTrue("No repositories in offline mode", session.getRemoteRepositories().isEmpty());
+
+        session.setOffline(false);
+        Assert.assertEquals("Repositories are back in online mode", online, session.getRemoteRepositories().size());
+    }
+
+    @Test
+    public void repositoriesFollowMavenCentralUsage() {
+        final MavenWorkingSession session = new MavenWorkingSessionImpl();
+        session.setOffline(false);
+        Assert.assertTrue("Maven Central is used by default", containsCentral(session.getRemoteRepositories()));
+
+        session.disableMavenCentral();
+        Assert.assertFalse("Maven Central was disabled", containsCentral(session.getRemoteRepositories()));
+    }
+
+    private static boolean containsCentral(final List<RemoteRepository> repositories) {
+        for (final RemoteRepository repository : repositories) {
+            if ("central".equals(repository.getId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenCoordinates;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependencies;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependency;
+import org.jboss.shrinkwrap.resolver.api.maven.filter.AcceptAllFilter;
+import org.jboss.shrinkwrap.resolver.api.maven.filter.MavenResolutionFilter;
+import org.jboss.shrinkwrap.resolver.api.maven.filter.NonTransitiveFilter;
+import org.jboss.shrinkwrap.resolver.api.maven.filter.RejectDependenciesFilter;
+import org.jboss.shrinkwrap.resolver.api.maven.filter.ScopeFilter;
+import org.jboss.shrinkwrap.resolver.impl.maven.aether.DependencyNodeFilter;
+import org.jboss.shrinkwrap.resolver.impl.maven.aether.ResolutionFilterCompiler;
+import org.jboss.shrinkwrap.resolver.impl.maven.convert.MavenConverter;
+import org.junit.Test;
+import org.sonatype.aether.graph.Dependency;
+import org.sonatype.aether.graph.DependencyFilter;
+import org.sonatype.aether.graph.DependencyNode;
+import org.sonatype.aether.util.artifact.DefaultArtifact;
+import org.sonatype.aether.util.graph.DefaultDependencyNode;
+
+/**
+ * Ensures that compiled resolution filters give the same results as filters evaluated on converted dependencies
+ */
+public class ResolutionFilterCompilerTestCase {
+
+    private static final List<MavenDependency> DECLARED = Arrays.asList(
+        MavenDependencies.createDependency(MavenCoordinates.createCoordinate("org.jboss:a:1.0"), ScopeType.COMPILE, false),
+        MavenDependencies.createDependency(MavenCoordinates.createCoordinate("org.jboss:b:jar:tests:1.0"),
+            ScopeType.TEST, false));
+
+    private static final DependencyNode[] NODES = new DependencyNode[] { node("org.jboss:a:jar:2.0", "compile"),
+        node("org.jboss:a:jar:1.0", ""), node("org.jboss:b:jar:tests:1.0", "test"), node("org.jboss:b:jar:1.0", "test"),
+        node("org.jboss:c:war:1.0", "runtime"), node("org.jboss:d:jar:1.0", "provided") };
+
+    @Test
+    public void compiledFiltersMatchConvertedFilters() {
+        assertSameDecisions(new MavenResolutionFilter[] {});
+        assertSameDecisions(new MavenResolutionFilter[] { AcceptAllFilter.INSTANCE });
+        assertSameDecisions(new MavenResolutionFilter[] { NonTransitiveFilter.INSTANCE });
+        assertSameDecisions(new MavenResolutionFilter[] { new ScopeFilter(ScopeType.COMPILE, ScopeType.TEST) });
+        assertSameDecisions(new MavenResolutionFilter[] { new ScopeFilter() });
+        assertSameDecisions(new MavenResolutionFilter[] { new RejectDependenciesFilter("org.jboss:a", "org.jboss:c:war:1.0") });
+        assertSameDecisions(new MavenResolutionFilter[] { new RejectDependenciesFilter("org.jboss:b:jar:tests:1.0"),
+            new ScopeFilter(ScopeType.TEST), NonTransitiveFilter.INSTANCE });
+    }
+
+    @Test
+    public void rejectIgnoresScope() {
+        final DependencyFilter filter = ResolutionFilterCompiler.compile(
+            new MavenResolutionFilter[] { new RejectDependenciesFilter("org.jboss:b:jar:tests:1.0") }, DECLARED);
+        Assert.assertFalse("Test scoped dependency was rejected", filter.accept(NODES[2], null));
+        Assert.assertTrue("Dependency without classifier was not rejected", filter.accept(NODES[3], null));
+    }
+
+    @Test
+    public void nodeFiltersAreCalledWithoutConversion() {
+        final CountingFilter nodeFilter = new CountingFilter();
+        final DependencyFilter filter = ResolutionFilterCompiler.compile(new MavenResolutionFilter[] { nodeFilter },
+            DECLARED);
+        for (final DependencyNode node : NODES) {
+            Assert.assertTrue(filter.accept(node, null));
+        }
+        Assert.assertEquals("Node filter was called for each node", NODES.length, nodeFilter.nodeCalls);
+        Assert.assertEquals("Converted dependency was never requested", 0, nodeFilter.convertedCalls);
+    }
+
+    @Test
+    public void rootWithoutDependencyIsRejected() {
+        final DependencyFilter filter = ResolutionFilterCompiler.compile(new MavenResolutionFilter[] {}, DECLARED);
+        Assert.assertFalse(filter.accept(new DefaultDependencyNode((Dependency) null), null));
+    }
+
+    private static void assertSameDecisions(final MavenResolutionFilter[] filters) {
+        final DependencyFilter compiled = ResolutionFilterCompiler.compile(filters, DECLARED);
+        for (final DependencyNode node : NODES) {
+            boolean expected = true;
+            for (final MavenResolutionFilter filter : filters) {
+                expected &= filter.accepts(MavenConverter.fromDependency(node.getDependency()), DECLARED);
+            }
+            Assert.assertEquals("Compiled filters decide the same way for " + node.getDependency(), expected,
+                compiled.accept(node, null));
+        }
+    }
+
+    private static DependencyNode node(final String coordinates, final String scope) {
+        return new DefaultDependencyNode(new Dependency(new DefaultArtifact(coordinates), scope));
+    }
+
+    private static class CountingFilter implements DependencyNodeFilter {
+        private int nodeCalls;
+        private int convertedCalls;
+
+        @Override
+        public boolean accepts(final Dependency dependency, final List<MavenDependency> dependenciesForResolution) {
+            nodeCalls++;
+            return true;
+        }
+
+        @Override
+        public boolean accepts(final MavenDependency dependency, final List<MavenDependency> dependenciesForResolution) {
+            convertedCalls++;
+            return true;
+        }
+    }
+}
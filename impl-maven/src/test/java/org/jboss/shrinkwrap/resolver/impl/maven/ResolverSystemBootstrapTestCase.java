@@ -0,0 +1,50 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import junit.framework.Assert;
+
+import org.jboss.shrinkwrap.resolver.api.maven.Maven;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolverSystem;
+import org.jboss.shrinkwrap.resolver.spi.loader.ServiceRegistry;
+import org.junit.Test;
+
+/**
+ * Ensures that bootstrap of the service registry is shared while resolver systems are not
+ */
+public class ResolverSystemBootstrapTestCase {
+
+    @Test
+    public void serviceRegistrySurvivesResolverCreation() {
+        Maven.resolver();
+        final ServiceRegistry first = ServiceRegistry.getInstance();
+        Maven.resolver();
+        final ServiceRegistry second = ServiceRegistry.getInstance();
+
+        Assert.assertSame("Service registry is reused for the same ClassLoader", first, second);
+    }
+
+    @Test
+    public void resolverSystemsAreNotShared() {
+        final MavenResolverSystem first = Maven.resolver();
+        final MavenResolverSystem second = Maven.resolver();
+
+        Assert.assertNotSame("Each call creates a new resolver system", first, second);
+        Assert.assertNotSame("Each resolver system has its own session",
+            ((MavenResolverSystemImpl) first).getSession(), ((MavenResolverSystemImpl) second).getSession());
+    }
+}
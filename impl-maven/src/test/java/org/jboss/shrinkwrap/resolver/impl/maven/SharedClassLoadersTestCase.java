@@ -0,0 +1,145 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import junit.framework.Assert;
+
+import org.jboss.shrinkwrap.resolver.api.maven.MavenArtifactInfo;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenClassLoader;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenCoordinates;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Ensures that class loaders of the same artifacts share loaded classes and are released when all of them are closed
+ */
+public class SharedClassLoadersTestCase {
+
+    private static final String LOADED_CLASS = Loaded.class.getName();
+
+    // does not see test classes
+    private static final ClassLoader PARENT = ClassLoader.getSystemClassLoader().getParent();
+
+    private MavenResolvedArtifact classes;
+    private MavenResolvedArtifact resources;
+
+    @Before
+    public void createArtifacts() throws IOException {
+        final File directory = new File("target/shared-class-loaders");
+        directory.mkdirs();
+        classes = artifact(jar(new File(directory, "classes.jar"), LOADED_CLASS.replace('.', '/') + ".class"));
+        resources = artifact(jar(new File(directory, "resources.jar"), "resource.txt"));
+    }
+
+    @Test
+    public void sameArtifactsShareClasses() throws Exception {
+        final MavenClassLoader first = stage(classes, resources).asClassLoader(PARENT);
+        final MavenClassLoader second = stage(classes, resources).asClassLoader(PARENT);
+        try {
+            Assert.assertNotSame(first, second);
+            Assert.assertSame("Classes are shared", first.loadClass(LOADED_CLASS), second.loadClass(LOADED_CLASS));
+            Assert.assertNotSame("Class was not loaded from the test classpath", Loaded.class,
+                first.loadClass(LOADED_CLASS));
+            Assert.assertNotNull(second.getResource("resource.txt"));
+        } finally {
+            first.close();
+            second.close();
+        }
+    }
+
+    @Test
+    public void differentArtifactsDoNotShare() throws Exception {
+        final MavenClassLoader first = stage(classes, resources).asClassLoader(PARENT);
+        final MavenClassLoader reordered = stage(resources, classes).asClassLoader(PARENT);
+        final MavenClassLoader other = stage(classes).asClassLoader(PARENT);
+        try {
+            Assert.assertNotSame(first.loadClass(LOADED_CLASS), reordered.loadClass(LOADED_CLASS));
+            Assert.assertNotSame(first.loadClass(LOADED_CLASS), other.loadClass(LOADED_CLASS));
+            Assert.assertNull(other.getResource("resource.txt"));
+        } finally {
+            first.close();
+            reordered.close();
+            other.close();
+        }
+    }
+
+    @Test
+    public void releasedWhenAllAreClosed() {
+        final int before = SharedClassLoaders.size();
+        final MavenClassLoader first = stage(classes).asClassLoader(PARENT);
+        final MavenClassLoader second = stage(classes).asClassLoader(PARENT);
+        Assert.assertEquals(before + 1, SharedClassLoaders.size());
+
+        first.close();
+        first.close();
+        Assert.assertEquals("Loader is still in use", before + 1, SharedClassLoaders.size());
+
+        second.close();
+        Assert.assertEquals("Loader was released", before, SharedClassLoaders.size());
+    }
+
+    private static MavenFormatStageImpl stage(final MavenResolvedArtifact... artifacts) {
+        return new MavenFormatStageImpl(new ArrayList<MavenResolvedArtifact>(Arrays.asList(artifacts)));
+    }
+
+    private static MavenResolvedArtifact artifact(final File file) {
+        final String name = file.getName().substring(0, file.getName().lastIndexOf('.'));
+        return new MavenResolvedArtifactImpl(MavenCoordinates.createCoordinate("org.jboss.test:" + name + ":1.0"), "1.0",
+            false, "jar", ScopeType.COMPILE, file, new MavenArtifactInfo[0]);
+    }
+
+    /**
+     * Creates jar with a single entry, copied from the test classpath if available there
+     */
+    private static File jar(final File file, final String entry) throws IOException {
+        final JarOutputStream out = new JarOutputStream(new FileOutputStream(file));
+        try {
+            out.putNextEntry(new ZipEntry(entry));
+            final InputStream in = SharedClassLoadersTestCase.class.getClassLoader().getResourceAsStream(entry);
+            if (in == null) {
+                out.write(entry.getBytes("UTF-8"));
+            } else {
+                try {
+                    final byte[] buffer = new byte[4096];
+                    for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                        out.write(buffer, 0, read);
+                    }
+                } finally {
+                    in.close();
+                }
+            }
+            out.closeEntry();
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    public static class Loaded {
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolverSystem;
+import org.jboss.shrinkwrap.resolver.impl.maven.format.MavenResolvedArtifactProcessor;
+import org.jboss.shrinkwrap.resolver.spi.format.ByteBufferFormatProcessor;
+import org.jboss.shrinkwrap.resolver.spi.format.FileChannelFormatProcessor;
+import org.jboss.shrinkwrap.resolver.spi.format.FileFormatProcessor;
+import org.jboss.shrinkwrap.resolver.spi.format.FormatProcessor;
+import org.jboss.shrinkwrap.resolver.spi.format.InputStreamFormatProcessor;
+import org.jboss.shrinkwrap.resolver.spi.loader.SpiServiceLoader;
+import org.junit.Test;
+
+/**
+ * Ensures that services registered in META-INF/services are loaded in registration order from cached provider classes
+ */
+public class SpiServiceLoaderTestCase {
+
+    @Test
+    @SuppressWarnings("rawtypes")
+    public void loadServicesInRegistrationOrder() {
+        final SpiServiceLoader loader = new SpiServiceLoader(Thread.currentThread().getContextClassLoader());
+        final Collection<FormatProcessor> processors = loader.all(FormatProcessor.class);
+
+        final List<Class<?>> processorClasses = new ArrayList<Class<?>>();
+        for (FormatProcessor processor : processors) {
+            processorClasses.add(processor.getClass());
+        }
+
+        Assert.assertEquals("Format processors are loaded in registration order", 5, processorClasses.size());
+        Assert.assertEquals(FileFormatProcessor.class, processorClasses.get(0));
+        Assert.assertEquals(InputStreamFormatProcessor.class, processorClasses.get(1));
+        Assert.assertEquals(MavenResolvedArtifactProcessor.class, processorClasses.get(2));
+        Assert.assertEquals(FileChannelFormatProcessor.class, processorClasses.get(3));
+        Assert.assertEquals(ByteBufferFormatProcessor.class, processorClasses.get(4));
+    }
+
+    @Test
+    public void mergedServiceFileIsRead() throws Exception {
+        final File root = new File("target/merged-services");
+        final String serviceFile = "META-INF/services/" + Runnable.class.getName();
+
+        // registrations of several modules merged into a single file, as shading does
+        write(new File(root, serviceFile), First.class.getName() + "\n" + Second.class.getName() + "\n");
+
+        final ClassLoader cl = new URLClassLoader(new URL[] { root.toURI().toURL() }, getClass().getClassLoader());
+        final List<Class<?>> providerClasses = new ArrayList<Class<?>>();
+        for (Runnable provider : new SpiServiceLoader(cl).all(Runnable.class)) {
+            providerClasses.add(provider.getClass());
+        }
+
+        Assert.assertEquals("All merged registrations are loaded", 2, providerClasses.size());
+        Assert.assertEquals(First.class, providerClasses.get(0));
+        Assert.assertEquals(Second.class, providerClasses.get(1));
+    }
+
+    @Test
+    public void createNewInstancesFromCachedProviders() {
+        final SpiServiceLoader loader = new SpiServiceLoader(Thread.currentThread().getContextClassLoader());
+
+        final MavenResolverSystem first = loader.onlyOne(MavenResolverSystem.class);
+        final MavenResolverSystem second = new SpiServiceLoader(Thread.currentThread().getContextClassLoader())
+            .onlyOne(MavenResolverSystem.class);
+
+        Assert.assertEquals(MavenResolverSystemImpl.class, first.getClass());
+        Assert.assertNotSame("Cached provider classes still create new instances", first, second);
+    }
+
+    private static void write(File file, String content) throws IOException {
+        file.getParentFile().mkdirs();
+        final OutputStream os = new FileOutputStream(file);
+        try {
+            os.write(content.getBytes("UTF-8"));
+        } finally {
+            os.close();
+        }
+    }
+
+    public static class First implements Runnable {
+        @Override
+        public void run() {
+        }
+    }
+
+    public static class Second implements Runnable {
+        @Override
+        public void run() {
+        }
+    }
+}
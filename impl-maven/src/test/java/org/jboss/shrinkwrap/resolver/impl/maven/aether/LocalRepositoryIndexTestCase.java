@@ -0,0 +1,180 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.aether;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import junit.framework.Assert;
+
+import org.jboss.shrinkwrap.resolver.impl.maven.util.TestFileUtil;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Ensures that index of the local repository is rebuilt, persisted and updated incrementally
+ */
+public class LocalRepositoryIndexTestCase {
+
+    private static final File REPOSITORY = new File("target/indexed-local-repository");
+
+    private static final String ARTIFACT = "org/jboss/test/a/1.0/a-1.0.jar";
+
+    @Before
+    public void prepareRepository() throws IOException {
+        TestFileUtil.removeDirectory(REPOSITORY);
+        write(ARTIFACT, "content");
+        write(ARTIFACT + ".sha1", "040f06fd774092478d450774f5ba30c5da78acc8  a-1.0.jar\n");
+        write("org/jboss/test/a/1.0/" + LocalRepositoryIndex.TRACKING_FILE, "a-1.0.jar>central=\na-1.0.pom>central=\n");
+        write("org/jboss/test/a/1.0/a-1.0.pom", "<project/>");
+        write("org/jboss/test/a/maven-metadata-central.xml", "<metadata/>");
+    }
+
+    @Test
+    public void indexIsRebuiltFromRepository() {
+        final LocalRepositoryIndex index = new LocalRepositoryIndex(REPOSITORY);
+
+        Assert.assertEquals("Artifacts are indexed, metadata and checksums are not", 2, index.size());
+        final LocalRepositoryIndex.Entry entry = index.get(ARTIFACT);
+        Assert.assertNotNull(entry);
+        Assert.assertEquals("040f06fd774092478d450774f5ba30c5da78acc8", entry.getSha1());
+        Assert.assertTrue("Origin of the artifact is indexed", entry.isFrom("central"));
+        Assert.assertFalse(entry.isLocallyInstalled());
+        Assert.assertTrue("Index was persisted", new File(REPOSITORY, LocalRepositoryIndex.INDEX_FILE).isFile());
+    }
+
+    @Test
+    public void persistedIndexIsNotRebuilt() throws IOException {
+        new LocalRepositoryIndex(REPOSITORY);
+        // not visible unless the repository is scanned again
+        write("org/jboss/test/b/1.0/b-1.0.jar", "content");
+
+        final LocalRepositoryIndex index = new LocalRepositoryIndex(REPOSITORY);
+        Assert.assertEquals(2, index.size());
+        Assert.assertNull(index.get("org/jboss/test/b/1.0/b-1.0.jar"));
+    }
+
+    @Test
+    public void refreshedEntriesArePersisted() throws IOException {
+        final LocalRepositoryIndex first = new LocalRepositoryIndex(REPOSITORY);
+        write("org/jboss/test/b/1.0/b-1.0.jar", "content");
+        Assert.assertNotNull(first.refresh("org/jboss/test/b/1.0/b-1.0.jar"));
+        Assert.assertTrue(new File(REPOSITORY, ARTIFACT).delete());
+        Assert.assertNull("Removed artifact is not indexed", first.refresh(ARTIFACT));
+
+        final LocalRepositoryIndex second = new LocalRepositoryIndex(REPOSITORY);
+        Assert.assertNotNull("Appended entry was loaded", second.get("org/jboss/test/b/1.0/b-1.0.jar"));
+        Assert.assertNull("Removal was loaded", second.get(ARTIFACT));
+    }
+
+    @Test
+    public void truncatedRecordIsIgnored() throws IOException {
+        new LocalRepositoryIndex(REPOSITORY);
+        final OutputStream out = new FileOutputStream(new File(REPOSITORY, LocalRepositoryIndex.INDEX_FILE), true);
+        try {
+            out.write(new byte[] { 0, 0, 1, 0, 42 });
+        } finally {
+            out.close();
+        }
+
+        final LocalRepositoryIndex index = new LocalRepositoryIndex(REPOSITORY);
+        Assert.assertNotNull("Complete records were loaded", index.get(ARTIFACT));
+        Assert.assertEquals(2, index.size());
+    }
+
+    @Test
+    public void indexedEntryIsTrustedUntilRefreshed() throws IOException {
+        final LocalRepositoryIndex index = new LocalRepositoryIndex(REPOSITORY);
+        final File artifact = new File(REPOSITORY, ARTIFACT);
+        final LocalRepositoryIndex.Entry entry = index.get(ARTIFACT);
+
+        write(ARTIFACT, "CONTENT");
+        Assert.assertTrue(artifact.setLastModified(artifact.lastModified() + 2000L));
+        Assert.assertEquals("Lookup does not touch the artifact", entry, index.get(ARTIFACT));
+
+        final LocalRepositoryIndex.Entry refreshed = index.refresh(ARTIFACT);
+        Assert.assertFalse("Re-downloaded artifact of the same size is detected", entry.equals(refreshed));
+        Assert.assertEquals(refreshed, index.get(ARTIFACT));
+    }
+
+    @Test
+    public void changesOfOtherInstanceAreSynced() throws IOException {
+        final LocalRepositoryIndex first = new LocalRepositoryIndex(REPOSITORY);
+        final LocalRepositoryIndex second = new LocalRepositoryIndex(REPOSITORY);
+        write("org/jboss/test/b/1.0/b-1.0.jar", "content");
+        Assert.assertTrue(new File(REPOSITORY, ARTIFACT).delete());
+        first.refresh("org/jboss/test/b/1.0/b-1.0.jar");
+        first.refresh(ARTIFACT);
+
+        Assert.assertNotNull("Other instance was not synced yet", second.get(ARTIFACT));
+        second.sync();
+        Assert.assertNotNull("Appended entry was synced", second.get("org/jboss/test/b/1.0/b-1.0.jar"));
+        Assert.assertNull("Removal was synced", second.get(ARTIFACT));
+        Assert.assertEquals(2, second.size());
+
+        first.sync();
+        Assert.assertEquals("Own records are not read again", 2, first.size());
+    }
+
+    @Test
+    public void entriesAreLookedUpInPersistedIndex() throws IOException {
+        for (int i = 0; i < 100; i++) {
+            write("org/jboss/test/c" + i + "/1.0/c" + i + "-1.0.jar", "content " + i);
+        }
+        new LocalRepositoryIndex(REPOSITORY);
+
+        final LocalRepositoryIndex index = new LocalRepositoryIndex(REPOSITORY);
+        Assert.assertEquals(102, index.size());
+        for (int i = 0; i < 100; i++) {
+            final String path = "org/jboss/test/c" + i + "/1.0/c" + i + "-1.0.jar";
+            Assert.assertEquals(index.get(path), index.refresh(path));
+        }
+        Assert.assertNull(index.get("org/jboss/test/c100/1.0/c100-1.0.jar"));
+    }
+
+    @Test
+    public void journalIsCompacted() throws IOException {
+        final LocalRepositoryIndex first = new LocalRepositoryIndex(REPOSITORY);
+        final File artifact = new File(REPOSITORY, ARTIFACT);
+        final long lastModified = artifact.lastModified();
+        for (int i = 1; i <= 1100; i++) {
+            Assert.assertTrue(artifact.setLastModified(lastModified + i * 1000L));
+            first.refresh(ARTIFACT);
+        }
+        final long journaled = new File(REPOSITORY, LocalRepositoryIndex.INDEX_FILE).length();
+        first.close();
+
+        final LocalRepositoryIndex second = new LocalRepositoryIndex(REPOSITORY);
+        final long compacted = new File(REPOSITORY, LocalRepositoryIndex.INDEX_FILE).length();
+        Assert.assertTrue("Index was rewritten", compacted < journaled);
+        Assert.assertEquals(2, second.size());
+        Assert.assertEquals(second.refresh(ARTIFACT), second.get(ARTIFACT));
+    }
+
+    private static void write(final String path, final String content) throws IOException {
+        final File file = new File(REPOSITORY, path);
+        file.getParentFile().mkdirs();
+        final OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.aether;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.sonatype.aether.transfer.ArtifactTransferException;
+import org.sonatype.aether.util.artifact.DefaultArtifact;
+
+/**
+ * Ensures that concurrent downloads of the same resource are led by a single thread and share its result
+ */
+public class SingleFlightDownloadsTestCase {
+
+    private static final int THREADS = 8;
+
+    @Test
+    public void concurrentRequestsShareDownload() throws Exception {
+        final String key = SingleFlightDownloads.keyOf("test-repository", "org/jboss/test/a/1.0/a-1.0.jar");
+        final AtomicInteger transfers = new AtomicInteger();
+        final CountDownLatch joined = new CountDownLatch(THREADS);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<ArtifactTransferException>> results = new ArrayList<Future<ArtifactTransferException>>();
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(new Callable<ArtifactTransferException>() {
+                    @Override
+                    public ArtifactTransferException call() throws Exception {
+                        final SingleFlightDownloads.Ticket ticket = SingleFlightDownloads.join(key);
+                        joined.countDown();
+                        if (!ticket.isLeader()) {
+                            return ticket.await();
+                        }
+                        // keep the download in progress until every thread joined it
+                        joined.await();
+                        transfers.incrementAndGet();
+                        final ArtifactTransferException failure = new ArtifactTransferException(new DefaultArtifact(
+                            "org.jboss.test:a:1.0"), null, "Failed");
+                        ticket.complete(failure);
+                        return failure;
+                    }
+                }));
+            }
+
+            final ArtifactTransferException failure = results.get(0).get();
+            Assert.assertNotNull(failure);
+            for (final Future<ArtifactTransferException> result : results) {
+                Assert.assertSame("All threads got result of the single download", failure, result.get());
+            }
+            Assert.assertEquals("Resource was transferred once", 1, transfers.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void completedDownloadIsNotReused() {
+        final String key = SingleFlightDownloads.keyOf("test-repository", "org/jboss/test/b/1.0/b-1.0.jar");
+
+        final SingleFlightDownloads.Ticket first = SingleFlightDownloads.join(key);
+        Assert.assertTrue(first.isLeader());
+        Assert.assertFalse("Download is in progress", SingleFlightDownloads.join(key).isLeader());
+        first.complete(null);
+
+        final SingleFlightDownloads.Ticket second = SingleFlightDownloads.join(key);
+        Assert.assertTrue("Completed download is not shared with later requests", second.isLeader());
+        second.complete(null);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void onlyLeaderCompletes() {
+        final String key = SingleFlightDownloads.keyOf("test-repository", "org/jboss/test/c/1.0/c-1.0.jar");
+        final SingleFlightDownloads.Ticket leader = SingleFlightDownloads.join(key);
+        try {
+            SingleFlightDownloads.join(key).complete(null);
+        } finally {
+            leader.complete(null);
+        }
+    }
+}
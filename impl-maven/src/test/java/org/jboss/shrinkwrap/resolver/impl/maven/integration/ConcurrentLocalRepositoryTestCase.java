@@ -0,0 +1,203 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.integration;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import junit.framework.Assert;
+
+import org.jboss.shrinkwrap.resolver.api.maven.Maven;
+import org.jboss.shrinkwrap.resolver.impl.maven.aether.LockingRepositoryConnectorFactory;
+import org.jboss.shrinkwrap.resolver.impl.maven.bootstrap.MavenSettingsBuilder;
+import org.jboss.shrinkwrap.resolver.impl.maven.logging.LogTransferListener;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.TestFileUtil;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.ValidationUtil;
+import org.junit.Test;
+
+/**
+ * Stress test of several processes resolving into the same, initially empty, local repository. Every artifact has to be
+ * downloaded exactly once and every process has to get complete artifacts.
+ */
+public class ConcurrentLocalRepositoryTestCase {
+
+    private static final int PROCESSES = 4;
+
+    private static final String DOWNLOADED = "DOWNLOADED ";
+    private static final String RESOLVED = "RESOLVED ";
+
+    private static final File LOCAL_REPOSITORY = new File("target/concurrent-repository");
+    private static final File START_SIGNAL = new File("target/concurrent-repository.start");
+
+    @Test
+    public void processesShareLocalRepository() throws Exception {
+        TestFileUtil.removeDirectory(LOCAL_REPOSITORY);
+        START_SIGNAL.delete();
+
+        final List<Process> processes = new ArrayList<Process>(PROCESSES);
+        for (int i = 0; i < PROCESSES; i++) {
+            processes.add(startProcess());
+        }
+        Assert.assertTrue(START_SIGNAL.createNewFile());
+
+        final Map<String, Integer> downloads = new HashMap<String, Integer>();
+        for (final Process process : processes) {
+            final List<String> output = readOutput(process);
+            Assert.assertEquals("Process succeeded, output: " + output, 0, process.waitFor());
+
+            final List<File> resolved = new ArrayList<File>();
+            for (final String line : output) {
+                if (line.startsWith(DOWNLOADED)) {
+                    final String resource = line.substring(DOWNLOADED.length());
+                    final Integer count = downloads.get(resource);
+                    downloads.put(resource, count == null ? 1 : count + 1);
+                } else if (line.startsWith(RESOLVED)) {
+                    resolved.add(new File(line.substring(RESOLVED.length())));
+                }
+            }
+            new ValidationUtil("test-deps-c", "test-deps-b").validate(resolved.toArray(new File[resolved.size()]));
+        }
+
+        Assert.assertFalse("Artifacts were downloaded", downloads.isEmpty());
+        for (final Map.Entry<String, Integer> download : downloads.entrySet()) {
+            Assert.assertEquals("Artifact " + download.getKey() + " was downloaded exactly once", Integer.valueOf(1),
+                download.getValue());
+        }
+
+        // lock files are kept per artifact directory and reused by later downloads
+        final File locks = new File(LOCAL_REPOSITORY, ".shrinkwrap-resolver/locks");
+        final List<File> lockFiles = listFiles(locks, new ArrayList<File>());
+        Assert.assertFalse("Lock files were created", lockFiles.isEmpty());
+        for (final File lockFile : lockFiles) {
+            final String path = lockFile.getPath().substring(locks.getPath().length() + 1);
+            Assert.assertTrue("Lock file " + path + " belongs to an artifact directory", new File(LOCAL_REPOSITORY,
+                path.substring(0, path.length() - ".lock".length())).isDirectory());
+        }
+    }
+
+    @Test
+    public void localRepositoryIsNotLockedByDefault() throws Exception {
+        TestFileUtil.removeDirectory(LOCAL_REPOSITORY);
+        System
+            .setProperty(MavenSettingsBuilder.ALT_USER_SETTINGS_XML_LOCATION, "target/settings/profiles/settings.xml");
+        System.setProperty(MavenSettingsBuilder.ALT_LOCAL_REPOSITORY_LOCATION, LOCAL_REPOSITORY.getPath());
+        try {
+            final File[] files = Maven.resolver().resolve("org.jboss.shrinkwrap.test:test-deps-c:1.0.0")
+                .withTransitivity().asFile();
+            new ValidationUtil("test-deps-c", "test-deps-b").validate(files);
+        } finally {
+            System.clearProperty(MavenSettingsBuilder.ALT_USER_SETTINGS_XML_LOCATION);
+            System.clearProperty(MavenSettingsBuilder.ALT_LOCAL_REPOSITORY_LOCATION);
+        }
+        Assert.assertFalse("No lock files were created", new File(LOCAL_REPOSITORY, ".shrinkwrap-resolver/locks")
+            .exists());
+    }
+
+    private static List<File> listFiles(final File directory, final List<File> files) {
+        final File[] children = directory.listFiles();
+        if (children != null) {
+            for (final File child : children) {
+                if (child.isDirectory()) {
+                    listFiles(child, files);
+                } else {
+                    files.add(child);
+                }
+            }
+        }
+        return files;
+    }
+
+    private static Process startProcess() throws IOException {
+        String classpath = System.getProperty("surefire.test.class.path");
+        if (classpath == null || classpath.length() == 0) {
+            classpath = System.getProperty("java.class.path");
+        }
+        final ProcessBuilder builder = new ProcessBuilder(new File(new File(System.getProperty("java.home"), "bin"),
+            "java").getAbsolutePath(), "-cp", classpath, "-D" + MavenSettingsBuilder.ALT_USER_SETTINGS_XML_LOCATION
+            + "=target/settings/profiles/settings.xml", "-D" + MavenSettingsBuilder.ALT_LOCAL_REPOSITORY_LOCATION + "="
+            + LOCAL_REPOSITORY.getPath(), "-D" + LockingRepositoryConnectorFactory.LOCAL_REPOSITORY_LOCKING + "=true",
+            ResolvingProcess.class.getName(), START_SIGNAL.getPath());
+        builder.redirectErrorStream(true);
+        return builder.start();
+    }
+
+    private static List<String> readOutput(final Process process) throws IOException {
+        final List<String> lines = new ArrayList<String>();
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } finally {
+            reader.close();
+        }
+        return lines;
+    }
+
+    /**
+     * Resolves test-deps-c once the start signal appears and reports downloads and resolved files on standard output
+     */
+    public static class ResolvingProcess {
+
+        public static void main(final String[] args) throws Exception {
+            final Logger transferLog = Logger.getLogger(LogTransferListener.class.getName());
+            transferLog.setLevel(Level.FINE);
+            transferLog.addHandler(new Handler() {
+                @Override
+                public void publish(final LogRecord record) {
+                    final String message = record.getMessage();
+                    final int start = message.indexOf("download of ");
+                    final int end = message.indexOf(" from ");
+                    if (message.startsWith("Completed") && start >= 0 && end > start) {
+                        System.out.println(DOWNLOADED + message.substring(start + "download of ".length(), end));
+                    }
+                }
+
+                @Override
+                public void flush() {
+                    System.out.flush();
+                }
+
+                @Override
+                public void close() {
+                }
+            });
+
+            final File startSignal = new File(args[0]);
+            while (!startSignal.exists()) {
+                Thread.sleep(10);
+            }
+
+            final File[] files = Maven.resolver().resolve("org.jboss.shrinkwrap.test:test-deps-c:1.0.0")
+                .withTransitivity().asFile();
+            for (final File file : files) {
+                System.out.println(RESOLVED + file.getAbsolutePath());
+            }
+        }
+    }
+}
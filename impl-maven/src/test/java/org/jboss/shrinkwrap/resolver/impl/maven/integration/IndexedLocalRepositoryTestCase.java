@@ -0,0 +1,71 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.integration;
+
+import java.io.File;
+
+import junit.framework.Assert;
+
+import org.jboss.shrinkwrap.resolver.api.maven.Maven;
+import org.jboss.shrinkwrap.resolver.impl.maven.aether.IndexedLocalRepositoryManager;
+import org.jboss.shrinkwrap.resolver.impl.maven.bootstrap.MavenSettingsBuilder;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.TestFileUtil;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.ValidationUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Ensures that resolution backed by the index of the local repository gives the same results
+ */
+public class IndexedLocalRepositoryTestCase {
+
+    private static final String LOCAL_REPOSITORY = "target/indexed-repository";
+
+    @Before
+    public void enableIndex() throws Exception {
+        System
+            .setProperty(MavenSettingsBuilder.ALT_USER_SETTINGS_XML_LOCATION, "target/settings/profiles/settings.xml");
+        System.setProperty(MavenSettingsBuilder.ALT_LOCAL_REPOSITORY_LOCATION, LOCAL_REPOSITORY);
+        System.setProperty(IndexedLocalRepositoryManager.INDEXED_LOCAL_REPOSITORY, "true");
+        TestFileUtil.removeDirectory(new File(LOCAL_REPOSITORY));
+    }
+
+    @After
+    public void disableIndex() {
+        System.clearProperty(MavenSettingsBuilder.ALT_USER_SETTINGS_XML_LOCATION);
+        System.clearProperty(MavenSettingsBuilder.ALT_LOCAL_REPOSITORY_LOCATION);
+        System.clearProperty(IndexedLocalRepositoryManager.INDEXED_LOCAL_REPOSITORY);
+    }
+
+    @Test
+    public void resolveWithIndex() {
+        final File[] downloaded = Maven.resolver().resolve("org.jboss.shrinkwrap.test:test-deps-c:1.0.0")
+            .withTransitivity().asFile();
+        new ValidationUtil("test-deps-c", "test-deps-b").validate(downloaded);
+        Assert.assertTrue("Index was written", new File(LOCAL_REPOSITORY,
+            ".shrinkwrap-resolver/local-repository.index").isFile());
+
+        // now answered from the index
+        final File[] indexed = Maven.resolver().resolve("org.jboss.shrinkwrap.test:test-deps-c:1.0.0")
+            .withTransitivity().asFile();
+        Assert.assertEquals(downloaded.length, indexed.length);
+        for (int i = 0; i < downloaded.length; i++) {
+            Assert.assertEquals(downloaded[i], indexed[i]);
+        }
+    }
+}
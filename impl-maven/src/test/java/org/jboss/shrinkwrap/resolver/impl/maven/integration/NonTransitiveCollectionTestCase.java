@@ -0,0 +1,131 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.integration;
+
+import java.io.File;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.jboss.shrinkwrap.resolver.api.maven.Maven;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependency;
+import org.jboss.shrinkwrap.resolver.api.maven.filter.MavenResolutionFilter;
+import org.jboss.shrinkwrap.resolver.api.maven.filter.NonTransitiveFilter;
+import org.jboss.shrinkwrap.resolver.api.maven.strategy.MavenResolutionStrategy;
+import org.jboss.shrinkwrap.resolver.api.maven.strategy.NonTransitiveStrategy;
+import org.jboss.shrinkwrap.resolver.impl.maven.aether.ResolutionFilterCompiler;
+import org.jboss.shrinkwrap.resolver.impl.maven.bootstrap.MavenSettingsBuilder;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.TestFileUtil;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.ValidationUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Ensures that pruned non transitive resolution does not collect transitive dependencies while giving the same result as
+ * filtering of the fully collected graph
+ */
+public class NonTransitiveCollectionTestCase {
+
+    @Before
+    public void setRemoteRepository() {
+        System
+            .setProperty(MavenSettingsBuilder.ALT_USER_SETTINGS_XML_LOCATION, "target/settings/profiles/settings.xml");
+        System.setProperty(ResolutionFilterCompiler.PRUNE_NON_TRANSITIVE_COLLECTION, "true");
+    }
+
+    @After
+    public void clearRemoteRepository() {
+        System.clearProperty(MavenSettingsBuilder.ALT_USER_SETTINGS_XML_LOCATION);
+        System.clearProperty(MavenSettingsBuilder.ALT_LOCAL_REPOSITORY_LOCATION);
+        System.clearProperty(ResolutionFilterCompiler.PRUNE_NON_TRANSITIVE_COLLECTION);
+    }
+
+    @Test
+    public void transitiveDescriptorsAreNotCollected() throws Exception {
+        final File localRepository = useLocalRepository("target/non-transitive-repository");
+
+        final File[] files = Maven.resolver().resolve("org.jboss.shrinkwrap.test:test-deps-c:1.0.0")
+            .using(NonTransitiveStrategy.INSTANCE).as(File.class);
+
+        new ValidationUtil("test-deps-c").validate(files);
+        Assert.assertTrue("Direct dependency descriptor was read", new File(localRepository,
+            "org/jboss/shrinkwrap/test/test-deps-c/1.0.0/test-deps-c-1.0.0.pom").isFile());
+        Assert.assertFalse("Transitive dependency descriptor was not read", new File(localRepository,
+            "org/jboss/shrinkwrap/test/test-deps-b").exists());
+    }
+
+    @Test
+    public void pruningIsDisabledByDefault() throws Exception {
+        System.clearProperty(ResolutionFilterCompiler.PRUNE_NON_TRANSITIVE_COLLECTION);
+        final File localRepository = useLocalRepository("target/non-pruned-repository");
+
+        final MavenResolvedArtifact artifact = Maven.resolver().resolve("org.jboss.shrinkwrap.test:test-deps-c:1.0.0")
+            .using(NonTransitiveStrategy.INSTANCE).asSingleResolvedArtifact();
+
+        Assert.assertEquals("Dependency tree is available", 1, artifact.getDependencies().length);
+        Assert.assertTrue("Transitive dependency descriptor was read", new File(localRepository,
+            "org/jboss/shrinkwrap/test/test-deps-b/1.0.0/test-deps-b-1.0.0.pom").isFile());
+    }
+
+    @Test
+    public void sameResultAsFilteringCollectedGraph() throws Exception {
+        useLocalRepository("target/collected-graph-repository");
+
+        final File[] pruned = Maven.resolver().resolve("org.jboss.shrinkwrap.test:test-deps-c:1.0.0")
+            .using(NonTransitiveStrategy.INSTANCE).as(File.class);
+        final File[] filtered = Maven.resolver().resolve("org.jboss.shrinkwrap.test:test-deps-c:1.0.0")
+            .using(CollectedGraphStrategy.INSTANCE).as(File.class);
+
+        Assert.assertEquals(filtered.length, pruned.length);
+        for (int i = 0; i < filtered.length; i++) {
+            Assert.assertEquals(filtered[i].getName(), pruned[i].getName());
+        }
+    }
+
+    private static File useLocalRepository(final String path) throws Exception {
+        final File localRepository = new File(path);
+        TestFileUtil.removeDirectory(localRepository);
+        System.setProperty(MavenSettingsBuilder.ALT_LOCAL_REPOSITORY_LOCATION, path);
+        return localRepository;
+    }
+
+    /**
+     * Non transitive strategy which cannot be pushed down into collection, as its filter is not known to the resolver
+     */
+    private enum CollectedGraphStrategy implements MavenResolutionStrategy {
+        INSTANCE;
+
+        private static final MavenResolutionFilter[] FILTERS = new MavenResolutionFilter[] { new MavenResolutionFilter() {
+            @Override
+            public boolean accepts(final MavenDependency dependency, final List<MavenDependency> dependenciesForResolution) {
+                return NonTransitiveFilter.INSTANCE.accepts(dependency, dependenciesForResolution);
+            }
+        } };
+
+        @Override
+        public MavenResolutionFilter[] getPreResolutionFilters() {
+            return FILTERS;
+        }
+
+        @Override
+        public MavenResolutionFilter[] getResolutionFilters() {
+            return FILTERS;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.integration;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+
+import junit.framework.Assert;
+
+import org.jboss.shrinkwrap.resolver.api.NoResolvedResultException;
+import org.jboss.shrinkwrap.resolver.api.Resolvers;
+import org.jboss.shrinkwrap.resolver.api.maven.Maven;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenOfflineBundleResolverSystem;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenOfflineBundleStage;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.impl.maven.bootstrap.MavenSettingsBuilder;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.TestFileUtil;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.ValidationUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Ensures that resolution exported into an offline bundle can be resolved from the bundle only
+ */
+public class OfflineBundleTestCase {
+
+    private static final File BUNDLE = new File("target/offline-bundle");
+
+    @Before
+    public void exportBundle() throws Exception {
+        System
+            .setProperty(MavenSettingsBuilder.ALT_USER_SETTINGS_XML_LOCATION, "target/settings/profiles/settings.xml");
+        System.setProperty(MavenSettingsBuilder.ALT_LOCAL_REPOSITORY_LOCATION, "target/offline-bundle-repository");
+        TestFileUtil.removeDirectory(BUNDLE);
+
+        final File index = Maven.resolver().resolve("org.jboss.shrinkwrap.test:test-deps-c:1.0.0").withTransitivity()
+            .exportBundle(BUNDLE);
+        Assert.assertTrue("Bundle index was written", index.isFile());
+    }
+
+    @After
+    public void clearRemoteRepository() {
+        System.clearProperty(MavenSettingsBuilder.ALT_USER_SETTINGS_XML_LOCATION);
+        System.clearProperty(MavenSettingsBuilder.ALT_LOCAL_REPOSITORY_LOCATION);
+    }
+
+    @Test
+    public void bundleContainsArtifactsAndPoms() {
+        Assert.assertTrue(new File(BUNDLE, "org/jboss/shrinkwrap/test/test-deps-c/1.0.0/test-deps-c-1.0.0.jar").isFile());
+        Assert.assertTrue(new File(BUNDLE, "org/jboss/shrinkwrap/test/test-deps-c/1.0.0/test-deps-c-1.0.0.pom").isFile());
+        Assert.assertTrue(new File(BUNDLE, "org/jboss/shrinkwrap/test/test-deps-b/1.0.0/test-deps-b-1.0.0.jar").isFile());
+    }
+
+    @Test
+    public void resolveFromBundle() {
+        // no repository is available
+        System.clearProperty(MavenSettingsBuilder.ALT_USER_SETTINGS_XML_LOCATION);
+        System.clearProperty(MavenSettingsBuilder.ALT_LOCAL_REPOSITORY_LOCATION);
+
+        final File[] files = load().resolve("org.jboss.shrinkwrap.test:test-deps-c:1.0.0").asFile();
+
+        new ValidationUtil("test-deps-c", "test-deps-b").validate(files);
+        for (final File file : files) {
+            Assert.assertTrue("Artifact is taken from the bundle", file.getAbsolutePath().startsWith(
+                BUNDLE.getAbsolutePath()));
+        }
+    }
+
+    @Test
+    public void resolveFromBundleWithoutTransitivity() {
+        final MavenResolvedArtifact artifact = load().resolveWithoutTransitivity("org.jboss.shrinkwrap.test:test-deps-c")
+            .asSingleResolvedArtifact();
+
+        Assert.assertEquals("org.jboss.shrinkwrap.test:test-deps-c:jar:1.0.0", artifact.getCoordinate()
+            .toCanonicalForm());
+        Assert.assertEquals("Dependency graph is kept in the bundle", 1, artifact.getDependencies().length);
+        Assert.assertEquals("test-deps-b", artifact.getDependencies()[0].getCoordinate().getArtifactId());
+    }
+
+    @Test
+    public void importWholeBundle() {
+        new ValidationUtil("test-deps-c", "test-deps-b").validate(load().importBundle().asFile());
+    }
+
+    @Test(expected = NoResolvedResultException.class)
+    public void differentVersionIsNotResolved() {
+        load().resolve("org.jboss.shrinkwrap.test:test-deps-c:2.0.0");
+    }
+
+    @Test(expected = NoResolvedResultException.class)
+    public void missingArtifactIsNotResolved() {
+        load().resolve("org.jboss.shrinkwrap.test:test-deps-d:1.0.0");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void corruptedArtifactIsDetected() throws Exception {
+        final OutputStream out = new FileOutputStream(new File(BUNDLE,
+            "org/jboss/shrinkwrap/test/test-deps-b/1.0.0/test-deps-b-1.0.0.jar"), true);
+        try {
+            out.write(1);
+        } finally {
+            out.close();
+        }
+        load().resolve("org.jboss.shrinkwrap.test:test-deps-c:1.0.0");
+    }
+
+    private static MavenOfflineBundleStage load() {
+        return Resolvers.use(MavenOfflineBundleResolverSystem.class).loadBundle(BUNDLE);
+    }
+}
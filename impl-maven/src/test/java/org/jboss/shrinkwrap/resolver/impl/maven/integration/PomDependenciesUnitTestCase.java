@@ -17,10 +17,15 @@
 package org.jboss.shrinkwrap.resolver.impl.maven.integration;
 
 import java.io.File;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import junit.framework.Assert;
 
 import org.jboss.shrinkwrap.resolver.api.Resolvers;
 import org.jboss.shrinkwrap.resolver.api.maven.Maven;
 import org.jboss.shrinkwrap.resolver.api.maven.MavenResolverSystem;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenScopedResolution;
 import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
 import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependencies;
 import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependency;
@@ -204,4 +209,33 @@ public class PomDependenciesUnitTestCase {
         ValidationUtil.fromDependencyTree(new File("src/test/resources/dependency-trees/test-remote-child.tree"),
             false, ScopeType.COMPILE, ScopeType.RUNTIME).validate(files);
     }
+
+    /**
+     * Tests that a single resolution of a POM file provides the same classpaths as Maven
+     *
+     */
+    @Test
+    public void pomBasedDependenciesByScope() {
+
+        final MavenScopedResolution resolution = Maven.resolver().loadPomFromFile("target/poms/test-child.xml")
+            .importDependenciesByScope();
+        final File tree = new File("src/test/resources/dependency-trees/test-child.tree");
+
+        ValidationUtil.fromDependencyTree(tree, false, ScopeType.COMPILE, ScopeType.PROVIDED).validate(
+            resolution.compileScope().as(File.class));
+        final File[] runtime = resolution.runtimeScope().as(File.class);
+        ValidationUtil.fromDependencyTree(tree, false, ScopeType.COMPILE, ScopeType.IMPORT, ScopeType.RUNTIME,
+            ScopeType.SYSTEM).validate(runtime);
+        ValidationUtil.fromDependencyTree(tree, false, ScopeType.values()).validate(
+            resolution.testScope().as(File.class));
+        ValidationUtil.fromDependencyTree(tree, false, ScopeType.PROVIDED).validate(
+            resolution.providedScope().as(File.class));
+        ValidationUtil.fromDependencyTree(tree, false, ScopeType.TEST).validate(
+            resolution.scopes(ScopeType.TEST).as(File.class));
+
+        // runtime scope accepts the same scopes as if runtime dependencies were resolved separately
+        final File[] imported = Maven.resolver().loadPomFromFile("target/poms/test-child.xml")
+            .importRuntimeDependencies().as(File.class);
+        Assert.assertEquals(new HashSet<File>(Arrays.asList(imported)), new HashSet<File>(Arrays.asList(runtime)));
+    }
 }
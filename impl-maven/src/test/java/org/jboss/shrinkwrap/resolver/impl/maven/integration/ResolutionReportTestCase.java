@@ -0,0 +1,152 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.integration;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.Assert;
+
+import org.jboss.shrinkwrap.resolver.api.maven.Maven;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenFormatStage;
+import org.jboss.shrinkwrap.resolver.api.maven.PomEquippedResolveStage;
+import org.jboss.shrinkwrap.resolver.api.maven.ResolutionReport;
+import org.jboss.shrinkwrap.resolver.api.maven.ResolutionReport.Phase;
+import org.jboss.shrinkwrap.resolver.api.maven.filter.MavenResolutionFilter;
+import org.jboss.shrinkwrap.resolver.impl.maven.MavenWorkingSessionImpl;
+import org.jboss.shrinkwrap.resolver.impl.maven.ResolutionReportImpl;
+import org.jboss.shrinkwrap.resolver.impl.maven.bootstrap.MavenSettingsBuilder;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.TestFileUtil;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.ValidationUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sonatype.aether.collection.CollectRequest;
+import org.sonatype.aether.graph.Dependency;
+import org.sonatype.aether.util.artifact.DefaultArtifact;
+
+/**
+ * Ensures that each resolution reports its phases and transfers
+ */
+public class ResolutionReportTestCase {
+
+    private static final String LOCAL_REPOSITORY = "target/report-repository";
+
+    @Before
+    public void prepareRepository() throws Exception {
+        System
+            .setProperty(MavenSettingsBuilder.ALT_USER_SETTINGS_XML_LOCATION, "target/settings/profiles/settings.xml");
+        System.setProperty(MavenSettingsBuilder.ALT_LOCAL_REPOSITORY_LOCATION, LOCAL_REPOSITORY);
+        TestFileUtil.removeDirectory(new File(LOCAL_REPOSITORY));
+    }
+
+    @After
+    public void clearProperties() {
+        System.clearProperty(MavenSettingsBuilder.ALT_USER_SETTINGS_XML_LOCATION);
+        System.clearProperty(MavenSettingsBuilder.ALT_LOCAL_REPOSITORY_LOCATION);
+    }
+
+    @Test
+    public void reportDownloads() {
+        final MavenFormatStage stage = Maven.resolver().resolve("org.jboss.shrinkwrap.test:test-deps-c:1.0.0")
+            .withTransitivity();
+        new ValidationUtil("test-deps-c", "test-deps-b").validate(stage.asFile());
+
+        final ResolutionReport report = stage.getResolutionReport();
+        Assert.assertTrue("Artifacts and POMs were requested", report.getRemoteRequests() >= 4);
+        Assert.assertTrue("Bytes were downloaded", report.getBytesDownloaded() > 0);
+        Assert.assertEquals("No POM was loaded", 0, report.getPhaseMillis(Phase.LOAD_POM_METADATA));
+        Assert.assertTrue(report.getTotalMillis() >= report.getPhaseMillis(Phase.RESOLUTION));
+
+        final List<ResolutionReport.Transfer> slowest = report.getSlowestArtifacts(2);
+        Assert.assertEquals(2, slowest.size());
+        Assert.assertTrue("Slowest transfer goes first", slowest.get(0).getMillis() >= slowest.get(1).getMillis());
+
+        final List<ResolutionReport.RepositorySummary> repositories = report.getSlowestRepositories(10);
+        Assert.assertEquals("Test repository was the only one used", 1, repositories.size());
+        Assert.assertEquals(report.getRemoteRequests(), repositories.get(0).getRequests());
+        Assert.assertEquals(report.getBytesDownloaded(), repositories.get(0).getBytes());
+        Assert.assertTrue(report.toString().contains(repositories.get(0).getRepositoryUrl()));
+    }
+
+    @Test
+    public void eachResolutionHasItsOwnReport() {
+        final PomEquippedResolveStage resolver = Maven.resolver().loadPomFromFile("target/poms/test-parent.xml");
+        final ResolutionReport first = resolver.resolve("org.jboss.shrinkwrap.test:test-deps-c:1.0.0")
+            .withTransitivity().getResolutionReport();
+        final ResolutionReport second = resolver.resolve("org.jboss.shrinkwrap.test:test-deps-c:1.0.0")
+            .withTransitivity().getResolutionReport();
+
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals("Loading of the POM is reported by each resolution",
+            first.getPhaseMillis(Phase.LOAD_POM_METADATA), second.getPhaseMillis(Phase.LOAD_POM_METADATA));
+        Assert.assertTrue("First resolution downloaded artifacts", first.getRemoteRequests() > 0);
+        Assert.assertEquals("Second resolution used the local repository", 0, second.getRemoteRequests());
+        Assert.assertEquals(0, second.getPhaseMillis(Phase.FORMAT_PROCESSING));
+    }
+
+    @Test
+    public void overlappingResolutionsAreReportedSeparately() throws Exception {
+        final MavenWorkingSessionImpl session = new MavenWorkingSessionImpl();
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            final Future<ResolutionReport> c = pool.submit(resolution(session, "test-deps-c", start));
+            final Future<ResolutionReport> e = pool.submit(resolution(session, "test-deps-e", start));
+            start.countDown();
+
+            assertTransfersOf(c.get(), "test-deps-c", "test-deps-b");
+            assertTransfersOf(e.get(), "test-deps-e");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Callable<ResolutionReport> resolution(final MavenWorkingSessionImpl session,
+        final String artifactId, final CountDownLatch start) {
+        return new Callable<ResolutionReport>() {
+            @Override
+            public ResolutionReport call() throws Exception {
+                final CollectRequest request = new CollectRequest(new Dependency(new DefaultArtifact(
+                    "org.jboss.shrinkwrap.test:" + artifactId + ":1.0.0"), "compile"),
+                    session.getRemoteRepositories());
+                final ResolutionReportImpl report = session.newResolutionReport();
+                start.await();
+                session.execute(request, new MavenResolutionFilter[0], report);
+                return report;
+            }
+        };
+    }
+
+    private static void assertTransfersOf(final ResolutionReport report, final String... artifactIds) {
+        final Collection<ResolutionReport.Transfer> transfers = report.getSlowestArtifacts(Integer.MAX_VALUE);
+        Assert.assertFalse("Transfers were recorded", transfers.isEmpty());
+        for (final ResolutionReport.Transfer transfer : transfers) {
+            boolean own = false;
+            for (final String artifactId : artifactIds) {
+                own |= transfer.getResourceName().contains("/" + artifactId + "/");
+            }
+            Assert.assertTrue("Transfer " + transfer + " belongs to the resolution", own);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.integration;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import junit.framework.Assert;
+
+import org.jboss.shrinkwrap.resolver.api.maven.Maven;
+import org.jboss.shrinkwrap.resolver.impl.maven.bootstrap.MavenSettingsBuilder;
+import org.jboss.shrinkwrap.resolver.impl.maven.metrics.MetricsSnapshot;
+import org.jboss.shrinkwrap.resolver.impl.maven.metrics.Phase;
+import org.jboss.shrinkwrap.resolver.impl.maven.metrics.ResolverMetrics;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.TestFileUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Ensures that resolution feeds transfer, cache and phase metrics, available both as a snapshot and via JMX
+ */
+public class ResolverMetricsTestCase {
+
+    private static final String LOCAL_REPOSITORY = "target/metrics-repository";
+
+    @Before
+    public void prepareRepository() throws Exception {
+        System
+            .setProperty(MavenSettingsBuilder.ALT_USER_SETTINGS_XML_LOCATION, "target/settings/profiles/settings.xml");
+        System.setProperty(MavenSettingsBuilder.ALT_LOCAL_REPOSITORY_LOCATION, LOCAL_REPOSITORY);
+        TestFileUtil.removeDirectory(new File(LOCAL_REPOSITORY));
+        ResolverMetrics.getInstance().reset();
+        ResolverMetrics.getInstance().register();
+    }
+
+    @After
+    public void clearProperties() {
+        System.clearProperty(MavenSettingsBuilder.ALT_USER_SETTINGS_XML_LOCATION);
+        System.clearProperty(MavenSettingsBuilder.ALT_LOCAL_REPOSITORY_LOCATION);
+        ResolverMetrics.getInstance().unregister();
+    }
+
+    @Test
+    public void resolutionIsMeasured() throws Exception {
+        Maven.resolver().resolve("org.jboss.shrinkwrap.test:test-deps-c:1.0.0").withTransitivity().asFile();
+
+        final MetricsSnapshot downloaded = ResolverMetrics.getInstance().snapshot();
+        Assert.assertTrue("Artifacts were downloaded", downloaded.getRemoteResolutions() >= 2);
+        Assert.assertEquals("Nothing was in the local repository", 0, downloaded.getLocalRepositoryHits());
+
+        MetricsSnapshot.RepositoryStatistics repository = null;
+        for (final MetricsSnapshot.RepositoryStatistics statistics : downloaded.getRepositories().values()) {
+            if (statistics.getDownloads() > 0) {
+                repository = statistics;
+            }
+        }
+        Assert.assertNotNull("Downloads were counted for the test repository", repository);
+        Assert.assertTrue("Transferred bytes were counted", repository.getBytesDownloaded() > 0);
+        Assert.assertEquals("Each download has its latency", repository.getDownloads(), repository.getLatency()
+            .getCount());
+        Assert.assertTrue(repository.getRequests() >= repository.getDownloads());
+
+        Assert.assertEquals(1, downloaded.getPhases().get(Phase.COLLECTION).getDurations().getCount());
+        Assert.assertEquals(1, downloaded.getPhases().get(Phase.RESOLUTION).getDurations().getCount());
+        Assert.assertTrue(downloaded.getPhases().get(Phase.SETTINGS_BUILDING).getDurations().getCount() > 0);
+        Assert.assertEquals(0, downloaded.getPhases().get(Phase.COLLECTION).getFailures());
+
+        Maven.resolver().resolve("org.jboss.shrinkwrap.test:test-deps-c:1.0.0").withTransitivity().asFile();
+
+        final MetricsSnapshot cached = ResolverMetrics.getInstance().snapshot();
+        Assert.assertEquals("Second resolution did not download anything", downloaded.getRemoteResolutions(),
+            cached.getRemoteResolutions());
+        Assert.assertTrue("Second resolution was served by the local repository", cached.getLocalRepositoryHits() > 0);
+        Assert.assertTrue(cached.getLocalRepositoryHitRatio() > 0 && cached.getLocalRepositoryHitRatio() < 1);
+
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName resolverMetrics = new ObjectName(ResolverMetrics.DOMAIN + ":type=ResolverMetrics");
+        Assert.assertEquals("Metrics are available via JMX", cached.getArtifactsResolved(),
+            server.getAttribute(resolverMetrics, "ArtifactsResolved"));
+        final Set<ObjectName> repositories = server.queryNames(new ObjectName(ResolverMetrics.DOMAIN
+            + ":type=RepositoryMetrics,*"), null);
+        Assert.assertFalse("Repository metrics are registered", repositories.isEmpty());
+        Assert.assertEquals(2L, server.getAttribute(new ObjectName(ResolverMetrics.DOMAIN
+            + ":type=PhaseMetrics,phase=COLLECTION"), "Count"));
+    }
+
+    @Test
+    public void failedResolutionIsCounted() {
+        try {
+            Maven.resolver().resolve("org.jboss.shrinkwrap.test:test-deps-missing:1.0.0").withTransitivity().asFile();
+            Assert.fail("Missing artifact was resolved");
+        } catch (final RuntimeException expected) {
+            // expected
+        }
+
+        final MetricsSnapshot snapshot = ResolverMetrics.getInstance().snapshot();
+        Assert.assertEquals("Collection of a missing artifact failed", 1, snapshot.getPhases().get(Phase.COLLECTION)
+            .getFailures());
+        long failures = 0;
+        for (final MetricsSnapshot.RepositoryStatistics repository : snapshot.getRepositories().values()) {
+            failures += repository.getFailures();
+        }
+        Assert.assertTrue("Failed transfers were counted", failures > 0);
+    }
+}
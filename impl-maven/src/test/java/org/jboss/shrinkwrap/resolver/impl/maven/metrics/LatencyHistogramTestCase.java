@@ -0,0 +1,66 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.metrics;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+/**
+ * Ensures that histogram of durations estimates percentiles from its buckets
+ */
+public class LatencyHistogramTestCase {
+
+    @Test
+    public void percentilesFollowBuckets() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 90; i++) {
+            histogram.record(3);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(700);
+        }
+
+        final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        Assert.assertEquals(100, snapshot.getCount());
+        Assert.assertEquals(90 * 3 + 10 * 700, snapshot.getTotalMillis());
+        Assert.assertEquals(700, snapshot.getMaxMillis());
+        Assert.assertEquals("Median is the bound of the bucket", 5, snapshot.getPercentileMillis(50));
+        Assert.assertEquals(5, snapshot.getPercentileMillis(90));
+        Assert.assertEquals("Estimate does not exceed the maximum", 700, snapshot.getPercentileMillis(99));
+    }
+
+    @Test
+    public void emptyHistogram() {
+        final LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+        Assert.assertEquals(0, snapshot.getCount());
+        Assert.assertEquals(0.0, snapshot.getMeanMillis());
+        Assert.assertEquals(0, snapshot.getPercentileMillis(99));
+        Assert.assertEquals(LatencyHistogram.getBounds().length + 1, snapshot.getCounts().length);
+    }
+
+    @Test
+    public void longDurationsFallIntoLastBucket() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE / 2);
+        histogram.record(-1);
+
+        final long[] counts = histogram.snapshot().getCounts();
+        Assert.assertEquals("Negative duration is recorded as zero", 1, counts[0]);
+        Assert.assertEquals(1, counts[counts.length - 1]);
+    }
+}
@@ -44,4 +44,10 @@ public class PluginIntegrationTestCase {
         new ValidationUtil("junit").validate(files);
     }
 
+    @Test
+    public void loadRuntimeDependenciesFromExportedGraph() {
+        final File[] files = Maven.resolvedGraphViaPlugin().importRuntimeDependencies().as(File.class);
+        new ValidationUtil("junit", "hamcrest-core").validate(files);
+    }
+
 }
@@ -0,0 +1,173 @@
+package org.jboss.shrinkwrap.resolver.plugin;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Exports dependencies of the project, as resolved by Maven for the test classpath, to a file. ShrinkWrap Maven Resolver
+ * is able to import dependencies of the project from this file without collecting and resolving them again. Location of
+ * the file is propagated to the command line properties under "namespace.resolved-graph".
+ *
+ * The file is UTF-8 encoded. The first line is a header, each following line represents one artifact with tab separated
+ * values:
+ *
+ * <ul>
+ * <li>canonical form of the coordinate, groupId:artifactId:extension[:classifier]:baseVersion</li>
+ * <li>resolved version</li>
+ * <li>scope</li>
+ * <li>absolute path of the file</li>
+ * <li>canonical form of the coordinate of the artifact which brought this one in, empty for direct dependencies</li>
+ * </ul>
+ *
+ * @goal export-resolved-graph
+ * @phase process-test-classes
+ * @requiresProject
+ * @requiresDependencyResolution test
+ * @executionStrategy always
+ *
+ */
+public class ExportResolvedGraphMojo extends AbstractMojo {
+
+    /**
+     * Header of the exported file, the trailing number is the version of the format
+     */
+    public static final String HEADER = "# shrinkwrap-resolver resolved graph 1";
+
+    /**
+     * The current build session instance.
+     *
+     * @parameter expression="${session}"
+     * @required
+     * @readonly
+     */
+    private MavenSession session;
+
+    /**
+     * Name space where properties are stored. This means that all the properties are stored under
+     * "namespace.value. + property.name"
+     *
+     * @parameter default-value="maven.execution."
+     */
+    private String namespace;
+
+    /**
+     * File the resolved dependencies are exported to.
+     *
+     * @parameter default-value="${project.build.directory}/shrinkwrap-resolver/resolved-graph.txt"
+     */
+    private File outputFile;
+
+    public void execute() throws MojoExecutionException {
+
+        MavenProject project = session.getCurrentProject();
+        Set<Artifact> artifacts = project.getArtifacts();
+
+        // dependency trails refer to artifacts by their id
+        Map<String, String> coordinates = new HashMap<String, String>(artifacts.size() * 2);
+        for (Artifact artifact : artifacts) {
+            coordinates.put(artifact.getId(), toCanonicalForm(artifact));
+        }
+
+        File directory = outputFile.getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new MojoExecutionException("Unable to create directory " + directory.getAbsolutePath());
+        }
+
+        try {
+            Writer writer = new OutputStreamWriter(new FileOutputStream(outputFile), "UTF-8");
+            try {
+                writer.write(HEADER);
+                writer.write('\n');
+                for (Artifact artifact : artifacts) {
+                    File file = artifact.getFile();
+                    if (file == null) {
+                        getLog().warn("Artifact " + artifact.getId() + " was not resolved, it will not be exported");
+                        continue;
+                    }
+                    writer.write(coordinates.get(artifact.getId()));
+                    writer.write('\t');
+                    writer.write(artifact.getVersion());
+                    writer.write('\t');
+                    writer.write(artifact.getScope() == null ? "" : artifact.getScope());
+                    writer.write('\t');
+                    writer.write(file.getAbsolutePath());
+                    writer.write('\t');
+                    writer.write(parentOf(artifact, coordinates));
+                    writer.write('\n');
+                }
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to export resolved dependencies to " + outputFile.getAbsolutePath(),
+                e);
+        }
+
+        MavenExecutionRequest request = session.getRequest();
+        Properties properties = request.getUserProperties();
+        updateUserProperty(properties, "resolved-graph", outputFile.getAbsolutePath());
+        request.setUserProperties(properties);
+    }
+
+    /**
+     * Gets current value of name space
+     *
+     * @return
+     */
+    public String getNamespace() {
+        return namespace;
+    }
+
+    /**
+     * Sets the value of name space
+     *
+     * @param namespace
+     */
+    public void setNamespace(String namespace) {
+        this.namespace = namespace;
+    }
+
+    private static String toCanonicalForm(Artifact artifact) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(artifact.getGroupId()).append(':').append(artifact.getArtifactId()).append(':')
+            .append(artifact.getArtifactHandler().getExtension()).append(':');
+        if (artifact.hasClassifier()) {
+            sb.append(artifact.getClassifier()).append(':');
+        }
+        return sb.append(artifact.getBaseVersion()).toString();
+    }
+
+    // trail starts with the project and ends with the artifact itself
+    private static String parentOf(Artifact artifact, Map<String, String> coordinates) {
+        List<String> trail = artifact.getDependencyTrail();
+        if (trail == null || trail.size() < 3) {
+            return "";
+        }
+        String parent = coordinates.get(trail.get(trail.size() - 2));
+        return parent == null ? "" : parent;
+    }
+
+    private void updateUserProperty(Properties properties, String key, String value) {
+        if (key != null && value != null) {
+            properties.setProperty(getNamespace() + key, value);
+            getLog().debug(
+                "Propagating [" + getNamespace() + key + "=" + value
+                    + "] from Maven Session to command line properties");
+        }
+    }
+}
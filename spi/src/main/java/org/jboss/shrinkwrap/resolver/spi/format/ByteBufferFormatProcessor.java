@@ -0,0 +1,73 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.spi.format;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+import org.jboss.shrinkwrap.resolver.api.ResolvedArtifact;
+
+/**
+ * {@link FormatProcessor} implementation to return content of the provided {@link ResolvedArtifact} argument as a
+ * read-only {@link MappedByteBuffer}. The file is mapped into memory rather than read, the mapping is released once the
+ * buffer is garbage collected.
+ *
+ * Implementation note: This format processor does not use type parameters to be able to process any type inherited from
+ * {@link ResolvedArtifact}.
+ */
+@SuppressWarnings("rawtypes")
+public enum ByteBufferFormatProcessor implements ConcurrentFormatProcessor {
+    INSTANCE;
+
+    @Override
+    public MappedByteBuffer process(final ResolvedArtifact artifact, final Class returnType)
+        throws IllegalArgumentException {
+        final File file = FileFormatProcessor.INSTANCE.process(artifact, File.class);
+        if (file.length() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("input file is too large to be mapped: " + file.getAbsolutePath());
+        }
+
+        final FileChannel channel = FileChannelFormatProcessor.INSTANCE.process(artifact, FileChannel.class);
+        try {
+            // mapping stays valid after the channel is closed
+            return channel.map(MapMode.READ_ONLY, 0, channel.size());
+        } catch (final IOException ioe) {
+            throw new IllegalArgumentException("Unable to map input file " + file.getAbsolutePath(), ioe);
+        } finally {
+            try {
+                channel.close();
+            } catch (final IOException ignore) {
+                // nothing to do, the mapping is independent of the channel
+            }
+        }
+    }
+
+    @Override
+    public boolean handles(final Class resolvedTypeClass) {
+        return ResolvedArtifact.class.isAssignableFrom(resolvedTypeClass);
+    }
+
+    @Override
+    public boolean returns(final Class returnTypeClass) {
+        return ByteBuffer.class.equals(returnTypeClass) || MappedByteBuffer.class.equals(returnTypeClass);
+    }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.spi.format;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.nio.channels.FileChannel;
+
+import org.jboss.shrinkwrap.resolver.api.ResolvedArtifact;
+
+/**
+ * {@link FormatProcessor} implementation to return a read-only {@link FileChannel} from the provided
+ * {@link ResolvedArtifact} argument. It is a caller responsibility to close the channel afterwards.
+ *
+ * Implementation note: This format processor does not use type parameters to be able to process any type inherited from
+ * {@link ResolvedArtifact}.
+ */
+@SuppressWarnings("rawtypes")
+public enum FileChannelFormatProcessor implements ConcurrentFormatProcessor {
+    INSTANCE;
+
+    @Override
+    public FileChannel process(final ResolvedArtifact artifact, final Class returnType) throws IllegalArgumentException {
+        final File file = FileFormatProcessor.INSTANCE.process(artifact, File.class);
+        try {
+            return new FileInputStream(file).getChannel();
+        } catch (final FileNotFoundException fnfe) {
+            // Wrap to make the compiler happy, even though we have the precondition checks above
+            throw new IllegalArgumentException(fnfe);
+        }
+    }
+
+    @Override
+    public boolean handles(final Class resolvedTypeClass) {
+        return ResolvedArtifact.class.isAssignableFrom(resolvedTypeClass);
+    }
+
+    @Override
+    public boolean returns(final Class returnTypeClass) {
+        return FileChannel.class.equals(returnTypeClass);
+    }
+
+}
@@ -31,7 +31,7 @@ import org.jboss.shrinkwrap.resolver.api.ResolvedArtifact;
  *
  */
 @SuppressWarnings("rawtypes")
-public enum FileFormatProcessor implements FormatProcessor {
+public enum FileFormatProcessor implements ConcurrentFormatProcessor {
     INSTANCE;
 
     @Override
@@ -32,7 +32,7 @@ import org.jboss.shrinkwrap.resolver.api.ResolvedArtifact;
  * @author <a href="mailto:alr@jboss.org">Andrew Lee Rubinger</a>
  */
 @SuppressWarnings("rawtypes")
-public enum InputStreamFormatProcessor implements FormatProcessor {
+public enum InputStreamFormatProcessor implements ConcurrentFormatProcessor {
     INSTANCE;
 
     /**
@@ -18,23 +18,30 @@ package org.jboss.shrinkwrap.resolver.spi.loader;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 /**
  * A simple singleton (application scoped} registry that fulfills {@link ServiceLoader} contract. This registry uses underlying
  * {@link ServiceLoader} implementation to load the service while storing cached instances in a local map.
  *
+ * Reads of already cached services do not acquire any lock. The first request for a given service class is executed only
+ * once, concurrent callers asking for the same service class wait for its result instead of loading it again.
+ *
  * @author <a href="mailto:kpiwko@redhat.com">Karel Piwko</a>
  *
  */
 public class ServiceRegistry implements ServiceLoader {
 
-    private ServiceLoader serviceLoader;
+    private final ServiceLoader serviceLoader;
 
-    private Map<Class<?>, Collection<?>> cachedServiceInstances;
+    private final ConcurrentMap<Class<?>, Future<Collection<?>>> cachedServiceInstances;
 
-    private static ServiceRegistry instance;
+    private static volatile ServiceRegistry instance;
 
     /**
      * Creates a service registry with a {@link ServiceLoader} to load service instances until they are cached
@@ -43,7 +50,7 @@ public class ServiceRegistry implements ServiceLoader {
      */
     public ServiceRegistry(ServiceLoader serviceLoader) {
         this.serviceLoader = serviceLoader;
-        this.cachedServiceInstances = Collections.synchronizedMap(new HashMap<Class<?>, Collection<?>>());
+        this.cachedServiceInstances = new ConcurrentHashMap<Class<?>, Future<Collection<?>>>();
     }
 
     /**
@@ -52,11 +59,12 @@ public class ServiceRegistry implements ServiceLoader {
      * @return
      * @throws IllegalStateException If no service registry was registered yet
      */
-    public static synchronized ServiceRegistry getInstance() throws IllegalStateException {
-        if (instance == null) {
+    public static ServiceRegistry getInstance() throws IllegalStateException {
+        final ServiceRegistry registry = instance;
+        if (registry == null) {
             throw new IllegalStateException("Unable to get instance of Service Registry, it was not initialized.");
         }
-        return instance;
+        return registry;
     }
 
     /**
@@ -64,10 +72,19 @@ public class ServiceRegistry implements ServiceLoader {
      *
      * @param registry
      */
-    public static synchronized void register(ServiceRegistry registry) {
+    public static void register(ServiceRegistry registry) {
         instance = registry;
     }
 
+    /**
+     * Returns the {@link ServiceLoader} this registry loads service instances with
+     *
+     * @return
+     */
+    public ServiceLoader getServiceLoader() {
+        return serviceLoader;
+    }
+
     /**
      * Loads all registered services for given {@code serviceClass}
      *
@@ -77,20 +94,18 @@ public class ServiceRegistry implements ServiceLoader {
      */
     @SuppressWarnings("unchecked")
     @Override
-    public <T> Collection<T> all(Class<T> serviceClass) throws IllegalArgumentException {
+    public <T> Collection<T> all(final Class<T> serviceClass) throws IllegalArgumentException {
 
         if (serviceClass == null) {
             throw new IllegalArgumentException("ServiceClass must be provided");
         }
 
-        synchronized (cachedServiceInstances) {
-            if (cachedServiceInstances.containsKey(serviceClass)) {
-                return (Collection<T>) cachedServiceInstances.get(serviceClass);
+        return (Collection<T>) cached(serviceClass, new Callable<Collection<?>>() {
+            @Override
+            public Collection<?> call() {
+                return serviceLoader.all(serviceClass);
             }
-            Collection<Object> services = (Collection<Object>) serviceLoader.all(serviceClass);
-            cachedServiceInstances.put(serviceClass, services);
-            return (Collection<T>) services;
-        }
+        });
     }
 
     /**
@@ -103,21 +118,19 @@ public class ServiceRegistry implements ServiceLoader {
      */
     @SuppressWarnings("unchecked")
     @Override
-    public <T> T onlyOne(Class<T> serviceClass) throws IllegalArgumentException, IllegalStateException {
+    public <T> T onlyOne(final Class<T> serviceClass) throws IllegalArgumentException, IllegalStateException {
 
         // double check here, we don't eventually want to pass null as a key to the map
         if (serviceClass == null) {
             throw new IllegalArgumentException("ServiceClass must be provided");
         }
 
-        synchronized (cachedServiceInstances) {
-            if (cachedServiceInstances.containsKey(serviceClass)) {
-                return (T) cachedServiceInstances.get(serviceClass).iterator().next();
+        return (T) cached(serviceClass, new Callable<Collection<?>>() {
+            @Override
+            public Collection<?> call() {
+                return Collections.singleton(serviceLoader.onlyOne(serviceClass));
             }
-            T service = serviceLoader.onlyOne(serviceClass);
-            cachedServiceInstances.put(serviceClass, Collections.singleton(service));
-            return service;
-        }
+        }).iterator().next();
     }
 
     /**
@@ -133,7 +146,7 @@ public class ServiceRegistry implements ServiceLoader {
      */
     @SuppressWarnings("unchecked")
     @Override
-    public <T> T onlyOne(Class<T> serviceClass, Class<? extends T> defaultImplementationClass)
+    public <T> T onlyOne(final Class<T> serviceClass, final Class<? extends T> defaultImplementationClass)
             throws IllegalArgumentException, IllegalStateException {
 
         // double check here, we don't eventually want to pass null as a key to the map
@@ -141,13 +154,49 @@ public class ServiceRegistry implements ServiceLoader {
             throw new IllegalArgumentException("ServiceClass must be provided");
         }
 
-        synchronized (cachedServiceInstances) {
-            if (cachedServiceInstances.containsKey(serviceClass)) {
-                return (T) cachedServiceInstances.get(serviceClass).iterator().next();
+        return (T) cached(serviceClass, new Callable<Collection<?>>() {
+            @Override
+            public Collection<?> call() {
+                return Collections.singleton(serviceLoader.onlyOne(serviceClass, defaultImplementationClass));
+            }
+        }).iterator().next();
+    }
+
+    /**
+     * Returns cached service instances for given {@code serviceClass}. If there are none, {@code loader} is executed by
+     * the first caller while any concurrent callers wait for its result. Failed loads are not cached.
+     *
+     * @param serviceClass
+     * @param loader
+     * @return
+     */
+    private Collection<?> cached(final Class<?> serviceClass, final Callable<Collection<?>> loader) {
+
+        Future<Collection<?>> services = cachedServiceInstances.get(serviceClass);
+        if (services == null) {
+            final FutureTask<Collection<?>> task = new FutureTask<Collection<?>>(loader);
+            services = cachedServiceInstances.putIfAbsent(serviceClass, task);
+            if (services == null) {
+                services = task;
+                task.run();
+            }
+        }
+
+        try {
+            return services.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading services for " + serviceClass.getName(), e);
+        } catch (final ExecutionException e) {
+            // let the next caller try again
+            cachedServiceInstances.remove(serviceClass, services);
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
             }
-            T service = serviceLoader.onlyOne(serviceClass, defaultImplementationClass);
-            cachedServiceInstances.put(serviceClass, Collections.singleton(service));
-            return service;
+            throw new IllegalStateException("Unable to load services for " + serviceClass.getName(), cause);
         }
     }
 
@@ -19,12 +19,18 @@ package org.jboss.shrinkwrap.resolver.spi.loader;
 import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.net.URL;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -34,6 +40,9 @@ import java.util.logging.Logger;
  * In order to register a service, create a file META-INF/services/${service.interface.name}. The content of the file should
  * list fully qualified names of interface implementations, separated by new line character.
  *
+ * Provider classes discovered for a service type are cached per {@link ClassLoader}, so META-INF/services files are
+ * searched and parsed only once per service type for as long as the cache is in use.
+ *
  * @author <a href="mailto:aslak@redhat.com">Aslak Knutsen</a>
  * @author <a href="mailto:kpiwko@redhat.com">Karel Piwko</a>
  * @author <a href="mailto:andrew.rubinger@jboss.org">ALR</a>
@@ -47,8 +56,17 @@ public class SpiServiceLoader implements ServiceLoader {
 
     private static final String SERVICES = "META-INF/services";
 
+    /**
+     * Provider caches by {@link ClassLoader}. Both keys and values are weak, as cached provider classes reference their
+     * {@link ClassLoader}. A cache is held by loader instances using it, so it lives as long as any of them does.
+     */
+    private static final Map<ClassLoader, WeakReference<ProviderCache>> PROVIDER_CACHES = Collections
+        .synchronizedMap(new WeakHashMap<ClassLoader, WeakReference<ProviderCache>>());
+
     private ClassLoader classLoader;
 
+    private ProviderCache providerCache;
+
     /**
      * Create an instance of SPI service loader
      */
@@ -124,14 +142,24 @@ public class SpiServiceLoader implements ServiceLoader {
     }
 
     public void setClassLoader(ClassLoader classLoader) {
-        this.classLoader = classLoader;
+        synchronized (this) {
+            this.classLoader = classLoader;
+            this.providerCache = null;
+        }
     }
 
     // -------------------------------------------------------------------------------------||
     // Internal Helper Methods - Service Loading -------------------------------------------||
     // -------------------------------------------------------------------------------------||
 
+    @SuppressWarnings({ "unchecked", "rawtypes" })
     private <T> Set<Class<? extends T>> load(Class<T> serviceClass) {
+        final ProviderCache cache = getProviderCache();
+        final Set<Class<?>> cached = cache.providers.get(serviceClass);
+        if (cached != null) {
+            return (Set) cached;
+        }
+
         String serviceFile = SERVICES + "/" + serviceClass.getName();
 
         LinkedHashSet<Class<? extends T>> providers = new LinkedHashSet<Class<? extends T>>();
@@ -150,13 +178,7 @@ public class SpiServiceLoader implements ServiceLoader {
                         line = skipCommentAndTrim(line);
 
                         if (line.length() > 0) {
-                            try {
-                                Class<? extends T> provider = classLoader.loadClass(line).asSubclass(serviceClass);
-                                providers.add(provider);
-                            } catch (ClassCastException e) {
-                                throw new IllegalStateException("Service " + line + " does not implement expected type "
-                                        + serviceClass.getName());
-                            }
+                            providers.add(loadProvider(serviceClass, line));
                         }
                         line = reader.readLine();
                     }
@@ -169,10 +191,54 @@ public class SpiServiceLoader implements ServiceLoader {
         } catch (Exception e) {
             throw new RuntimeException("Could not load services for " + serviceClass.getName(), e);
         }
-        return providers;
+
+        final Set<Class<?>> loaded = Collections.unmodifiableSet((Set) providers);
+        final Set<Class<?>> raced = cache.providers.putIfAbsent(serviceClass, loaded);
+        return (Set) (raced == null ? loaded : raced);
+    }
+
+    private <T> Class<? extends T> loadProvider(Class<T> serviceClass, String className) throws ClassNotFoundException {
+        try {
+            return classLoader.loadClass(className).asSubclass(serviceClass);
+        } catch (ClassCastException e) {
+            throw new IllegalStateException("Service " + className + " does not implement expected type "
+                    + serviceClass.getName());
+        }
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Internal Helper Methods - Provider Cache --------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    private synchronized ProviderCache getProviderCache() {
+        if (providerCache == null) {
+            providerCache = getProviderCache(classLoader);
+        }
+        return providerCache;
+    }
+
+    private static ProviderCache getProviderCache(ClassLoader classLoader) {
+        synchronized (PROVIDER_CACHES) {
+            final WeakReference<ProviderCache> reference = PROVIDER_CACHES.get(classLoader);
+            ProviderCache cache = reference == null ? null : reference.get();
+            if (cache == null) {
+                cache = new ProviderCache();
+                PROVIDER_CACHES.put(classLoader, new WeakReference<ProviderCache>(cache));
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * Discovered provider classes of a single {@link ClassLoader}
+     */
+    private static final class ProviderCache {
+
+        private final ConcurrentMap<Class<?>, Set<Class<?>>> providers =
+            new ConcurrentHashMap<Class<?>, Set<Class<?>>>();
     }
 
-    private String skipCommentAndTrim(String line) {
+    static String skipCommentAndTrim(String line) {
         final int comment = line.indexOf('#');
         if (comment > -1) {
             line = line.substring(0, comment);